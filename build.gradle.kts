@@ -169,7 +169,12 @@ tasks.runPluginVerifier {
 }
 
 tasks.test {
-    useJUnitPlatform()
+    useJUnitPlatform {
+        // benchmarks are opt-in: ./gradlew test -Pbenchmarks --tests '*Benchmarks'
+        if (!project.hasProperty("benchmarks")) {
+            excludeTags("benchmark")
+        }
+    }
     systemProperty("sonarlint.telemetry.disabled", "true")
 }
 
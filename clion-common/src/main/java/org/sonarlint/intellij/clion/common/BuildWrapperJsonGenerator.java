@@ -34,16 +34,27 @@ public class BuildWrapperJsonGenerator {
   }
 
   public BuildWrapperJsonGenerator add(AnalyzerConfiguration.Configuration configuration) {
+    return addCapture(toCapture(configuration));
+  }
+
+  /**
+   * Adds a capture previously serialized with {@link #toCapture(AnalyzerConfiguration.Configuration)}.
+   */
+  public BuildWrapperJsonGenerator addCapture(String capture) {
     if (first) {
       first = false;
     } else {
       builder.append(",");
     }
-    appendEntry(configuration);
+    builder.append(capture);
     return this;
   }
 
-  private void appendEntry(AnalyzerConfiguration.Configuration entry) {
+  /**
+   * Serializes the capture of a single file, so that it can be kept and reused for later analyses of the same file.
+   */
+  public static String toCapture(AnalyzerConfiguration.Configuration entry) {
+    var builder = new StringBuilder();
     var quotedCompilerExecutable = quote(entry.compilerExecutable());
     builder.append("{")
       .append("\"compiler\":\"")
@@ -71,6 +82,7 @@ public class BuildWrapperJsonGenerator {
       .append(quote(entry.virtualFile().getCanonicalPath()));
     entry.compilerSwitches().forEach(s -> builder.append(",").append(quote(s)));
     builder.append("]}");
+    return builder.toString();
   }
 
   public String build() {
@@ -152,6 +152,27 @@ class BuildWrapperJsonGeneratorTest {
       json);
   }
 
+  @Test
+  void reuse_serialized_capture() {
+    var fileSystem = new MockLocalFileSystem();
+
+    var virtualFile = fileSystem.findFileByIoFile(new File("test.cpp"));
+    var configuration = new AnalyzerConfiguration.Configuration(
+      virtualFile,
+      new File("/path/to/compiler").getAbsolutePath(),
+      new File("/path/to/compiler/working/dir").getAbsolutePath(),
+      List.of("a1", "a2"),
+      "clang",
+      null,
+      Map.of("isHeaderFile", "false"));
+
+    var capture = BuildWrapperJsonGenerator.toCapture(configuration);
+
+    assertEquals(
+      new BuildWrapperJsonGenerator().add(configuration).add(configuration).build(),
+      new BuildWrapperJsonGenerator().addCapture(capture).addCapture(capture).build());
+  }
+
   private static String quote(File file) {
     return BuildWrapperJsonGenerator.quote(file.getAbsoluteFile().toString());
   }
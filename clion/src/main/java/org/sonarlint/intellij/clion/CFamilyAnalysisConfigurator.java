@@ -22,25 +22,26 @@ package org.sonarlint.intellij.clion;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.vfs.VirtualFile;
 import java.util.Collection;
-import org.sonarlint.intellij.clion.common.AnalyzerConfiguration;
 import org.sonarlint.intellij.clion.common.BuildWrapperJsonGenerator;
 import org.sonarlint.intellij.common.analysis.AnalysisConfigurator;
 import org.sonarlint.intellij.common.ui.SonarLintConsole;
 
+import static org.sonarlint.intellij.common.util.SonarLintUtils.getService;
+
 public class CFamilyAnalysisConfigurator implements AnalysisConfigurator {
 
   @Override
   public AnalysisConfiguration configure(Module module, Collection<VirtualFile> filesToAnalyze) {
     SonarLintConsole.get(module.getProject()).debug("Running CFamily analysis configurator for CLion");
     var result = new AnalysisConfiguration();
-    var analyzerConfiguration = new CLionAnalyzerConfiguration(module.getProject());
+    var configurationCache = getService(module.getProject(), CLionConfigurationCache.class);
     var buildWrapperJsonGenerator = new BuildWrapperJsonGenerator();
     filesToAnalyze.stream()
-      .map(analyzerConfiguration::getConfiguration)
-      .filter(AnalyzerConfiguration.ConfigurationResult::hasConfiguration)
-      .map(AnalyzerConfiguration.ConfigurationResult::getConfiguration)
-      .forEach(configuration -> {
-        buildWrapperJsonGenerator.add(configuration);
+      .map(configurationCache::getConfiguration)
+      .filter(resolved -> resolved.result().hasConfiguration())
+      .forEach(resolved -> {
+        buildWrapperJsonGenerator.addCapture(resolved.capture());
+        var configuration = resolved.result().getConfiguration();
         if (configuration.sonarLanguage() != null) {
           result.forcedLanguages.put(configuration.virtualFile(), configuration.sonarLanguage());
         }
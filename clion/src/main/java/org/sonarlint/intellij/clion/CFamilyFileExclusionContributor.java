@@ -26,6 +26,7 @@ import com.jetbrains.cidr.lang.psi.OCPsiFile;
 import org.sonarlint.intellij.common.analysis.ExcludeResult;
 import org.sonarlint.intellij.common.analysis.FileExclusionContributor;
 
+import static org.sonarlint.intellij.common.util.SonarLintUtils.getService;
 import static org.sonarlint.intellij.common.util.SonarLintUtils.isCLion;
 
 public class CFamilyFileExclusionContributor implements FileExclusionContributor {
@@ -39,7 +40,7 @@ public class CFamilyFileExclusionContributor implements FileExclusionContributor
     if (!(psiFile instanceof OCPsiFile)) {
       return ExcludeResult.notExcluded();
     }
-    var configurationResult = new CLionAnalyzerConfiguration(module.getProject()).getConfiguration(fileToAnalyze);
+    var configurationResult = getService(module.getProject(), CLionConfigurationCache.class).getConfiguration(fileToAnalyze).result();
     if (configurationResult.hasConfiguration()) {
       return ExcludeResult.notExcluded();
     }
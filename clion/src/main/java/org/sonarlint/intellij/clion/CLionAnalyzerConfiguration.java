@@ -64,18 +64,9 @@ public class CLionAnalyzerConfiguration extends AnalyzerConfiguration {
     if (!ocFile.isInProjectSources()) {
       return new ConfigurationResult(ocFile + " not in project sources");
     }
-    OCResolveConfiguration configuration = null;
-    OCLanguageKind languageKind;
-    var languageAndConfiguration = ocFile.getParsedLanguageAndConfiguration();
-    if (languageAndConfiguration != null) {
-      configuration = languageAndConfiguration.getConfiguration();
-      languageKind = languageAndConfiguration.getLanguageKind();
-    } else {
-      languageKind = ocFile.getKind();
-    }
-    if (configuration == null) {
-      configuration = getConfiguration(project, file);
-    }
+    var selected = selectConfiguration(ocFile, file);
+    var configuration = selected.configuration();
+    var languageKind = selected.languageKind();
     if (configuration == null) {
       return ConfigurationResult.skip("configuration not found");
     }
@@ -107,6 +98,40 @@ public class CLionAnalyzerConfiguration extends AnalyzerConfiguration {
       compilerSettings.getCompilerSwitches().getList(CidrCompilerSwitches.Format.RAW), cFamilyCompiler, sonarLanguage, properties));
   }
 
+  /**
+   * @return the resolve configuration and language kind the file would be analyzed with, see {@link #getConfigurationAction(VirtualFile)}
+   */
+  public SelectedConfiguration selectConfiguration(VirtualFile file) {
+    var psiFile = PsiManager.getInstance(project).findFile(file);
+    if (!(psiFile instanceof OCPsiFile ocFile)) {
+      return SelectedConfiguration.NONE;
+    }
+    return selectConfiguration(ocFile, file);
+  }
+
+  private SelectedConfiguration selectConfiguration(OCPsiFile ocFile, VirtualFile file) {
+    OCResolveConfiguration configuration = null;
+    OCLanguageKind languageKind;
+    var languageAndConfiguration = ocFile.getParsedLanguageAndConfiguration();
+    if (languageAndConfiguration != null) {
+      configuration = languageAndConfiguration.getConfiguration();
+      languageKind = languageAndConfiguration.getLanguageKind();
+    } else {
+      languageKind = ocFile.getKind();
+    }
+    if (configuration == null) {
+      configuration = getConfiguration(project, file);
+    }
+    return new SelectedConfiguration(configuration, languageKind);
+  }
+
+  /**
+   * The configuration of the parsed file takes precedence over the one preselected for the file, as it can differ, e.g. for headers.
+   */
+  public record SelectedConfiguration(@Nullable OCResolveConfiguration configuration, @Nullable OCLanguageKind languageKind) {
+    static final SelectedConfiguration NONE = new SelectedConfiguration(null, null);
+  }
+
   @Nullable
   static ForcedLanguage getSonarLanguage(OCLanguageKind languageKind) {
     if (languageKind.equals(CLanguageKind.C)) {
@@ -0,0 +1,126 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.clion;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ModuleRootEvent;
+import com.intellij.openapi.roots.ModuleRootListener;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileContentChangeEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.serviceContainer.NonInjectable;
+import com.jetbrains.cidr.lang.workspace.OCWorkspaceListener;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+import org.jetbrains.annotations.NotNull;
+import org.sonarlint.intellij.clion.CLionAnalyzerConfiguration.SelectedConfiguration;
+import org.sonarlint.intellij.clion.common.AnalyzerConfiguration.ConfigurationResult;
+import org.sonarlint.intellij.clion.common.BuildWrapperJsonGenerator;
+
+import static org.sonarlint.intellij.common.ui.ReadActionUtils.computeReadActionSafely;
+
+/**
+ * Keeps the compiler configuration resolved for each file, together with its serialized build-wrapper capture, so that
+ * exclusion checks and analyses of the same file do not resolve it again. An entry is only reused while the resolve
+ * configuration and language kind selected for the file are the same. The whole cache is dropped when the workspace (e.g. CMake) is reloaded
+ * or when the project roots change.
+ */
+@Service(Service.Level.PROJECT)
+public final class CLionConfigurationCache implements Disposable {
+  private final Project project;
+  private final CLionAnalyzerConfiguration analyzerConfiguration;
+  private final Map<VirtualFile, ResolvedConfiguration> configurationsByFile = new ConcurrentHashMap<>();
+
+  public CLionConfigurationCache(Project project) {
+    this(project, new CLionAnalyzerConfiguration(project));
+  }
+
+  @NonInjectable
+  CLionConfigurationCache(Project project, CLionAnalyzerConfiguration analyzerConfiguration) {
+    this.project = project;
+    this.analyzerConfiguration = analyzerConfiguration;
+    var busConnection = project.getMessageBus().connect(this);
+    busConnection.subscribe(OCWorkspaceListener.TOPIC, new OCWorkspaceListener() {
+      @Override
+      public void workspaceChanged(@NotNull OCWorkspaceEvent event) {
+        invalidate();
+      }
+    });
+    busConnection.subscribe(ModuleRootListener.TOPIC, new ModuleRootListener() {
+      @Override
+      public void rootsChanged(@NotNull ModuleRootEvent event) {
+        invalidate();
+      }
+    });
+    busConnection.subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+      @Override
+      public void after(@NotNull List<? extends VFileEvent> events) {
+        events.stream()
+          .filter(event -> !(event instanceof VFileContentChangeEvent))
+          .map(VFileEvent::getFile)
+          .forEach(file -> {
+            if (file == null || file.isDirectory()) {
+              invalidate();
+            } else {
+              configurationsByFile.remove(file);
+            }
+          });
+      }
+    });
+  }
+
+  public ResolvedConfiguration getConfiguration(VirtualFile file) {
+    var configuration = computeReadActionSafely(file, project, () -> getOrResolveConfiguration(file));
+    return configuration != null ? configuration
+      : new ResolvedConfiguration(SelectedConfiguration.NONE, ConfigurationResult.skip("The file is invalid or the project is being closed"), null);
+  }
+
+  ResolvedConfiguration getOrResolveConfiguration(VirtualFile file) {
+    var selectedConfiguration = analyzerConfiguration.selectConfiguration(file);
+    var cached = configurationsByFile.get(file);
+    if (cached != null && cached.selectedConfiguration().equals(selectedConfiguration)) {
+      return cached;
+    }
+    var result = analyzerConfiguration.getConfigurationAction(file);
+    var capture = result.hasConfiguration() ? BuildWrapperJsonGenerator.toCapture(result.getConfiguration()) : null;
+    var resolved = new ResolvedConfiguration(selectedConfiguration, result, capture);
+    configurationsByFile.put(file, resolved);
+    return resolved;
+  }
+
+  public void invalidate() {
+    configurationsByFile.clear();
+  }
+
+  @Override
+  public void dispose() {
+    invalidate();
+  }
+
+  public record ResolvedConfiguration(SelectedConfiguration selectedConfiguration, ConfigurationResult result, @Nullable String capture) {
+  }
+
+}
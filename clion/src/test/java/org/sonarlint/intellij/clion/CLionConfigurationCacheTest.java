@@ -0,0 +1,117 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.clion;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileDeleteEvent;
+import com.intellij.util.messages.MessageBusConnection;
+import com.jetbrains.cidr.lang.CLanguageKind;
+import com.jetbrains.cidr.lang.workspace.OCResolveConfiguration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.sonarlint.intellij.clion.CLionAnalyzerConfiguration.SelectedConfiguration;
+import org.sonarlint.intellij.clion.common.AnalyzerConfiguration.ConfigurationResult;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CLionConfigurationCacheTest {
+
+  private final VirtualFile file = mock(VirtualFile.class);
+  private final OCResolveConfiguration resolveConfiguration = mock(OCResolveConfiguration.class);
+  private final CLionAnalyzerConfiguration analyzerConfiguration = mock(CLionAnalyzerConfiguration.class);
+  private final MessageBusConnection busConnection = mock(MessageBusConnection.class);
+  private CLionConfigurationCache cache;
+
+  @BeforeEach
+  void prepare() {
+    var project = mock(Project.class, RETURNS_DEEP_STUBS);
+    when(project.getMessageBus().connect(any())).thenReturn(busConnection);
+    when(analyzerConfiguration.selectConfiguration(file)).thenReturn(new SelectedConfiguration(resolveConfiguration, CLanguageKind.CPP));
+    when(analyzerConfiguration.getConfigurationAction(file)).thenAnswer(invocation -> ConfigurationResult.skip("compiler kind not found"));
+    cache = new CLionConfigurationCache(project, analyzerConfiguration);
+  }
+
+  @Test
+  void reuse_the_configuration_while_the_selected_configuration_is_the_same() {
+    var first = cache.getOrResolveConfiguration(file);
+
+    when(analyzerConfiguration.selectConfiguration(file)).thenReturn(new SelectedConfiguration(resolveConfiguration, CLanguageKind.CPP));
+    assertSame(first, cache.getOrResolveConfiguration(file));
+    verify(analyzerConfiguration, times(1)).getConfigurationAction(file);
+  }
+
+  @Test
+  void resolve_again_when_the_parsed_configuration_changes() {
+    var first = cache.getOrResolveConfiguration(file);
+
+    when(analyzerConfiguration.selectConfiguration(file)).thenReturn(new SelectedConfiguration(mock(OCResolveConfiguration.class), CLanguageKind.CPP));
+    assertNotSame(first, cache.getOrResolveConfiguration(file));
+    verify(analyzerConfiguration, times(2)).getConfigurationAction(file);
+  }
+
+  @Test
+  void resolve_again_when_the_language_kind_changes() {
+    var first = cache.getOrResolveConfiguration(file);
+
+    when(analyzerConfiguration.selectConfiguration(file)).thenReturn(new SelectedConfiguration(resolveConfiguration, CLanguageKind.C));
+    assertNotSame(first, cache.getOrResolveConfiguration(file));
+    verify(analyzerConfiguration, times(2)).getConfigurationAction(file);
+  }
+
+  @Test
+  void resolve_again_after_invalidation() {
+    var first = cache.getOrResolveConfiguration(file);
+
+    cache.invalidate();
+
+    assertNotSame(first, cache.getOrResolveConfiguration(file));
+  }
+
+  @Test
+  void resolve_again_when_the_file_is_deleted() {
+    var otherFile = mock(VirtualFile.class);
+    when(analyzerConfiguration.selectConfiguration(otherFile)).thenReturn(new SelectedConfiguration(resolveConfiguration, CLanguageKind.CPP));
+    when(analyzerConfiguration.getConfigurationAction(otherFile)).thenAnswer(invocation -> ConfigurationResult.skip("compiler kind not found"));
+    var first = cache.getOrResolveConfiguration(file);
+    var other = cache.getOrResolveConfiguration(otherFile);
+    var listenerCaptor = ArgumentCaptor.forClass(BulkFileListener.class);
+    verify(busConnection).subscribe(eq(VirtualFileManager.VFS_CHANGES), listenerCaptor.capture());
+    var deletion = mock(VFileDeleteEvent.class);
+    when(deletion.getFile()).thenReturn(file);
+
+    listenerCaptor.getValue().after(List.of(deletion));
+
+    assertNotSame(first, cache.getOrResolveConfiguration(file));
+    assertSame(other, cache.getOrResolveConfiguration(otherFile));
+  }
+}
@@ -49,4 +49,11 @@ public interface SonarLintConsole {
    */
   void setConsoleView(ConsoleView consoleView);
 
+  /**
+   * Whether logs that are not related to a specific project should be printed in this console, typically because its view was created.
+   */
+  default boolean acceptsGlobalLogs() {
+    return true;
+  }
+
 }
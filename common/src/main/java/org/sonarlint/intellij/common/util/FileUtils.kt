@@ -21,6 +21,7 @@ package org.sonarlint.intellij.common.util
 
 import com.intellij.openapi.application.ApplicationManager
 import com.intellij.openapi.fileChooser.FileElement
+import com.intellij.openapi.progress.ProcessCanceledException
 import com.intellij.openapi.project.Project
 import com.intellij.openapi.project.ProjectCoreUtil
 import com.intellij.openapi.roots.GeneratedSourcesFilter.isGeneratedSourceByAnyFilter
@@ -36,12 +37,7 @@ class FileUtils {
         // To be used with iterateContent, because it already skips ignored and excluded files
         fun isFileValidForSonarLint(file: VirtualFile, project: Project): Boolean {
             try {
-                val toSkip = computeReadActionSafely(file, project) {
-                    (!ApplicationManager.getApplication().isUnitTestMode && !file.isDirectory && FileUtilRt.isTooLarge(file.length))
-                        || FileElement.isArchive(file)
-                        || ProjectCoreUtil.isProjectOrWorkspaceFile(file)
-                        || isGeneratedSourceByAnyFilter(file, project)
-                }
+                val toSkip = computeReadActionSafely(file, project) { shouldSkip(file, project) }
 
                 return false == toSkip
             } catch (e: Exception) {
@@ -50,6 +46,26 @@ class FileUtils {
             }
         }
 
+        // Same as isFileValidForSonarLint, for callers checking many files under a single read action
+        fun isFileValidForSonarLintInReadAction(file: VirtualFile, project: Project): Boolean {
+            try {
+                return file.isValid && !shouldSkip(file, project)
+            } catch (e: ProcessCanceledException) {
+                // the read action must be restarted, not the file skipped
+                throw e
+            } catch (e: Exception) {
+                SonarLintConsole.get(project).error("Error while visiting a file, reason: " + e.message)
+                return false
+            }
+        }
+
+        private fun shouldSkip(file: VirtualFile, project: Project): Boolean {
+            return (!ApplicationManager.getApplication().isUnitTestMode && !file.isDirectory && FileUtilRt.isTooLarge(file.length))
+                || FileElement.isArchive(file)
+                || ProjectCoreUtil.isProjectOrWorkspaceFile(file)
+                || isGeneratedSourceByAnyFilter(file, project)
+        }
+
         // To be used when using iterating over all children
         fun isFileValidForSonarLintWithExtensiveChecks(file: VirtualFile, project: Project): Boolean {
             try {
@@ -17,4 +17,16 @@ intellij {
 
 dependencies {
     implementation(project(":common"))
+    testImplementation(libs.junit.api)
+    testImplementation(libs.assertj.core)
+    testRuntimeOnly(libs.junit.engine)
+}
+
+tasks.test {
+    useJUnitPlatform {
+        // benchmarks are opt-in: ./gradlew :git:test -Pbenchmarks --tests '*Benchmarks'
+        if (!project.hasProperty("benchmarks")) {
+            excludeTags("benchmark")
+        }
+    }
 }
@@ -0,0 +1,202 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.git
+
+import java.util.PriorityQueue
+import kotlin.math.max
+import kotlin.math.min
+
+/**
+ * In-memory view of the commit graph of a repository, fed with the output of `git rev-list --topo-order --parents`.
+ * It answers the distance between two commits (the number of commits reachable from only one of them, like
+ * `git rev-list --count a...b`) by walking down from both commits until only common ancestors remain, so the cost is
+ * proportional to how much the two commits diverged, not to the size of the history.
+ *
+ * Commits are immutable, so the graph and the computed distances are kept as long as the repository is open, and only the
+ * commits not known yet need to be loaded when new branches or a new HEAD show up.
+ */
+class CommitGraph {
+    /**
+     * Each SHA is only kept once, commits refer to their parents by index.
+     * Parents not loaded yet (the history is truncated by `--max-count`) have an index but no [parents].
+     */
+    private val indexBySha = HashMap<String, Int>()
+    private val shas = ArrayList<String>()
+    private var orders = IntArray(INITIAL_CAPACITY)
+    private val parents = ArrayList<IntArray?>()
+    private var loadedCount = 0
+    private val loadedTips = LinkedHashSet<Int>()
+    private val distances = object : LinkedHashMap<Long, Distance>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<Long, Distance>) = size > MAX_CACHED_DISTANCES
+    }
+    private var lowestOrder = 0
+
+    /**
+     * Maximum number of commits read by `git rev-list` when loading new tips. It grows when the loaded history is not deep
+     * enough to reach the merge base of two commits, see [GitRepo].
+     */
+    @Volatile
+    var historyLimit = 0
+
+    @Synchronized
+    fun missingTips(tips: Collection<String>): List<String> = tips.filter { !isLoaded(it) }
+
+    @Synchronized
+    fun loadedTips(): List<String> = loadedTips.map { shas[it] }
+
+    /**
+     * @param revListLines lines of `git rev-list --topo-order --parents` for the given tips, excluding the commits reachable from
+     * the already loaded tips. None of them is an ancestor of a known commit, so they can be ordered before all known commits.
+     */
+    @Synchronized
+    fun load(tips: Collection<String>, revListLines: List<String>) {
+        val newCommits = revListLines.asSequence()
+            .map { it.trim() }
+            .filter { it.isNotEmpty() }
+            .map { it.split(' ') }
+            .filter { !isLoaded(it[0]) }
+            .toList()
+        var order = lowestOrder - newCommits.size
+        lowestOrder = order
+        newCommits.forEach { line ->
+            val index = indexOf(line[0])
+            orders[index] = order++
+            parents[index] = IntArray(line.size - 1) { indexOf(line[it + 1]) }
+            loadedCount++
+        }
+        tips.mapNotNullTo(loadedTips) { indexBySha[it] }
+    }
+
+    @Synchronized
+    fun size() = loadedCount
+
+    @Synchronized
+    fun clear() {
+        indexBySha.clear()
+        shas.clear()
+        orders = IntArray(INITIAL_CAPACITY)
+        parents.clear()
+        loadedCount = 0
+        loadedTips.clear()
+        distances.clear()
+        lowestOrder = 0
+    }
+
+    private fun isLoaded(sha: String) = indexBySha[sha]?.let { parents[it] } != null
+
+    private fun indexOf(sha: String): Int {
+        return indexBySha.getOrPut(sha) {
+            val index = shas.size
+            shas.add(sha)
+            parents.add(null)
+            if (index == orders.size) {
+                orders = orders.copyOf(orders.size * 2)
+            }
+            index
+        }
+    }
+
+    /**
+     * @param limit the walk is interrupted and [Distance.TooFar] is returned as soon as the distance is known to exceed it
+     */
+    @Synchronized
+    fun distance(from: String, to: String, limit: Int = Int.MAX_VALUE): Distance {
+        if (from == to) {
+            return Distance.Known(0)
+        }
+        val fromIndex = indexBySha[from]
+        val toIndex = indexBySha[to]
+        if (fromIndex == null || toIndex == null) {
+            return Distance.Unknown
+        }
+        val key = min(fromIndex, toIndex).toLong() shl 32 or max(fromIndex, toIndex).toLong()
+        distances[key]?.let { return it }
+        val distance = walk(fromIndex, toIndex, limit)
+        if (distance !is Distance.TooFar) {
+            distances[key] = distance
+        }
+        return distance
+    }
+
+    private fun walk(from: Int, to: Int, limit: Int): Distance {
+        val flags = HashMap<Int, Int>()
+        // descendants are always processed before their ancestors, so the flags of a polled commit are final
+        val queue = PriorityQueue<Int>(compareBy { orders[it] })
+        var pendingExclusive = 0
+        var foundCommon = false
+
+        fun reach(commit: Int, flag: Int): Boolean {
+            if (parents[commit] == null) {
+                return false
+            }
+            val previous = flags[commit]
+            if (previous == null) {
+                flags[commit] = flag
+                queue.add(commit)
+                if (flag != BOTH) pendingExclusive++ else foundCommon = true
+            } else if (previous or flag != previous) {
+                flags[commit] = previous or flag
+                if (previous != BOTH) pendingExclusive--
+                foundCommon = true
+            }
+            return true
+        }
+
+        if (!reach(from, FROM) || !reach(to, TO)) {
+            return Distance.Unknown
+        }
+        var count = 0
+        while (pendingExclusive > 0) {
+            val commit = queue.poll()
+            val flag = flags[commit]!!
+            if (flag != BOTH) {
+                pendingExclusive--
+                count++
+                if (count > limit) {
+                    return Distance.TooFar
+                }
+            }
+            for (parent in parents[commit]!!) {
+                if (!reach(parent, flag)) {
+                    // the history was only partially loaded
+                    return Distance.Unknown
+                }
+            }
+        }
+        return if (foundCommon) Distance.Known(count) else Distance.Unrelated
+    }
+
+    sealed interface Distance {
+        data class Known(val value: Int) : Distance
+        /** The commits have no common ancestor */
+        object Unrelated : Distance
+        object TooFar : Distance
+        /** The loaded graph doesn't contain enough history to compute the distance */
+        object Unknown : Distance
+    }
+
+    companion object {
+        private const val FROM = 1
+        private const val TO = 2
+        private const val BOTH = FROM or TO
+        private const val MAX_CACHED_DISTANCES = 10_000
+        private const val INITIAL_CAPACITY = 1024
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.git
+
+import com.intellij.dvcs.repo.VcsRepositoryManager
+import com.intellij.dvcs.repo.VcsRepositoryMappingListener
+import com.intellij.openapi.Disposable
+import com.intellij.openapi.components.Service
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.vfs.VirtualFile
+import git4idea.repo.GitRepositoryManager
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Keeps the [CommitGraph] of each Git repository of the project, so that electing the branch matching a new HEAD only loads
+ * the new commits. Graphs are dropped when their repository is removed from the project, and when the project is closed.
+ */
+@Service(Service.Level.PROJECT)
+class CommitGraphCache(private val project: Project) : Disposable {
+    private val graphsByRoot = ConcurrentHashMap<String, CommitGraph>()
+
+    init {
+        project.messageBus.connect(this).subscribe(VcsRepositoryManager.VCS_REPOSITORY_MAPPING_UPDATED, VcsRepositoryMappingListener {
+            evictRemovedRepositories()
+        })
+    }
+
+    fun get(root: VirtualFile): CommitGraph = graphsByRoot.computeIfAbsent(root.path) { CommitGraph() }
+
+    private fun evictRemovedRepositories() {
+        val roots = GitRepositoryManager.getInstance(project).repositories.map { it.root.path }.toSet()
+        graphsByRoot.keys.retainAll(roots)
+    }
+
+    override fun dispose() {
+        graphsByRoot.clear()
+    }
+}
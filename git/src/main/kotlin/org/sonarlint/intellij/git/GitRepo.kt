@@ -26,7 +26,9 @@ import git4idea.commands.GitLineHandler
 import git4idea.history.GitHistoryUtils
 import git4idea.repo.GitRepository
 import java.nio.file.Path
+import kotlin.math.min
 import org.sonarlint.intellij.common.ui.SonarLintConsole
+import org.sonarlint.intellij.common.util.SonarLintUtils.getService
 import org.sonarlint.intellij.common.vcs.VcsRepo
 
 class GitRepo(private val repo: GitRepository, private val project: Project) : VcsRepo {
@@ -38,14 +40,25 @@ class GitRepo(private val repo: GitRepository, private val project: Project) : V
             }
             val head = repo.currentRevision ?: return null // Could be the case if no commit has been made in the repo
 
-            val branchesPerDistance: MutableMap<Int, MutableSet<String>> = HashMap()
-            for (serverBranchName in allBranchNames) {
-                val localBranch = repo.branches.findLocalBranch(serverBranchName) ?: continue
-                val localBranchHash = repo.branches.getHash(localBranch) ?: continue
-                val distance = distance(project, repo, head, localBranchHash.asString()) ?: continue
-                branchesPerDistance.computeIfAbsent(distance) { HashSet() }.add(serverBranchName)
+            val candidates = allBranchNames.mapNotNull { serverBranchName ->
+                val localBranch = repo.branches.findLocalBranch(serverBranchName) ?: return@mapNotNull null
+                val localBranchHash = repo.branches.getHash(localBranch) ?: return@mapNotNull null
+                serverBranchName to localBranchHash.asString()
             }
-            val bestCandidates = branchesPerDistance.minByOrNull { it.key }?.value ?: return null
+            val tips = listOf(head) + candidates.map { it.second }
+            val commitGraph = loadCommitGraph(tips)
+
+            var bestDistance = Int.MAX_VALUE
+            val branchesAtBestDistance = LinkedHashSet<String>()
+            for ((serverBranchName, localBranchHash) in candidates) {
+                val distance = distance(commitGraph, tips, head, localBranchHash, bestDistance) ?: continue
+                if (distance < bestDistance) {
+                    bestDistance = distance
+                    branchesAtBestDistance.clear()
+                }
+                branchesAtBestDistance.add(serverBranchName)
+            }
+            val bestCandidates = branchesAtBestDistance.ifEmpty { return null }
             if (mainBranchName in bestCandidates) {
                 // Favor the main branch when there are multiple candidates with the same distance
                 mainBranchName
@@ -73,16 +86,86 @@ class GitRepo(private val repo: GitRepository, private val project: Project) : V
         }
     }
 
-    private fun distance(project: Project, repository: GitRepository, from: String, to: String): Int? {
+    /**
+     * Reads the commits reachable from the given tips that are not loaded yet, with a single git process.
+     * Only the most recent commits are read at first, see [deepen].
+     * @return null if the graph could not be loaded, in which case distances are computed with git commands for each branch
+     */
+    private fun loadCommitGraph(tips: List<String>): CommitGraph? {
+        val commitGraph = getService(project, CommitGraphCache::class.java).get(repo.root)
+        if (commitGraph.historyLimit == 0) {
+            commitGraph.historyLimit = min(INITIAL_LOADED_COMMITS, MAX_LOADED_COMMITS)
+        }
+        if (commitGraph.size() > MAX_LOADED_COMMITS) {
+            commitGraph.clear()
+        }
+        val missingTips = commitGraph.missingTips(tips)
+        if (missingTips.isEmpty()) {
+            return commitGraph
+        }
+        return try {
+            commitGraph.load(missingTips, readCommits(missingTips, commitGraph.loadedTips(), commitGraph.historyLimit))
+            commitGraph
+        } catch (e: Exception) {
+            if (commitGraph.size() == 0) {
+                SonarLintConsole.get(project).debug("Couldn't read the commit graph, reason: ${e.message}")
+                return null
+            }
+            // some previously loaded tips might not exist anymore (e.g. after a gc), start over
+            commitGraph.clear()
+            loadCommitGraph(tips)
+        }
+    }
+
+    /**
+     * Loads the history again, twice as deep, when the merge base of two commits is older than the loaded commits.
+     * @return false if the history can't be loaded deeper
+     */
+    private fun deepen(commitGraph: CommitGraph, tips: List<String>): Boolean {
+        if (commitGraph.historyLimit >= MAX_LOADED_COMMITS) {
+            return false
+        }
+        commitGraph.historyLimit = min(commitGraph.historyLimit * 2, MAX_LOADED_COMMITS)
+        commitGraph.clear()
+        return loadCommitGraph(tips) != null
+    }
+
+    private fun readCommits(tips: List<String>, excludedTips: List<String>, maxCount: Int): List<String> {
+        val handler = GitLineHandler(project, repo.root, GitCommand.REV_LIST)
+        handler.addParameters("--topo-order", "--parents", "--max-count=$maxCount")
+        handler.addParameters(tips)
+        if (excludedTips.isNotEmpty()) {
+            handler.addParameters("--not")
+            handler.addParameters(excludedTips)
+        }
+        handler.setSilent(true)
+        return Git.getInstance().runCommand(handler).getOutputOrThrow().lines()
+    }
+
+    private fun distance(commitGraph: CommitGraph?, tips: List<String>, from: String, to: String, limit: Int): Int? {
+        if (commitGraph == null) {
+            return distanceFromCommandLine(from, to)
+        }
+        while (true) {
+            when (val distance = commitGraph.distance(from, to, limit)) {
+                is CommitGraph.Distance.Known -> return distance.value
+                CommitGraph.Distance.Unrelated, CommitGraph.Distance.TooFar -> return null
+                // the history needed is older than what was loaded
+                CommitGraph.Distance.Unknown -> if (!deepen(commitGraph, tips)) return distanceFromCommandLine(from, to)
+            }
+        }
+    }
+
+    private fun distanceFromCommandLine(from: String, to: String): Int? {
         val mergeBase = try {
-            GitHistoryUtils.getMergeBase(project, repository.root, from, to) ?: return null
+            GitHistoryUtils.getMergeBase(project, repo.root, from, to) ?: return null
         } catch (e: IllegalStateException) {
             // SLI-1381: "There is no ProgressIndicator or Job in this thread" should simply be a loud error
             SonarLintConsole.get(project).debug("Couldn't compute the git distance, reason: ${e.message}")
             return null
         }
-        val aheadCount = getNumberOfCommitsBetween(repository, from, mergeBase.asString()) ?: return null
-        val behindCount = getNumberOfCommitsBetween(repository, to, mergeBase.asString()) ?: return null
+        val aheadCount = getNumberOfCommitsBetween(repo, mergeBase.asString(), from) ?: return null
+        val behindCount = getNumberOfCommitsBetween(repo, mergeBase.asString(), to) ?: return null
         return aheadCount + behindCount
     }
 
@@ -100,4 +183,9 @@ class GitRepo(private val repo: GitRepository, private val project: Project) : V
             throw Exception("Cannot get number of commits between '$from' and '$to'", e)
         }
     }
+
+    companion object {
+        private const val INITIAL_LOADED_COMMITS = 10_000
+        private val MAX_LOADED_COMMITS = Integer.getInteger("sonarlint.git.maxLoadedCommits", 200_000)
+    }
 }
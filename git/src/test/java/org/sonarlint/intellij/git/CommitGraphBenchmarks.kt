@@ -0,0 +1,96 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.git
+
+import java.nio.file.Path
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Assumptions.assumeTrue
+import org.junit.jupiter.api.Tag
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import org.sonarlint.intellij.git.CommitGraph.Distance
+
+/**
+ * Computes the distance from HEAD to 50 branches of a 200 commits history by running `git rev-list --count` for each branch,
+ * as it was done before [CommitGraph], then with a graph loaded from a single `git rev-list`, and with an already loaded graph.
+ * Excluded from the default test run, run it with `./gradlew :git:test -Pbenchmarks --tests '*Benchmarks'`.
+ */
+@Tag("benchmark")
+class CommitGraphBenchmarks {
+
+    @Test
+    fun distances_to_all_branches(@TempDir repoDir: Path) {
+        assumeTrue(runCatching { git(repoDir, "init", "-q") }.isSuccess, "git is not available")
+        commit(repoDir, 200)
+        val mainTip = git(repoDir, "rev-parse", "HEAD").trim()
+        val branches = (1..50).map { "branch$it" }
+        branches.forEachIndexed { index, branch ->
+            git(repoDir, "checkout", "-q", "-b", branch, "$mainTip~${index % 20}")
+            commit(repoDir, index % 7 + 1)
+        }
+        val head = git(repoDir, "rev-parse", "HEAD").trim()
+        val tips = branches.map { git(repoDir, "rev-parse", it).trim() }
+        val allTips = listOf(head) + tips
+
+        fun withGit() = tips.map { git(repoDir, "rev-list", "--count", "$head...$it").trim().toInt() }
+        fun loadGraph() = CommitGraph().apply {
+            load(allTips, git(repoDir, *(listOf("rev-list", "--topo-order", "--parents") + allTips).toTypedArray()).lines())
+        }
+        fun distances(graph: CommitGraph) = tips.map { (graph.distance(head, it) as Distance.Known).value }
+        val loadedGraph = loadGraph()
+
+        assertThat(distances(loadedGraph)).isEqualTo(withGit())
+
+        measure("git rev-list --count per branch") { withGit() }
+        measure("cold graph (load + distances)") { distances(loadGraph()) }
+        measure("warm graph") { distances(loadedGraph) }
+    }
+
+    private fun measure(name: String, block: () -> Unit) {
+        repeat(WARMUPS) { block() }
+        val durations = (1..ITERATIONS).map {
+            val start = System.nanoTime()
+            block()
+            System.nanoTime() - start
+        }.sorted()
+        println("[benchmark] $name: ${"%.3f".format(durations[durations.size / 2] / 1_000_000.0)} ms (median of $ITERATIONS runs)")
+    }
+
+    private fun commit(repoDir: Path, count: Int) {
+        repeat(count) {
+            git(repoDir, "commit", "-q", "--allow-empty", "-m", "commit")
+        }
+    }
+
+    private fun git(repoDir: Path, vararg args: String): String {
+        val process = ProcessBuilder(listOf("git", "-c", "user.name=test", "-c", "user.email=test@example.com") + args)
+            .directory(repoDir.toFile())
+            .redirectErrorStream(true)
+            .start()
+        val output = process.inputStream.bufferedReader().readText()
+        check(process.waitFor() == 0) { output }
+        return output
+    }
+
+    companion object {
+        private const val WARMUPS = 2
+        private const val ITERATIONS = 10
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.git
+
+import java.nio.file.Path
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Assumptions.assumeTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import org.sonarlint.intellij.git.CommitGraph.Distance
+
+class CommitGraphTests {
+
+    @Test
+    fun should_count_commits_of_a_linear_history() {
+        // c3 -> c2 -> c1
+        val graph = graphOf("c3 c2", "c2 c1", "c1")
+
+        assertThat(graph.distance("c3", "c1")).isEqualTo(Distance.Known(2))
+        assertThat(graph.distance("c1", "c3")).isEqualTo(Distance.Known(2))
+        assertThat(graph.distance("c2", "c2")).isEqualTo(Distance.Known(0))
+    }
+
+    @Test
+    fun should_count_commits_on_both_sides_of_diverged_branches() {
+        // a2 -> a1 -> base, b1 -> base
+        val graph = graphOf("a2 a1", "b1 base", "a1 base", "base")
+
+        assertThat(graph.distance("a2", "b1")).isEqualTo(Distance.Known(3))
+    }
+
+    @Test
+    fun should_not_count_commits_reachable_through_a_merge() {
+        // m merges f1 into main1, both coming from base
+        val graph = graphOf("m main1 f1", "f1 base", "main1 base", "base")
+
+        assertThat(graph.distance("m", "f1")).isEqualTo(Distance.Known(2))
+        assertThat(graph.distance("m", "base")).isEqualTo(Distance.Known(3))
+    }
+
+    @Test
+    fun should_report_unrelated_histories() {
+        val graph = graphOf("a2 a1", "a1", "b1")
+
+        assertThat(graph.distance("a2", "b1")).isEqualTo(Distance.Unrelated)
+    }
+
+    @Test
+    fun should_stop_walking_when_the_limit_is_exceeded() {
+        val graph = graphOf("a3 a2", "a2 a1", "a1 base", "b1 base", "base")
+
+        assertThat(graph.distance("a3", "b1", 3)).isEqualTo(Distance.TooFar)
+        assertThat(graph.distance("a3", "b1", 4)).isEqualTo(Distance.Known(4))
+    }
+
+    @Test
+    fun should_report_unknown_distance_when_the_history_is_truncated() {
+        // as if loaded with --max-count=2: the parent of a1 is missing
+        val graph = graphOf("a2 a1", "a1 base")
+
+        assertThat(graph.distance("a2", "unknown")).isEqualTo(Distance.Unknown)
+        assertThat(graph.distance("a2", "a1")).isEqualTo(Distance.Known(1))
+    }
+
+    @Test
+    fun should_only_load_missing_tips_incrementally() {
+        val graph = CommitGraph()
+        graph.load(listOf("a1"), listOf("a1 base", "base"))
+
+        assertThat(graph.missingTips(listOf("a1", "base", "b1"))).containsExactly("b1")
+
+        // as returned by rev-list b1 --not a1
+        graph.load(listOf("b1"), listOf("b1 base"))
+
+        assertThat(graph.loadedTips()).containsExactly("a1", "b1")
+        assertThat(graph.distance("a1", "b1")).isEqualTo(Distance.Known(2))
+    }
+
+    @Test
+    fun should_know_truncated_parents_without_loading_them() {
+        // as if loaded with --max-count=2 from both tips: base is only known as a parent
+        val graph = graphOf("a1 base", "b1 base")
+
+        assertThat(graph.size()).isEqualTo(2)
+        assertThat(graph.missingTips(listOf("base"))).containsExactly("base")
+        assertThat(graph.distance("a1", "b1")).isEqualTo(Distance.Unknown)
+    }
+
+    @Test
+    fun should_forget_everything_when_cleared() {
+        val graph = graphOf("a1 base", "base")
+
+        graph.clear()
+
+        assertThat(graph.size()).isZero()
+        assertThat(graph.distance("a1", "base")).isEqualTo(Distance.Unknown)
+    }
+
+    @Test
+    fun should_compute_the_same_distances_as_git(@TempDir repoDir: Path) {
+        assumeTrue(runCatching { git(repoDir, "init", "-q") }.isSuccess, "git is not available")
+        commit(repoDir, 200)
+        val mainTip = git(repoDir, "rev-parse", "HEAD").trim()
+        val branches = (1..50).map { "branch$it" }
+        branches.forEachIndexed { index, branch ->
+            git(repoDir, "checkout", "-q", "-b", branch, "$mainTip~${index % 20}")
+            commit(repoDir, index % 7 + 1)
+        }
+        val head = git(repoDir, "rev-parse", "HEAD").trim()
+        val tips = branches.associateWith { git(repoDir, "rev-parse", it).trim() }
+
+        val expected = tips.mapValues { (_, tip) -> git(repoDir, "rev-list", "--count", "$head...$tip").trim().toInt() }
+
+        val graph = CommitGraph()
+        val allTips = listOf(head) + tips.values
+        graph.load(allTips, git(repoDir, *(listOf("rev-list", "--topo-order", "--parents") + allTips).toTypedArray()).lines())
+        val actual = tips.mapValues { (_, tip) -> (graph.distance(head, tip) as Distance.Known).value }
+
+        assertThat(actual).isEqualTo(expected)
+    }
+
+    private fun graphOf(vararg revListLines: String): CommitGraph {
+        val graph = CommitGraph()
+        graph.load(listOf(revListLines.first().split(' ').first()), revListLines.toList())
+        return graph
+    }
+
+    private fun commit(repoDir: Path, count: Int) {
+        repeat(count) {
+            git(repoDir, "commit", "-q", "--allow-empty", "-m", "commit")
+        }
+    }
+
+    private fun git(repoDir: Path, vararg args: String): String {
+        val process = ProcessBuilder(listOf("git", "-c", "user.name=test", "-c", "user.email=test@example.com") + args)
+            .directory(repoDir.toFile())
+            .redirectErrorStream(true)
+            .start()
+        val output = process.inputStream.bufferedReader().readText()
+        check(process.waitFor() == 0) { output }
+        return output
+    }
+}
@@ -53,6 +53,7 @@ import java.nio.file.Paths
 import java.security.cert.CertificateException
 import java.security.cert.CertificateFactory
 import java.security.cert.X509Certificate
+import java.util.Collections
 import java.util.UUID
 import java.util.concurrent.CancellationException
 import org.apache.commons.text.StringEscapeUtils
@@ -62,6 +63,7 @@ import org.eclipse.lsp4j.jsonrpc.messages.ResponseErrorCode
 import org.sonarlint.intellij.actions.OpenInBrowserAction
 import org.sonarlint.intellij.actions.SonarLintToolWindow
 import org.sonarlint.intellij.analysis.AnalysisReadinessCache
+import org.sonarlint.intellij.analysis.AnalysisSettingsTracker
 import org.sonarlint.intellij.analysis.AnalysisSubmitter
 import org.sonarlint.intellij.analysis.AnalysisSubmitter.collectContributedLanguages
 import org.sonarlint.intellij.analysis.OpenInIdeFindingCache
@@ -94,6 +96,8 @@ import org.sonarlint.intellij.finding.hotspot.SecurityHotspotsRefreshTrigger
 import org.sonarlint.intellij.finding.issue.LiveIssue
 import org.sonarlint.intellij.finding.issue.vulnerabilities.LocalTaintVulnerability
 import org.sonarlint.intellij.finding.issue.vulnerabilities.TaintVulnerabilityMatcher
+import org.sonarlint.intellij.fs.FileContentFingerprints
+import org.sonarlint.intellij.fs.FileContentFingerprints.ContentFingerprint
 import org.sonarlint.intellij.fix.ShowFixSuggestion
 import org.sonarlint.intellij.notifications.AnalysisRequirementNotifications.notifyOnceForSkippedPlugins
 import org.sonarlint.intellij.notifications.OpenLinkAction
@@ -106,11 +110,11 @@ import org.sonarlint.intellij.sharing.ConfigurationSharing
 import org.sonarlint.intellij.sharing.SonarLintSharedFolderUtils.Companion.findSharedFolder
 import org.sonarlint.intellij.trigger.TriggerType
 import org.sonarlint.intellij.ui.UiUtils.Companion.runOnUiThread
+import org.sonarlint.intellij.util.ContentFilesEnumerator
 import org.sonarlint.intellij.util.GlobalLogOutput
 import org.sonarlint.intellij.util.ProjectUtils.tryFindFile
 import org.sonarlint.intellij.util.SonarLintAppUtils.findModuleForFile
 import org.sonarlint.intellij.util.SonarLintAppUtils.getRelativePathForAnalysis
-import org.sonarlint.intellij.util.SonarLintAppUtils.visitAndAddAllFilesForModule
 import org.sonarlint.intellij.util.VirtualFileUtils
 import org.sonarlint.intellij.util.VirtualFileUtils.getFileContent
 import org.sonarlint.intellij.util.computeInEDT
@@ -508,6 +512,11 @@ object SonarLintIntelliJClient : SonarLintRpcClientDelegate {
 
     override fun didSynchronizeConfigurationScopes(configurationScopeIds: Set<String>) {
         GlobalLogOutput.get().log("Did synchronize config scopes $configurationScopeIds", ClientLogOutput.Level.INFO)
+        // the rules and the server findings of the synchronized projects may have changed
+        configurationScopeIds.mapNotNull { BackendService.findModule(it)?.project ?: findProject(it) }
+            .distinct()
+            .filter { !it.isDisposed }
+            .forEach { getService(it, AnalysisSettingsTracker::class.java).settingsChanged() }
     }
 
     override fun getCredentials(connectionId: String): Either<TokenDto, UsernamePasswordDto> {
@@ -597,6 +606,7 @@ object SonarLintIntelliJClient : SonarLintRpcClientDelegate {
             .forEach { (project, module) ->
                 if (project == null || project.isDisposed) return@forEach
                 getService(project, AnalysisReadinessCache::class.java).isReady = areReadyForAnalysis
+                getService(project, AnalysisSettingsTracker::class.java).settingsChanged()
                 if (areReadyForAnalysis) {
                     runOnPooledThread(project) {
                         val findingToShow = getService(project, OpenInIdeFindingCache::class.java).finding
@@ -737,27 +747,15 @@ object SonarLintIntelliJClient : SonarLintRpcClientDelegate {
     }
 
     private fun listModuleFiles(module: Module, configScopeId: String): MutableList<ClientFileDto> {
-        val filesInContentRoots = visitAndAddAllFilesForModule(module)
+        val clientFiles = Collections.synchronizedList(ArrayList<ClientFileDto>())
+        // files are converted chunk by chunk while the content roots are still being walked
+        ContentFilesEnumerator.enumerate(module, null) { files -> clientFiles.addAll(toClientFileDtos(module, configScopeId, files)) }
 
-        FilesContributor.EP_NAME.extensionList.forEach {
-            filesInContentRoots.addAll(it.listFiles(module))
+        val contributedFiles = FilesContributor.EP_NAME.extensionList.flatMap { it.listFiles(module) }
+        if (contributedFiles.isNotEmpty()) {
+            clientFiles.addAll(toClientFileDtos(module, configScopeId, contributedFiles))
         }
 
-        val forcedLanguages = collectContributedLanguages(module, filesInContentRoots)
-
-        val clientFiles = filesInContentRoots.mapNotNull { file ->
-            val forcedLanguage = forcedLanguages[file]?.let { fl -> Language.valueOf(fl.name) }
-            getRelativePathForAnalysis(module, file)?.let { relativePath ->
-                toClientFileDto(
-                    module.project,
-                    configScopeId,
-                    file,
-                    relativePath,
-                    forcedLanguage
-                )
-            }
-        }.toMutableList()
-
         if (isRider()) {
             computeRiderSharedConfiguration(module.project, configScopeId)?.let {
                 clientFiles.add(it)
@@ -767,6 +765,24 @@ object SonarLintIntelliJClient : SonarLintRpcClientDelegate {
         return clientFiles
     }
 
+    private fun toClientFileDtos(module: Module, configScopeId: String, files: Collection<VirtualFile>): List<ClientFileDto> {
+        val forcedLanguages = collectContributedLanguages(module, files)
+        return computeReadActionSafely(module) {
+            files.mapNotNull { file ->
+                val forcedLanguage = forcedLanguages[file]?.let { fl -> Language.valueOf(fl.name) }
+                getRelativePathForAnalysis(module, file)?.let { relativePath ->
+                    toClientFileDto(
+                        module.project,
+                        configScopeId,
+                        file,
+                        relativePath,
+                        forcedLanguage
+                    )
+                }
+            }
+        } ?: emptyList()
+    }
+
     private fun listProjectFiles(project: Project, configScopeId: String): MutableList<ClientFileDto> {
         return listFilesInProjectBaseDir(project).mapNotNull { file ->
             getRelativePathForAnalysis(project, file)?.let { relativePath ->
@@ -806,6 +822,10 @@ object SonarLintIntelliJClient : SonarLintRpcClientDelegate {
         }
         return try {
             computeReadActionSafely(file, project) {
+                if (fileContent == null) {
+                    // The backend reads the file from the disk, later updates of the same version can be skipped
+                    getService(FileContentFingerprints::class.java).sent(uri, configScopeId, ContentFingerprint(file.modificationStamp, false))
+                }
                 ClientFileDto(
                     uri,
                     Paths.get(relativePath),
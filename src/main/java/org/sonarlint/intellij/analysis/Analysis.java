@@ -25,6 +25,7 @@ import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.Messages;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -33,6 +34,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
 import org.sonarlint.intellij.cayc.NewCodePeriodCache;
 import org.sonarlint.intellij.common.ui.SonarLintConsole;
 import org.sonarlint.intellij.core.BackendService;
@@ -48,6 +50,12 @@ import static org.sonarlint.intellij.common.util.SonarLintUtils.isRider;
 import static org.sonarlint.intellij.ui.UiUtils.runOnUiThreadAndWait;
 
 public class Analysis implements Cancelable {
+  /**
+   * Maximum number of modules analyzed at the same time. Setting it to 1 analyzes the modules one after the other.
+   */
+  private static final int MAX_PARALLEL_MODULE_ANALYSES = Math.max(1,
+    Integer.getInteger("sonarlint.analysis.modules.parallelism", Math.min(4, Runtime.getRuntime().availableProcessors())));
+
   private final Project project;
   private final Collection<VirtualFile> files;
   private final TriggerType trigger;
@@ -177,13 +185,12 @@ public class Analysis implements Cancelable {
     indicator.setIndeterminate(true);
     indicator.setText("Running SonarQube for IntelliJ Analysis for " + scope.getDescription());
 
-    var analyzer = getService(project, SonarLintAnalyzer.class);
-    var results = new LinkedHashMap<Module, ModuleAnalysisResult>();
-    var analysisIds = new ArrayList<UUID>();
+    var moduleAnalyses = new ArrayList<ModuleAnalysis>();
+    var priorityResolver = getService(project, AnalysisPriorityResolver.class);
+    var canBePreempted = !AnalysisPriority.userWaitingTriggers.contains(trigger);
     for (var entry : scope.getFilesByModule().entrySet()) {
       var module = entry.getKey();
       var analysisId = UUID.randomUUID();
-      analysisIds.add(analysisId);
 
       if (isRider()) {
         var filesEvent = entry.getValue().stream().map(file -> new VirtualFileEvent(ModuleFileEvent.Type.CREATED, file)).toList();
@@ -191,17 +198,64 @@ public class Analysis implements Cancelable {
       }
 
       var analysisState = new AnalysisState(analysisId, callback, entry.getValue(), module, trigger, indicator);
-      results.put(module, analyzer.analyzeModule(module, entry.getValue(), analysisState, indicator, scope.shouldFetchServerIssues()));
+      var files = entry.getValue();
+      Supplier<AnalysisPriority> priority = () -> priorityResolver.priorityOf(files, trigger);
+      moduleAnalyses.add(new ModuleAnalysis(module, files, analysisState, priority, canBePreempted));
+    }
+
+    var parallelism = Math.min(MAX_PARALLEL_MODULE_ANALYSES, moduleAnalyses.size());
+    var results = parallelism > 1
+      ? analyzeModulesConcurrently(moduleAnalyses, scope.shouldFetchServerIssues(), indicator, parallelism)
+      : analyzeModulesSequentially(moduleAnalyses, scope.shouldFetchServerIssues(), indicator);
+    return summarize(results, moduleAnalyses);
+  }
+
+  private Map<Module, ModuleAnalysisResult> analyzeModulesSequentially(List<ModuleAnalysis> moduleAnalyses, boolean shouldFetchServerIssues,
+    ProgressIndicator indicator) {
+    var analyzer = getService(project, SonarLintAnalyzer.class);
+    var results = new LinkedHashMap<Module, ModuleAnalysisResult>();
+    for (var moduleAnalysis : moduleAnalyses) {
+      results.put(moduleAnalysis.module(), moduleAnalysis.run(analyzer, indicator, shouldFetchServerIssues));
       checkCanceled(indicator);
     }
-    return summarize(results, analysisIds);
+    return results;
+  }
+
+  /**
+   * Submits the analysis of all the modules up front, at most {@code parallelism} of them running at the same time.
+   */
+  private Map<Module, ModuleAnalysisResult> analyzeModulesConcurrently(List<ModuleAnalysis> moduleAnalyses, boolean shouldFetchServerIssues,
+    ProgressIndicator indicator, int parallelism) {
+    var analyzer = getService(project, SonarLintAnalyzer.class);
+    var executor = AppExecutorUtil.createBoundedApplicationPoolExecutor("SonarLint Module Analysis", parallelism);
+    try {
+      var results = ConcurrentModuleAnalyses.analyze(moduleAnalyses, moduleAnalysis -> moduleAnalysis.run(analyzer, indicator, shouldFetchServerIssues),
+        indicator, executor);
+      var resultsByModule = new LinkedHashMap<Module, ModuleAnalysisResult>();
+      results.forEach((moduleAnalysis, result) -> resultsByModule.put(moduleAnalysis.module(), result));
+      return resultsByModule;
+    } finally {
+      executor.shutdown();
+    }
   }
 
-  private Summary summarize(Map<Module, ModuleAnalysisResult> resultsByModule, List<UUID> analysisIds) {
+  private Summary summarize(Map<Module, ModuleAnalysisResult> resultsByModule, List<ModuleAnalysis> moduleAnalyses) {
     var allFailedFiles = resultsByModule.values().stream().flatMap(r -> r.failedFiles().stream()).collect(toSet());
+    // preempted module analyses were submitted again under a new id
+    var analysisIds = moduleAnalyses.stream().map(moduleAnalysis -> moduleAnalysis.analysisState().getId()).toList();
     return new Summary(project, allFailedFiles, analysisIds);
   }
 
+  private record ModuleAnalysis(Module module, Collection<VirtualFile> files, AnalysisState analysisState,
+    Supplier<AnalysisPriority> priority, boolean canBePreempted) {
+
+    ModuleAnalysisResult run(SonarLintAnalyzer analyzer, ProgressIndicator indicator, boolean shouldFetchServerIssues) {
+      return getService(AnalysisQueue.class).runWhenReady(module.getProject(), analysisState, priority, canBePreempted, indicator,
+        () -> analyzer.analyzeModule(module, files, analysisState, indicator, shouldFetchServerIssues));
+    }
+
+  }
+
   private record Summary(Project project, Set<VirtualFile> failedFiles, List<UUID> analysisIds) {
 
     public void logFailedFiles() {
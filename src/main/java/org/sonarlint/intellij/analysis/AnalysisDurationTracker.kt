@@ -0,0 +1,63 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.analysis
+
+import com.intellij.openapi.components.Service
+import com.intellij.openapi.vfs.VirtualFile
+import java.time.Duration
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Keeps a moving average of the recent analysis durations, per file and per file type, so that automatic triggers can
+ * adapt how long they wait before submitting a new analysis.
+ */
+@Service(Service.Level.PROJECT)
+class AnalysisDurationTracker {
+
+    private val averageMillisByFile = ConcurrentHashMap<VirtualFile, Long>()
+    private val averageMillisByFileType = ConcurrentHashMap<String, Long>()
+
+    /**
+     * Only single-file analyses are recorded: they are the ones adapted by the triggers, and splitting the duration of a multi-file
+     * analysis (e.g. Analyze All) between its files would drive the averages toward a per-file cost that a single-file analysis never has.
+     */
+    fun record(files: Collection<VirtualFile>, duration: Duration) {
+        val file = files.singleOrNull() ?: return
+        val millis = duration.toMillis()
+        averageMillisByFile.merge(file, millis, ::movingAverage)
+        averageMillisByFileType.merge(file.fileType.name, millis, ::movingAverage)
+    }
+
+    fun estimate(files: Collection<VirtualFile>): Duration {
+        val millis = files.maxOfOrNull { averageMillisByFile[it] ?: averageMillisByFileType[it.fileType.name] ?: 0L } ?: 0L
+        return Duration.ofMillis(millis)
+    }
+
+    fun forget(file: VirtualFile) {
+        averageMillisByFile.remove(file)
+    }
+
+    companion object {
+        // Weight of the newest sample, older samples fade out progressively
+        private const val NEW_SAMPLE_WEIGHT = 0.3
+
+        private fun movingAverage(previous: Long, sample: Long) = (previous * (1 - NEW_SAMPLE_WEIGHT) + sample * NEW_SAMPLE_WEIGHT).toLong()
+    }
+}
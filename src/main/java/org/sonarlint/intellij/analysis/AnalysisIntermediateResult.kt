@@ -21,4 +21,8 @@ package org.sonarlint.intellij.analysis
 
 import org.sonarlint.intellij.finding.LiveFindings
 
+/**
+ * Delta published while an analysis is still running: [findings] only contains the files touched since the previous publication of
+ * the same analysis, a file without any finding left is present with empty collections.
+ */
 data class AnalysisIntermediateResult(val findings: LiveFindings)
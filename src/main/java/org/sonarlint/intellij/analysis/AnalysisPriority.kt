@@ -0,0 +1,90 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.analysis
+
+import com.intellij.openapi.Disposable
+import com.intellij.openapi.components.Service
+import com.intellij.openapi.fileEditor.FileEditorManager
+import com.intellij.openapi.fileEditor.FileEditorManagerEvent
+import com.intellij.openapi.fileEditor.FileEditorManagerListener
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.vfs.VirtualFile
+import org.sonarlint.intellij.common.util.SonarLintUtils
+import org.sonarlint.intellij.trigger.TriggerType
+import org.sonarlint.intellij.ui.UiUtils.Companion.runOnUiThread
+
+/**
+ * Order in which queued analyses are run, from the most to the least urgent.
+ */
+enum class AnalysisPriority {
+    FOCUSED_EDITOR,
+    VISIBLE_EDITOR,
+    OPEN_TAB,
+    BACKGROUND;
+
+    companion object {
+        // The user explicitly waits for these analyses, they are run first and never preempted
+        @JvmField
+        val userWaitingTriggers = setOf(TriggerType.CURRENT_FILE_ACTION, TriggerType.CHECK_IN, TriggerType.OPEN_FINDING)
+    }
+}
+
+/**
+ * Computes the priority of an analysis from the editors showing the files it analyzes.
+ * The focused file is tracked from the editor events, as it can only be queried from the EDT.
+ */
+@Service(Service.Level.PROJECT)
+class AnalysisPriorityResolver(private val project: Project) : Disposable {
+    @Volatile
+    private var focusedFile: VirtualFile? = null
+
+    init {
+        project.messageBus.connect(this).subscribe(FileEditorManagerListener.FILE_EDITOR_MANAGER, object : FileEditorManagerListener {
+            override fun selectionChanged(event: FileEditorManagerEvent) {
+                focusedFile = event.newFile
+            }
+        })
+        runOnUiThread(project) {
+            focusedFile = SonarLintUtils.getSelectedFile(project)
+        }
+    }
+
+    fun priorityOf(files: Collection<VirtualFile>, triggerType: TriggerType): AnalysisPriority {
+        if (triggerType in AnalysisPriority.userWaitingTriggers) {
+            return AnalysisPriority.FOCUSED_EDITOR
+        }
+        if (triggerType in TriggerType.analysisSnapshot) {
+            return AnalysisPriority.BACKGROUND
+        }
+        val analyzedFiles = files.toSet()
+        val editorManager = FileEditorManager.getInstance(project)
+        return when {
+            focusedFile in analyzedFiles -> AnalysisPriority.FOCUSED_EDITOR
+            editorManager.selectedFiles.any { it in analyzedFiles } -> AnalysisPriority.VISIBLE_EDITOR
+            editorManager.openFiles.any { it in analyzedFiles } -> AnalysisPriority.OPEN_TAB
+            else -> AnalysisPriority.BACKGROUND
+        }
+    }
+
+    override fun dispose() {
+        // Nothing to do
+    }
+
+}
@@ -0,0 +1,194 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.analysis
+
+import com.intellij.openapi.Disposable
+import com.intellij.openapi.components.Service
+import com.intellij.openapi.progress.ProcessCanceledException
+import com.intellij.openapi.progress.ProgressIndicator
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.util.Disposer
+import com.intellij.serviceContainer.NonInjectable
+import java.util.PriorityQueue
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.locks.ReentrantLock
+import java.util.function.Supplier
+import kotlin.concurrent.withLock
+import org.sonarlint.intellij.common.ui.SonarLintConsole
+import org.sonarlint.intellij.common.util.SonarLintUtils.getService
+import org.sonarlint.intellij.util.ProgressUtils
+
+/**
+ * Maximum number of module analyses sent to the backend at the same time, for all the open projects.
+ */
+private val MAX_IN_FLIGHT = maxOf(1, Integer.getInteger("sonarlint.analysis.queue.maxInFlight", 4))
+
+/**
+ * Number of times the same module analysis can be preempted, after which it runs to completion.
+ */
+private val MAX_PREEMPTIONS = maxOf(0, Integer.getInteger("sonarlint.analysis.queue.maxPreemptions", 3))
+
+/**
+ * Application-wide queue the module analyses go through before being sent to the backend.
+ * Analyses are started by [AnalysisPriority], then in submission order, with at most [maxInFlight] of them running. When a queued
+ * analysis cannot start, the least urgent running analysis with a lower priority is preempted: its backend request is cancelled
+ * through the [RunningAnalysesTracker], and it is queued again once it returned.
+ */
+@Service(Service.Level.APP)
+class AnalysisQueue @NonInjectable internal constructor(private val maxInFlight: Int, private val maxPreemptions: Int) {
+
+    constructor() : this(MAX_IN_FLIGHT, MAX_PREEMPTIONS)
+
+    private class Ticket(
+        val project: Project,
+        val analysisState: AnalysisState,
+        val priority: AnalysisPriority,
+        val preemptible: Boolean,
+        val sequence: Long,
+    ) {
+        val enqueuedAtNanos = System.nanoTime()
+        var preempted = false
+    }
+
+    private val lock = ReentrantLock()
+    private val slotReleased = lock.newCondition()
+    private val waiting = PriorityQueue(compareBy<Ticket>({ it.priority }, { it.sequence }))
+    private val running = mutableSetOf<Ticket>()
+    private val sequence = AtomicLong()
+
+    /**
+     * Runs [moduleAnalysis] once it is its turn, and runs it again each time it is preempted. The [priority] is computed again before
+     * each run, as the editors may have changed while the analysis was waiting.
+     * Throws [ProcessCanceledException] if the [indicator] is cancelled or the project disposed while waiting.
+     */
+    fun <T> runWhenReady(
+        project: Project,
+        analysisState: AnalysisState,
+        priority: Supplier<AnalysisPriority>,
+        canBePreempted: Boolean,
+        indicator: ProgressIndicator,
+        moduleAnalysis: Supplier<T>,
+    ): T {
+        val firstSequence = sequence.incrementAndGet()
+        var preemptions = 0
+        while (true) {
+            val ticket = Ticket(project, analysisState, priority.get(), canBePreempted && preemptions < maxPreemptions, firstSequence)
+            acquire(ticket, indicator)
+            val result = try {
+                moduleAnalysis.get()
+            } finally {
+                release(ticket)
+            }
+            if (!analysisState.isPreempted() || indicator.isCanceled || project.isDisposed) {
+                return result
+            }
+            preemptions++
+            analysisState.renew()
+            console(project).debug("Analysis requeued as ${analysisState.id} after being preempted $preemptions time(s)")
+        }
+    }
+
+    fun queueDepth(priority: AnalysisPriority) = lock.withLock { waiting.count { it.priority == priority } }
+
+    private fun acquire(ticket: Ticket, indicator: ProgressIndicator) {
+        // waiters are only woken up by a released slot, the cancellation of their indicator or the disposal of their project
+        val wakeUp = Runnable { lock.withLock { slotReleased.signalAll() } }
+        val cancellation = ProgressUtils.onCancellation(indicator, wakeUp)
+        val disposal = Disposable { wakeUp.run() }
+        Disposer.tryRegister(ticket.project, disposal)
+        lock.withLock { waiting.add(ticket) }
+        try {
+            while (true) {
+                val victim = lock.withLock {
+                    if (waiting.peek() === ticket && running.size < maxInFlight) {
+                        waiting.remove(ticket)
+                        running.add(ticket)
+                        logStart(ticket)
+                        // the next ticket might be able to start too
+                        slotReleased.signalAll()
+                        return
+                    }
+                    val candidate = if (waiting.peek() === ticket) findPreemptible(ticket) else null
+                    candidate?.preempted = true
+                    candidate
+                }
+                if (victim != null) {
+                    // the slot is released when the preempted analysis returns
+                    getService(victim.project, RunningAnalysesTracker::class.java).preempt(victim.analysisState, console(victim.project))
+                }
+                lock.withLock {
+                    // checked while holding the lock, so that a cancellation or a disposal can't happen unnoticed before waiting
+                    if ((waiting.peek() !== ticket || running.size >= maxInFlight) && !indicator.isCanceled && !ticket.project.isDisposed) {
+                        if (cancellation != null) {
+                            slotReleased.await()
+                        } else {
+                            slotReleased.await(ProgressUtils.CANCELLATION_CHECK_INTERVAL.toMillis(), TimeUnit.MILLISECONDS)
+                        }
+                    }
+                }
+                if (ticket.project.isDisposed) {
+                    throw ProcessCanceledException()
+                }
+                indicator.checkCanceled()
+            }
+        } catch (e: InterruptedException) {
+            Thread.currentThread().interrupt()
+            throw ProcessCanceledException(e)
+        } finally {
+            cancellation?.close()
+            Disposer.dispose(disposal)
+            lock.withLock {
+                if (waiting.remove(ticket)) {
+                    // the next ticket might be able to start now
+                    slotReleased.signalAll()
+                }
+            }
+        }
+    }
+
+    private fun release(ticket: Ticket) {
+        lock.withLock {
+            running.remove(ticket)
+            slotReleased.signalAll()
+        }
+    }
+
+    private fun findPreemptible(ticket: Ticket): Ticket? {
+        if (running.any { it.preempted }) {
+            // a slot is already being freed
+            return null
+        }
+        return running.filter { it.preemptible && it.priority > ticket.priority }
+            .maxWithOrNull(compareBy<Ticket>({ it.priority }, { it.sequence }))
+    }
+
+    private fun logStart(ticket: Ticket) {
+        val console = console(ticket.project)
+        if (console.debugEnabled()) {
+            val waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - ticket.enqueuedAtNanos)
+            val depthByPriority = AnalysisPriority.values().joinToString { priority -> "$priority=${queueDepth(priority)}" }
+            console.debug("Analysis ${ticket.analysisState.id} (${ticket.priority}) started after waiting $waitedMs ms, queue depth: $depthByPriority")
+        }
+    }
+
+    private fun console(project: Project) = getService(project, SonarLintConsole::class.java)
+
+}
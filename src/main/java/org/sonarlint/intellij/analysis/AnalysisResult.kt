@@ -25,10 +25,11 @@ import java.util.UUID
 import org.sonarlint.intellij.finding.LiveFindings
 import org.sonarlint.intellij.trigger.TriggerType
 
-data class AnalysisResult(
+data class AnalysisResult @JvmOverloads constructor(
     val analysisId: UUID?,
     val findings: LiveFindings,
     val analyzedFiles: MutableCollection<out VirtualFile>,
     val triggerType: TriggerType,
     val analysisDate: Instant,
+    val analyzedVersions: Map<VirtualFile, AnalyzedFileVersion> = emptyMap(),
 )
@@ -0,0 +1,89 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.analysis
+
+import com.intellij.openapi.Disposable
+import com.intellij.openapi.components.Service
+import com.intellij.openapi.project.Project
+import java.util.concurrent.atomic.AtomicLong
+import org.sonarlint.intellij.config.Settings.getSettingsFor
+import org.sonarlint.intellij.config.global.SonarLintGlobalSettings
+import org.sonarlint.intellij.connected.SonarProjectBranchListener
+import org.sonarlint.intellij.messages.GlobalConfigurationListener
+import org.sonarlint.intellij.messages.PROJECT_BINDING_TOPIC
+import org.sonarlint.intellij.messages.ProjectBindingListener
+import org.sonarlint.intellij.messages.ProjectConfigurationListener
+
+/**
+ * Identifies the settings and the binding an analysis ran with. Findings computed with another fingerprint are not necessarily
+ * the ones an analysis would raise now.
+ */
+data class AnalysisSettingsFingerprint(
+    val settingsGeneration: Long,
+    val bindingEnabled: Boolean,
+    val connectionName: String?,
+    val projectKey: String?,
+)
+
+/**
+ * Version of the content of a file, and of the settings, that the findings of this file were computed against.
+ */
+data class AnalyzedFileVersion(val modificationStamp: Long, val settings: AnalysisSettingsFingerprint)
+
+/**
+ * Counts the changes that can affect the findings of an analysis: settings, binding, branch, synchronization and readiness of the
+ * backend, and classpath changes (see JavaClasspathCache).
+ * Anything else, like the content of the dependencies of a file, is not tracked: reusing findings is best-effort for files whose
+ * content did not change.
+ */
+@Service(Service.Level.PROJECT)
+class AnalysisSettingsTracker(private val project: Project) : Disposable {
+    private val settingsGeneration = AtomicLong()
+
+    init {
+        val busConnection = project.messageBus.connect(this)
+        busConnection.subscribe(PROJECT_BINDING_TOPIC, object : ProjectBindingListener {
+            override fun bindingChanged() {
+                settingsChanged()
+            }
+        })
+        busConnection.subscribe(ProjectConfigurationListener.TOPIC, ProjectConfigurationListener { settingsChanged() })
+        busConnection.subscribe(GlobalConfigurationListener.TOPIC, object : GlobalConfigurationListener.Adapter() {
+            override fun applied(previousSettings: SonarLintGlobalSettings, newSettings: SonarLintGlobalSettings) {
+                settingsChanged()
+            }
+        })
+        busConnection.subscribe(SonarProjectBranchListener.TOPIC, SonarProjectBranchListener { _, _ -> settingsChanged() })
+    }
+
+    fun settingsChanged() {
+        settingsGeneration.incrementAndGet()
+    }
+
+    fun currentFingerprint(): AnalysisSettingsFingerprint {
+        val settings = getSettingsFor(project)
+        return AnalysisSettingsFingerprint(settingsGeneration.get(), settings.isBindingEnabled, settings.connectionName, settings.projectKey)
+    }
+
+    override fun dispose() {
+        // Nothing to do
+    }
+
+}
@@ -28,8 +28,10 @@ import java.net.URI
 import java.time.Instant
 import java.util.UUID
 import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Future
 import org.sonarlint.intellij.common.ui.ReadActionUtils.Companion.computeReadActionSafely
 import org.sonarlint.intellij.common.ui.SonarLintConsole
+import org.sonarlint.intellij.common.util.SonarLintUtils.getService
 import org.sonarlint.intellij.config.Settings
 import org.sonarlint.intellij.finding.LiveFindings
 import org.sonarlint.intellij.finding.RawIssueAdapter
@@ -43,22 +45,29 @@ import org.sonarsource.sonarlint.core.rpc.protocol.client.hotspot.RaisedHotspotD
 import org.sonarsource.sonarlint.core.rpc.protocol.client.issue.RaisedIssueDto
 
 class AnalysisState(
-    val id: UUID,
+    id: UUID,
     private val analysisCallback: AnalysisCallback,
     private val filesToAnalyze: MutableCollection<VirtualFile>,
     private val module: Module,
     private val triggerType: TriggerType,
     private val progress: ProgressIndicator?
 ) {
+    var id: UUID = id
+        private set
+    private val analyzedFiles = filesToAnalyze.toHashSet()
     private val modificationStampByFile = ConcurrentHashMap<VirtualFile, Long>()
     private val analysisDate: Instant = Instant.now()
+    private var settingsFingerprint: AnalysisSettingsFingerprint
     private val liveIssues = mutableMapOf<VirtualFile, Collection<LiveIssue>>()
     private val liveHotspots = mutableMapOf<VirtualFile, Collection<LiveSecurityHotspot>>()
     private val shouldReceiveHotspot: Boolean
     private var hasReceivedFinalIssues = false
     private var hasReceivedFinalHotspots = false
+    private var backendRequest: Future<*>? = null
+    private var preempted = false
 
     init {
+        settingsFingerprint = getService(module.project, AnalysisSettingsTracker::class.java).currentFingerprint()
         this.initFiles(filesToAnalyze)
         shouldReceiveHotspot = Settings.getSettingsFor(module.project).isBound
     }
@@ -75,10 +84,57 @@ class AnalysisState(
         progress?.cancel()
     }
 
+    /**
+     * Keeps the request running this analysis on the backend, so that it can be cancelled if the analysis is preempted.
+     */
+    @Synchronized
+    fun attachBackendRequest(request: Future<*>) {
+        backendRequest = request
+        if (preempted) {
+            request.cancel(true)
+        }
+    }
+
+    /**
+     * Cancels the backend request of this analysis, without cancelling the progress it reports to.
+     * Returns false if the request already completed, in which case there is nothing to submit again.
+     */
+    @Synchronized
+    fun preempt(): Boolean {
+        val request = backendRequest
+        if (request != null && request.isDone && !request.isCancelled) {
+            return false
+        }
+        preempted = true
+        request?.cancel(true)
+        return true
+    }
+
+    @Synchronized
+    fun isPreempted() = preempted
+
+    /**
+     * Prepares a preempted analysis to be submitted again. It gets a new id, so that the results of the preempted request that arrive
+     * late are ignored.
+     */
+    @Synchronized
+    fun renew() {
+        id = UUID.randomUUID()
+        backendRequest = null
+        preempted = false
+        liveIssues.clear()
+        liveHotspots.clear()
+        hasReceivedFinalIssues = false
+        hasReceivedFinalHotspots = false
+        modificationStampByFile.clear()
+        settingsFingerprint = getService(module.project, AnalysisSettingsTracker::class.java).currentFingerprint()
+        initFiles(filesToAnalyze)
+    }
+
     fun addRawHotspots(analysisId: UUID, hotspotsByFile: Map<URI, List<RaisedHotspotDto>>, isIntermediate: Boolean) {
         hasReceivedFinalHotspots = !isIntermediate
 
-        liveHotspots.putAll(hotspotsByFile.mapNotNull { (uri, rawHotspots) ->
+        val newHotspots = hotspotsByFile.mapNotNull { (uri, rawHotspots) ->
             val virtualFile = uriToVirtualFile(uri)
             if (virtualFile != null) {
                 val liveHotspots = convertRawHotspots(virtualFile, rawHotspots)
@@ -86,27 +142,16 @@ class AnalysisState(
             } else {
                 null
             }
-        })
+        }.toMap()
+        liveHotspots.putAll(newHotspots)
 
-        if (isAnalysisFinished()) {
-            analysisCallback.onSuccess(
-                AnalysisResult(
-                    analysisId,
-                    LiveFindings(liveIssues, liveHotspots),
-                    filesToAnalyze,
-                    triggerType,
-                    analysisDate
-                )
-            )
-        } else {
-            analysisCallback.onIntermediateResult(AnalysisIntermediateResult(LiveFindings(liveIssues, liveHotspots)))
-        }
+        publish(analysisId, LiveFindings(emptyMap(), newHotspots))
     }
 
     fun addRawIssues(analysisId: UUID, issuesByFile: Map<URI, List<RaisedIssueDto>>, isIntermediate: Boolean) {
         hasReceivedFinalIssues = !isIntermediate
 
-        liveIssues.putAll(issuesByFile.mapNotNull { (uri, rawIssues) ->
+        val newIssues = issuesByFile.mapNotNull { (uri, rawIssues) ->
             val virtualFile = uriToVirtualFile(uri)
             if (virtualFile != null) {
                 val liveIssues = convertRawIssues(virtualFile, rawIssues)
@@ -114,8 +159,13 @@ class AnalysisState(
             } else {
                 null
             }
-        })
+        }.toMap()
+        liveIssues.putAll(newIssues)
 
+        publish(analysisId, LiveFindings(newIssues, emptyMap()))
+    }
+
+    private fun publish(analysisId: UUID, delta: LiveFindings) {
         if (isAnalysisFinished()) {
             analysisCallback.onSuccess(
                 AnalysisResult(
@@ -123,24 +173,21 @@ class AnalysisState(
                     LiveFindings(liveIssues, liveHotspots),
                     filesToAnalyze,
                     triggerType,
-                    analysisDate
+                    analysisDate,
+                    modificationStampByFile.mapValues { (_, stamp) -> AnalyzedFileVersion(stamp, settingsFingerprint) }
                 )
             )
         } else {
-            analysisCallback.onIntermediateResult(AnalysisIntermediateResult(LiveFindings(liveIssues, liveHotspots)))
+            analysisCallback.onIntermediateResult(AnalysisIntermediateResult(delta))
         }
     }
 
     private fun convertRawHotspots(virtualFile: VirtualFile, rawHotspots: Collection<RaisedHotspotDto>): Collection<LiveSecurityHotspot> {
         try {
-            return rawHotspots.mapNotNull { hotspot ->
-                RawIssueAdapter.toLiveSecurityHotspot(
-                    module,
-                    hotspot,
-                    virtualFile,
-                    modificationStampByFile[virtualFile]
-                )
-            }
+            val start = System.currentTimeMillis()
+            val liveHotspots = RawIssueAdapter.toLiveSecurityHotspots(module, rawHotspots, virtualFile, modificationStampByFile[virtualFile])
+            logConversionTime(virtualFile, liveHotspots.size, "Security Hotspots", start)
+            return liveHotspots
         } catch (e: ProcessCanceledException) {
             throw e
         } catch (e: Exception) {
@@ -151,14 +198,10 @@ class AnalysisState(
 
     private fun convertRawIssues(virtualFile: VirtualFile, rawIssues: Collection<RaisedIssueDto>): Collection<LiveIssue> {
         try {
-            return rawIssues.mapNotNull { issue ->
-                RawIssueAdapter.toLiveIssue(
-                    module,
-                    issue,
-                    virtualFile,
-                    modificationStampByFile[virtualFile]
-                )
-            }
+            val start = System.currentTimeMillis()
+            val liveIssues = RawIssueAdapter.toLiveIssues(module, rawIssues, virtualFile, modificationStampByFile[virtualFile])
+            logConversionTime(virtualFile, liveIssues.size, "issues", start)
+            return liveIssues
         } catch (e: ProcessCanceledException) {
             throw e
         } catch (e: Exception) {
@@ -167,6 +210,20 @@ class AnalysisState(
         return emptyList()
     }
 
+    private fun logConversionTime(virtualFile: VirtualFile, count: Int, what: String, start: Long) {
+        val console = SonarLintConsole.get(module.project)
+        if (count > 0 && console.debugEnabled()) {
+            console.debug("Converted $count $what for '${virtualFile.name}' in ${System.currentTimeMillis() - start} ms")
+        }
+    }
+
+    /**
+     * Report analyses (e.g. Analyze All) are not considered, they must not delay the on-the-fly analysis of an edited file.
+     */
+    fun isAnalyzingOnTheFly(file: VirtualFile): Boolean {
+        return triggerType in nonAnalysisSnapshot && file in analyzedFiles
+    }
+
     fun isAnalysisFinished(): Boolean {
         return hasReceivedFinalIssues && (!shouldReceiveHotspot || hasReceivedFinalHotspots)
     }
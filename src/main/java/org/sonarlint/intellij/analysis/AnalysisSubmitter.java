@@ -27,11 +27,15 @@ import com.intellij.openapi.module.Module;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vcs.changes.ChangeListManager;
 import com.intellij.openapi.vfs.VirtualFile;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import javax.annotation.CheckForNull;
 import org.apache.commons.lang3.tuple.Pair;
@@ -59,6 +63,7 @@ import static org.sonarlint.intellij.util.SonarLintAppUtils.visitAndAddAllFilesF
 @Service(Service.Level.PROJECT)
 public final class AnalysisSubmitter {
   public static final String ANALYSIS_TASK_TITLE = "SonarQube for IntelliJ Analysis";
+  private static final Set<TriggerType> SETTINGS_CHANGE_TRIGGERS = EnumSet.of(TriggerType.CONFIG_CHANGE, TriggerType.BINDING_UPDATE);
   private final Project project;
   private final OnTheFlyFindingsHolder onTheFlyFindingsHolder;
   private Cancelable currentManualAnalysis;
@@ -80,10 +85,13 @@ public final class AnalysisSubmitter {
   }
 
   public void analyzeAllFiles() {
-    var allFiles = visitAndAddAllFilesForProject(project);
     var callback = new ShowReportCallable(project);
-    var analysis = new Analysis(project, allFiles, TriggerType.ALL, callback);
-    TaskRunnerKt.startBackgroundableModalTask(project, ANALYSIS_TASK_TITLE, analysis::run);
+    TaskRunnerKt.startBackgroundableModalTask(project, ANALYSIS_TASK_TITLE, indicator -> {
+      // listing the files is part of the task, so that it can be cancelled
+      indicator.setText("Listing files");
+      var allFiles = visitAndAddAllFilesForProject(project, indicator);
+      new Analysis(project, allFiles, TriggerType.ALL, callback).run(indicator);
+    });
   }
 
   public void analyzeVcsChangedFiles() {
@@ -118,6 +126,10 @@ public final class AnalysisSubmitter {
 
   @CheckForNull
   public Cancelable autoAnalyzeFiles(Collection<VirtualFile> files, TriggerType triggerType) {
+    if (SETTINGS_CHANGE_TRIGGERS.contains(triggerType)) {
+      // rules can be toggled, e.g. from an intention, without any event on the settings topics
+      getService(project, AnalysisSettingsTracker.class).settingsChanged();
+    }
     if (!getGlobalSettings().isAutoTrigger()) {
       return null;
     }
@@ -130,12 +142,27 @@ public final class AnalysisSubmitter {
     var console = SonarLintUtils.getService(project, SonarLintConsole.class);
     var trigger = TriggerType.CHECK_IN;
     console.debug("Trigger: " + trigger);
+
+    // files edited since their last on-the-fly analysis, or never analyzed, are the only ones worth analyzing again
+    var settingsFingerprint = getService(project, AnalysisSettingsTracker.class).currentFingerprint();
+    var upToDateFindings = onTheFlyFindingsHolder.collectUpToDateFindings(files, settingsFingerprint);
+    var filesToAnalyze = upToDateFindings.getOutdatedFiles();
+    console.info(String.format("[%s] Reusing the findings of %d up-to-date file(s), analyzing %d file(s)", trigger,
+      upToDateFindings.getUpToDateFiles().size(), filesToAnalyze.size()));
+
+    var callback = new CheckInCallable();
+    if (!upToDateFindings.getUpToDateFiles().isEmpty()) {
+      callback.reuse(new AnalysisResult(null, upToDateFindings.getFindings(), new ArrayList<>(upToDateFindings.getUpToDateFiles()), trigger,
+        Instant.now()));
+    }
+    if (filesToAnalyze.isEmpty()) {
+      return Pair.of(callback, List.of());
+    }
     if (shouldSkipAnalysis()) {
       return null;
     }
 
-    var callback = new CheckInCallable();
-    var analysis = new Analysis(project, files, trigger, callback);
+    var analysis = new Analysis(project, filesToAnalyze, trigger, callback);
     var analysisIds = TaskRunnerKt.runModalTaskWithResult(project, ANALYSIS_TASK_TITLE, analysis::run);
     return Pair.of(callback, analysisIds);
   }
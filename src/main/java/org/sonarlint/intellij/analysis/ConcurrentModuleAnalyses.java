@@ -0,0 +1,112 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.analysis;
+
+import com.intellij.openapi.progress.ProgressIndicator;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.sonarlint.intellij.util.ProgressUtils;
+import org.sonarsource.sonarlint.core.commons.api.progress.CanceledException;
+
+/**
+ * Runs the analysis of several modules on an executor, and waits for all of them without polling.
+ */
+final class ConcurrentModuleAnalyses {
+
+  private ConcurrentModuleAnalyses() {
+    // utility class
+  }
+
+  /**
+   * The calling thread is parked until all the modules are analyzed, one of the analyses fails, or the indicator is cancelled.
+   * In the last two cases, the analyses that did not start yet are cancelled and the running ones are interrupted.
+   * Results are returned in the same order as the modules, whatever the order in which the analyses completed.
+   */
+  static <M, R> Map<M, R> analyze(List<M> modules, Function<M, R> analyzeModule, ProgressIndicator indicator, ExecutorService executor) {
+    var total = modules.size();
+    var resultsByModule = new HashMap<M, R>();
+    var allAnalyzed = new CompletableFuture<Void>();
+    var analyzedCount = new AtomicInteger();
+    var futures = new ArrayList<Future<?>>();
+    indicator.setIndeterminate(false);
+    try {
+      for (var module : modules) {
+        futures.add(executor.submit(() -> {
+          R result;
+          try {
+            result = analyzeModule.apply(module);
+          } catch (RuntimeException | Error e) {
+            // no need to wait for the other modules, the first failure is reported
+            allAnalyzed.completeExceptionally(e);
+            return;
+          }
+          synchronized (resultsByModule) {
+            resultsByModule.put(module, result);
+          }
+          var analyzed = analyzedCount.incrementAndGet();
+          indicator.setText2(analyzed + "/" + total + " modules analyzed");
+          indicator.setFraction(.9 * analyzed / total);
+          if (analyzed == total) {
+            allAnalyzed.complete(null);
+          }
+        }));
+      }
+
+      if (!ProgressUtils.awaitCompletion(indicator, allAnalyzed)) {
+        throw new CanceledException();
+      }
+      allAnalyzed.get();
+
+      var results = new LinkedHashMap<M, R>();
+      synchronized (resultsByModule) {
+        modules.forEach(module -> results.put(module, resultsByModule.get(module)));
+      }
+      return results;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CanceledException();
+    } catch (ExecutionException e) {
+      var cause = e.getCause();
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException(cause);
+    } catch (TimeoutException e) {
+      // no timeout is given
+      throw new IllegalStateException(e);
+    } finally {
+      // the analyses that did not start yet are cancelled first, so that they are not picked up by the threads being interrupted
+      for (var i = futures.size() - 1; i >= 0; i--) {
+        futures.get(i).cancel(true);
+      }
+    }
+  }
+
+}
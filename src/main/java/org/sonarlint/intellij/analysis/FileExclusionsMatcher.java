@@ -0,0 +1,314 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.analysis;
+
+import java.nio.file.FileSystems;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import org.sonarlint.intellij.config.project.ExclusionItem;
+import org.sonarlint.intellij.util.GlobalLogOutput;
+import org.sonarsource.sonarlint.core.client.utils.ClientLogOutput;
+
+/**
+ * Tests relative paths against many exclusions at once:
+ * <ul>
+ *   <li>file exclusions are looked up in a hash set</li>
+ *   <li>directory exclusions are stored in a trie of path segments, walked once along the path</li>
+ *   <li>each glob is only evaluated when the path contains the longest literal part of the glob (e.g. ".min.js" for
+ *   "**&#47;*.min.js"). All the literals are searched in a single pass over the path with an Aho-Corasick automaton.</li>
+ * </ul>
+ * The globs are still evaluated by the {@link PathMatcher} of the default file system, so the results are the same as testing
+ * every glob, only much cheaper with many globs.
+ */
+final class FileExclusionsMatcher implements Predicate<String> {
+  private static final FileExclusionsMatcher EMPTY = new FileExclusionsMatcher(Set.of(), new DirectoryNode(), List.of());
+
+  private final Set<String> files;
+  private final DirectoryNode directories;
+  private final PathMatcher[] globs;
+  private final BitSet globsWithoutLiteral;
+  private final LiteralAutomaton literals;
+
+  private FileExclusionsMatcher(Set<String> files, DirectoryNode directories, List<String> globPatterns) {
+    this.files = files;
+    this.directories = directories;
+    var matchers = new ArrayList<PathMatcher>();
+    var requiredLiterals = new ArrayList<String>();
+    for (var pattern : globPatterns) {
+      try {
+        matchers.add(FileSystems.getDefault().getPathMatcher("glob:" + pattern));
+        requiredLiterals.add(longestLiteral(pattern));
+      } catch (Exception e) {
+        GlobalLogOutput.get().log("Invalid glob exclusion '" + pattern + "': " + e.getMessage(), ClientLogOutput.Level.WARN);
+      }
+    }
+    this.globs = matchers.toArray(PathMatcher[]::new);
+    this.globsWithoutLiteral = new BitSet(globs.length);
+    for (var i = 0; i < requiredLiterals.size(); i++) {
+      if (requiredLiterals.get(i).isEmpty()) {
+        globsWithoutLiteral.set(i);
+      }
+    }
+    this.literals = new LiteralAutomaton(requiredLiterals);
+  }
+
+  static FileExclusionsMatcher compile(Collection<ExclusionItem> exclusions) {
+    if (exclusions.isEmpty()) {
+      return EMPTY;
+    }
+    var files = new HashSet<String>();
+    var directories = new DirectoryNode();
+    var globPatterns = new ArrayList<String>();
+    for (var exclusion : exclusions) {
+      switch (exclusion.type()) {
+        case FILE -> files.add(exclusion.item());
+        case DIRECTORY -> directories.add(exclusion.item());
+        case GLOB -> globPatterns.add(exclusion.item());
+      }
+    }
+    return new FileExclusionsMatcher(files, directories, globPatterns);
+  }
+
+  @Override
+  public boolean test(String relativePath) {
+    if (files.contains(relativePath) || directories.containsAncestorOf(relativePath)) {
+      return true;
+    }
+    if (globs.length == 0) {
+      return false;
+    }
+    var candidates = (BitSet) globsWithoutLiteral.clone();
+    literals.collectMatches(relativePath, candidates);
+    if (candidates.isEmpty()) {
+      return false;
+    }
+    var path = Paths.get(relativePath);
+    for (var i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+      if (globs[i].matches(path)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * The longest sequence of characters that any path matching the glob contains, lower-cased as paths are matched
+   * case-insensitively on some file systems. Only unambiguous characters are kept: separators, escaped characters,
+   * wildcards, character classes and groups all interrupt the sequence.
+   */
+  static String longestLiteral(String glob) {
+    var longest = "";
+    var current = new StringBuilder();
+    var i = 0;
+    while (i < glob.length()) {
+      var c = glob.charAt(i);
+      if (LiteralAutomaton.isLiteral(c)) {
+        current.append(LiteralAutomaton.toLowerCase(c));
+        i++;
+        continue;
+      }
+      if (current.length() > longest.length()) {
+        longest = current.toString();
+      }
+      current.setLength(0);
+      i = switch (c) {
+        case '\\' -> i + 2;
+        case '[' -> skipClass(glob, i);
+        case '{' -> skipGroup(glob, i);
+        default -> i + 1;
+      };
+    }
+    return current.length() > longest.length() ? current.toString() : longest;
+  }
+
+  private static int skipClass(String glob, int start) {
+    // the first ']' closes the class, even right after '['
+    var end = glob.indexOf(']', start + 1);
+    return end < 0 ? glob.length() : (end + 1);
+  }
+
+  private static int skipGroup(String glob, int start) {
+    var i = start + 1;
+    while (i < glob.length()) {
+      var c = glob.charAt(i);
+      if (c == '}') {
+        return i + 1;
+      }
+      i = switch (c) {
+        case '\\' -> i + 2;
+        case '[' -> skipClass(glob, i);
+        default -> i + 1;
+      };
+    }
+    return glob.length();
+  }
+
+  private static final class DirectoryNode {
+    private final Map<String, DirectoryNode> children = new HashMap<>();
+    private boolean excluded;
+
+    private void add(String directory) {
+      var node = this;
+      for (var segment : directory.split("/")) {
+        if (!segment.isEmpty()) {
+          node = node.children.computeIfAbsent(segment, s -> new DirectoryNode());
+        }
+      }
+      if (node != this) {
+        node.excluded = true;
+      }
+    }
+
+    private boolean containsAncestorOf(String relativePath) {
+      if (children.isEmpty()) {
+        return false;
+      }
+      var node = this;
+      var start = 0;
+      while (start <= relativePath.length()) {
+        var end = relativePath.indexOf('/', start);
+        if (end < 0) {
+          end = relativePath.length();
+        }
+        if (end > start) {
+          node = node.children.get(relativePath.substring(start, end));
+          if (node == null) {
+            return false;
+          }
+          if (node.excluded) {
+            return true;
+          }
+        }
+        start = end + 1;
+      }
+      return false;
+    }
+  }
+
+  /**
+   * Finds all the literals contained in a string in a single pass. The automaton is a complete transition table over the
+   * characters that literals are made of, any other character brings it back to the root.
+   */
+  private static final class LiteralAutomaton {
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz0123456789.-_";
+    private static final int[] SYMBOLS = new int[128];
+
+    static {
+      Arrays.fill(SYMBOLS, -1);
+      for (var i = 0; i < ALPHABET.length(); i++) {
+        SYMBOLS[ALPHABET.charAt(i)] = i;
+        SYMBOLS[Character.toUpperCase(ALPHABET.charAt(i))] = i;
+      }
+    }
+
+    private final int[][] transitions;
+    private final int[][] outputs;
+
+    private LiteralAutomaton(List<String> literals) {
+      var goTo = new ArrayList<int[]>();
+      var nodeOutputs = new ArrayList<List<Integer>>();
+      goTo.add(newNode());
+      nodeOutputs.add(new ArrayList<>());
+      for (var index = 0; index < literals.size(); index++) {
+        var literal = literals.get(index);
+        if (literal.isEmpty()) {
+          continue;
+        }
+        var node = 0;
+        for (var i = 0; i < literal.length(); i++) {
+          var symbol = SYMBOLS[literal.charAt(i)];
+          if (goTo.get(node)[symbol] < 0) {
+            goTo.get(node)[symbol] = goTo.size();
+            goTo.add(newNode());
+            nodeOutputs.add(new ArrayList<>());
+          }
+          node = goTo.get(node)[symbol];
+        }
+        nodeOutputs.get(node).add(index);
+      }
+      this.transitions = goTo.toArray(int[][]::new);
+      var failures = new int[transitions.length];
+      var queue = new ArrayDeque<Integer>();
+      for (var symbol = 0; symbol < ALPHABET.length(); symbol++) {
+        var child = transitions[0][symbol];
+        if (child < 0) {
+          transitions[0][symbol] = 0;
+        } else {
+          queue.add(child);
+        }
+      }
+      // breadth first, so that the transitions of the failure node are complete when a node is processed
+      while (!queue.isEmpty()) {
+        int node = queue.poll();
+        nodeOutputs.get(node).addAll(nodeOutputs.get(failures[node]));
+        for (var symbol = 0; symbol < ALPHABET.length(); symbol++) {
+          var child = transitions[node][symbol];
+          if (child < 0) {
+            transitions[node][symbol] = transitions[failures[node]][symbol];
+          } else {
+            failures[child] = transitions[failures[node]][symbol];
+            queue.add(child);
+          }
+        }
+      }
+      this.outputs = nodeOutputs.stream().map(o -> o.stream().mapToInt(Integer::intValue).toArray()).toArray(int[][]::new);
+    }
+
+    private static int[] newNode() {
+      var transitions = new int[ALPHABET.length()];
+      Arrays.fill(transitions, -1);
+      return transitions;
+    }
+
+    private static boolean isLiteral(char c) {
+      return c < SYMBOLS.length && SYMBOLS[c] >= 0;
+    }
+
+    private static char toLowerCase(char c) {
+      return ALPHABET.charAt(SYMBOLS[c]);
+    }
+
+    private void collectMatches(String text, BitSet matches) {
+      var node = 0;
+      for (var i = 0; i < text.length(); i++) {
+        var c = text.charAt(i);
+        if (!isLiteral(c)) {
+          node = 0;
+          continue;
+        }
+        node = transitions[node][SYMBOLS[c]];
+        for (var match : outputs[node]) {
+          matches.set(match);
+        }
+      }
+    }
+  }
+}
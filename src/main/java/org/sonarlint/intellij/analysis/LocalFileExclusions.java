@@ -20,25 +20,36 @@
 package org.sonarlint.intellij.analysis;
 
 import com.intellij.ide.PowerSaveMode;
+import com.intellij.openapi.Disposable;
 import com.intellij.openapi.components.Service;
+import com.intellij.openapi.fileTypes.FileTypeEvent;
+import com.intellij.openapi.fileTypes.FileTypeListener;
+import com.intellij.openapi.fileTypes.FileTypeManager;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ModuleRootEvent;
+import com.intellij.openapi.roots.ModuleRootListener;
 import com.intellij.openapi.roots.ProjectRootManager;
 import com.intellij.openapi.vcs.FileStatus;
+import com.intellij.openapi.vcs.FileStatusListener;
 import com.intellij.openapi.vcs.FileStatusManager;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileContentChangeEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.sonarlint.intellij.common.analysis.ExcludeResult;
 import org.sonarlint.intellij.common.analysis.FileExclusionContributor;
 import org.sonarlint.intellij.common.util.SonarLintUtils;
@@ -47,7 +58,6 @@ import org.sonarlint.intellij.config.project.ExclusionItem;
 import org.sonarlint.intellij.config.project.SonarLintProjectSettings;
 import org.sonarlint.intellij.messages.GlobalConfigurationListener;
 import org.sonarlint.intellij.messages.ProjectConfigurationListener;
-import org.sonarsource.sonarlint.core.client.utils.ClientFileExclusions;
 
 import static org.sonarlint.intellij.common.ui.ReadActionUtils.computeReadActionSafely;
 import static org.sonarlint.intellij.config.Settings.getGlobalSettings;
@@ -56,41 +66,47 @@ import static org.sonarlint.intellij.util.SonarLintAppUtils.findModuleForFile;
 import static org.sonarlint.intellij.util.SonarLintAppUtils.getRelativePathForAnalysis;
 
 @Service(Service.Level.PROJECT)
-public final class LocalFileExclusions {
+public final class LocalFileExclusions implements Disposable {
   private final Project myProject;
+  /**
+   * Results of the checks that only depend on the project structure, the VCS status and the settings. Entries are invalidated when one
+   * of them changes. The disposed, power save and extension point checks are always evaluated.
+   */
+  private final Map<VirtualFile, CachedExclusions> cachedExclusionsByFile = new ConcurrentHashMap<>();
+  /**
+   * Relative paths only depend on the project structure, they are kept when the settings or the VCS status change.
+   */
+  private final Map<VirtualFile, RelativePath> relativePathsByFile = new ConcurrentHashMap<>();
 
-  private ClientFileExclusions projectExclusions;
-  private ClientFileExclusions globalExclusions;
+  private volatile FileExclusionsMatcher projectExclusions;
+  private volatile FileExclusionsMatcher globalExclusions;
 
   public LocalFileExclusions(Project project) {
     this.myProject = project;
     subscribeToSettingsChanges(project);
+    subscribeToInvalidatingEvents(project);
     loadGlobalExclusions(getGlobalSettings());
     loadProjectExclusions(getSettingsFor(project));
   }
 
-  private static Set<String> getExclusionsOfType(Collection<ExclusionItem> exclusions, ExclusionItem.Type type) {
-    return exclusions.stream()
-      .filter(e -> e.type() == type)
-      .map(ExclusionItem::item)
-      .collect(Collectors.toSet());
-  }
-
   private void loadProjectExclusions(SonarLintProjectSettings settings) {
     var projectExclusionsItems = settings.getFileExclusions().stream()
       .map(ExclusionItem::parse)
       .filter(Objects::nonNull)
+      .distinct()
       .toList();
 
-    var projectFileExclusions = getExclusionsOfType(projectExclusionsItems, ExclusionItem.Type.FILE);
-    var projectDirExclusions = getExclusionsOfType(projectExclusionsItems, ExclusionItem.Type.DIRECTORY);
-    var projectGlobExclusions = getExclusionsOfType(projectExclusionsItems, ExclusionItem.Type.GLOB);
-
-    this.projectExclusions = new ClientFileExclusions(projectFileExclusions, projectDirExclusions, projectGlobExclusions);
+    this.projectExclusions = FileExclusionsMatcher.compile(projectExclusionsItems);
+    invalidateExclusionResults();
   }
 
   private void loadGlobalExclusions(SonarLintGlobalSettings settings) {
-    this.globalExclusions = new ClientFileExclusions(Collections.emptySet(), Collections.emptySet(), new LinkedHashSet<>(settings.getFileExclusions()));
+    var globalExclusionsItems = new LinkedHashSet<>(settings.getFileExclusions()).stream()
+      .map(glob -> new ExclusionItem(ExclusionItem.Type.GLOB, glob))
+      .toList();
+
+    this.globalExclusions = FileExclusionsMatcher.compile(globalExclusionsItems);
+    invalidateExclusionResults();
   }
 
   private void subscribeToSettingsChanges(Project project) {
@@ -104,11 +120,70 @@ public final class LocalFileExclusions {
     busConnection.subscribe(ProjectConfigurationListener.TOPIC, this::loadProjectExclusions);
   }
 
+  private void subscribeToInvalidatingEvents(Project project) {
+    var busConnection = project.getMessageBus().connect(this);
+    busConnection.subscribe(ModuleRootListener.TOPIC, new ModuleRootListener() {
+      @Override
+      public void rootsChanged(@NotNull ModuleRootEvent event) {
+        invalidateCache();
+      }
+    });
+    busConnection.subscribe(FileTypeManager.TOPIC, new FileTypeListener() {
+      @Override
+      public void fileTypesChanged(@NotNull FileTypeEvent event) {
+        invalidateCache();
+      }
+    });
+    busConnection.subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+      @Override
+      public void after(@NotNull List<? extends VFileEvent> events) {
+        invalidateCacheFor(events);
+      }
+    });
+    FileStatusManager.getInstance(project).addFileStatusListener(new FileStatusListener() {
+      @Override
+      public void fileStatusesChanged() {
+        cachedExclusionsByFile.replaceAll((file, cached) -> cached.withoutOnTheFlyResult());
+      }
+
+      @Override
+      public void fileStatusChanged(@NotNull VirtualFile virtualFile) {
+        cachedExclusionsByFile.computeIfPresent(virtualFile, (file, cached) -> cached.withoutOnTheFlyResult());
+      }
+    }, this);
+  }
+
+  private void invalidateCacheFor(List<? extends VFileEvent> events) {
+    for (var event : events) {
+      if (event instanceof VFileContentChangeEvent) {
+        // the content of a file has no impact on its exclusion
+        continue;
+      }
+      var file = event.getFile();
+      if (file == null || file.isDirectory()) {
+        // moving or renaming a directory changes the path of all its children
+        invalidateCache();
+        return;
+      }
+      cachedExclusionsByFile.remove(file);
+      relativePathsByFile.remove(file);
+    }
+  }
+
+  private void invalidateExclusionResults() {
+    cachedExclusionsByFile.clear();
+  }
+
+  private void invalidateCache() {
+    invalidateExclusionResults();
+    relativePathsByFile.clear();
+  }
+
   /**
    * Checks if a file is excluded from analysis based on locally configured exclusions.
    */
   private ExcludeResult checkExclusionsFromSonarLintSettings(VirtualFile file, Module module) {
-    var relativePath = getRelativePathForAnalysis(module, file);
+    var relativePath = getCachedRelativePath(file, module);
     if (relativePath == null) {
       return ExcludeResult.excluded("Could not create a relative path");
     }
@@ -122,6 +197,16 @@ public final class LocalFileExclusions {
     return ExcludeResult.notExcluded();
   }
 
+  @Nullable
+  private String getCachedRelativePath(VirtualFile file, Module module) {
+    var cached = relativePathsByFile.get(file);
+    if (cached == null || cached.module != module) {
+      cached = new RelativePath(module, getRelativePathForAnalysis(module, file));
+      relativePathsByFile.put(file, cached);
+    }
+    return cached.path;
+  }
+
   private ExcludeResult checkVcsIgnored(VirtualFile file) {
     var fileStatusManager = FileStatusManager.getInstance(myProject);
     if (fileStatusManager.getStatus(file) == FileStatus.IGNORED) {
@@ -160,44 +245,76 @@ public final class LocalFileExclusions {
 
   private void checkExclusionsFileByFile(boolean forcedAnalysis, BiConsumer<VirtualFile, ExcludeResult> excludedFileHandler,
     Map<Module, Collection<VirtualFile>> filesByModule, VirtualFile file) {
-    var module = findModuleForFile(file, myProject);
-    // Handle this case first, so that later we are guaranteed module is not null
-    if (module == null) {
-      excludedFileHandler.accept(file, ExcludeResult.excluded("file is not part of any module in IntelliJ's project structure"));
+    // all the checkers of a file run in a single read action
+    var result = computeReadActionSafely(myProject, () -> checkExclusions(file, forcedAnalysis));
+    if (result == null) {
+      excludedFileHandler.accept(file, ExcludeResult.excluded("project is disposed"));
+      return;
+    }
+    if (result.excludeResult().isExcluded()) {
+      excludedFileHandler.accept(file, result.excludeResult());
       return;
     }
 
+    filesByModule.computeIfAbsent(result.module(), mod -> new LinkedHashSet<>()).add(file);
+  }
+
+  private FileExclusionResult checkExclusions(VirtualFile file, boolean forcedAnalysis) {
+    var cached = cachedExclusionsByFile.get(file);
+    if (cached == null || cached.module.isDisposed() || !file.isValid()) {
+      var module = findModuleForFile(file, myProject);
+      // Handle this case first, so that later we are guaranteed module is not null
+      if (module == null) {
+        cachedExclusionsByFile.remove(file);
+        return new FileExclusionResult(null, ExcludeResult.excluded("file is not part of any module in IntelliJ's project structure"));
+      }
+      cached = new CachedExclusions(module);
+      cachedExclusionsByFile.put(file, cached);
+    }
+    var module = cached.module;
+
     var exclusionCheckers = Stream.concat(
-      defaultExclusionCheckers(file, module),
-      forcedAnalysis ? Stream.empty() : onTheFlyExclusionCheckers(file, module)).toList();
+      defaultExclusionCheckers(file, cached),
+      forcedAnalysis ? Stream.empty() : onTheFlyExclusionCheckers(file, cached)).toList();
 
     for (var exclusionChecker : exclusionCheckers) {
-      var result = computeReadActionSafely(module.getProject(), exclusionChecker::get);
+      var result = exclusionChecker.get();
       if (result != null && result.isExcluded()) {
-        excludedFileHandler.accept(file, result);
-        return;
+        return new FileExclusionResult(module, result);
       }
     }
-
-    filesByModule.computeIfAbsent(module, mod -> new LinkedHashSet<>()).add(file);
+    return new FileExclusionResult(module, ExcludeResult.notExcluded());
   }
 
   @NotNull
-  private Stream<Supplier<ExcludeResult>> onTheFlyExclusionCheckers(VirtualFile file, Module module) {
+  private Stream<Supplier<ExcludeResult>> onTheFlyExclusionCheckers(VirtualFile file, CachedExclusions cached) {
     return Stream.of(
-      () -> checkVcsIgnored(file),
-      () -> checkFileInSourceFolders(file, module),
-      () -> checkExclusionsFromSonarLintSettings(file, module),
+      () -> cached.onTheFlyResult(() -> firstExcluded(
+        () -> checkVcsIgnored(file),
+        () -> checkFileInSourceFolders(file, cached.module),
+        () -> checkExclusionsFromSonarLintSettings(file, cached.module))),
       LocalFileExclusions::excludeIfPowerSaveModeOn);
   }
 
   @NotNull
-  private Stream<Supplier<ExcludeResult>> defaultExclusionCheckers(VirtualFile file, Module module) {
+  private Stream<Supplier<ExcludeResult>> defaultExclusionCheckers(VirtualFile file, CachedExclusions cached) {
     return Stream.of(
-      () -> excludeIfDisposed(module),
-      () -> checkProjectStructureExclusion(file),
-      () -> excludeUnsupportedFileOrFileType(file),
-      () -> checkExclusionFromEP(file, module));
+      () -> excludeIfDisposed(cached.module),
+      () -> cached.structureResult(() -> firstExcluded(
+        () -> checkProjectStructureExclusion(file),
+        () -> excludeUnsupportedFileOrFileType(file))),
+      () -> checkExclusionFromEP(file, cached.module));
+  }
+
+  @SafeVarargs
+  private static ExcludeResult firstExcluded(Supplier<ExcludeResult>... checkers) {
+    for (var checker : checkers) {
+      var result = checker.get();
+      if (result.isExcluded()) {
+        return result;
+      }
+    }
+    return ExcludeResult.notExcluded();
   }
 
   @NotNull
@@ -254,4 +371,49 @@ public final class LocalFileExclusions {
     return excludeResultFromEp;
   }
 
+  @Override
+  public void dispose() {
+    invalidateCache();
+  }
+
+  private record FileExclusionResult(@Nullable Module module, ExcludeResult excludeResult) {
+  }
+
+  private record RelativePath(Module module, @Nullable String path) {
+  }
+
+  private static class CachedExclusions {
+    private final Module module;
+    private volatile ExcludeResult structureResult;
+    private volatile ExcludeResult onTheFlyResult;
+
+    private CachedExclusions(Module module) {
+      this.module = module;
+    }
+
+    /**
+     * The VCS status is only involved in the on-the-fly checks, the project structure checks don't need to run again when it changes.
+     * A new instance is returned so that a check still running on this one can't cache an outdated result.
+     */
+    private CachedExclusions withoutOnTheFlyResult() {
+      var withoutOnTheFlyResult = new CachedExclusions(module);
+      withoutOnTheFlyResult.structureResult = structureResult;
+      return withoutOnTheFlyResult;
+    }
+
+    private ExcludeResult structureResult(Supplier<ExcludeResult> checker) {
+      if (structureResult == null) {
+        structureResult = checker.get();
+      }
+      return structureResult;
+    }
+
+    private ExcludeResult onTheFlyResult(Supplier<ExcludeResult> checker) {
+      if (onTheFlyResult == null) {
+        onTheFlyResult = checker.get();
+      }
+      return onTheFlyResult;
+    }
+  }
+
 }
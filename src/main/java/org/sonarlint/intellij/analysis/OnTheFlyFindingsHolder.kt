@@ -19,6 +19,7 @@
  */
 package org.sonarlint.intellij.analysis
 
+import com.intellij.openapi.fileEditor.FileDocumentManager
 import com.intellij.openapi.fileEditor.FileEditorManager
 import com.intellij.openapi.fileEditor.FileEditorManagerEvent
 import com.intellij.openapi.fileEditor.FileEditorManagerListener
@@ -28,6 +29,7 @@ import com.intellij.openapi.vfs.VirtualFile
 import java.net.URI
 import java.util.concurrent.ConcurrentHashMap
 import org.sonarlint.intellij.actions.SonarLintToolWindow
+import org.sonarlint.intellij.common.ui.ReadActionUtils.Companion.computeReadActionSafely
 import org.sonarlint.intellij.common.util.SonarLintUtils
 import org.sonarlint.intellij.common.util.SonarLintUtils.getService
 import org.sonarlint.intellij.editor.CodeAnalyzerRestarter
@@ -41,10 +43,20 @@ import org.sonarlint.intellij.util.VirtualFileUtils.uriToVirtualFile
 import org.sonarsource.sonarlint.core.rpc.protocol.client.hotspot.RaisedHotspotDto
 import org.sonarsource.sonarlint.core.rpc.protocol.client.issue.RaisedIssueDto
 
+/**
+ * On-the-fly findings of the [upToDateFiles], which do not need to be analyzed again, unlike the [outdatedFiles].
+ */
+data class UpToDateFindings(
+    val findings: LiveFindings,
+    val upToDateFiles: List<VirtualFile>,
+    val outdatedFiles: List<VirtualFile>,
+)
+
 class OnTheFlyFindingsHolder(private val project: Project) : FileEditorManagerListener {
     private var selectedFile: VirtualFile? = null
     private val currentIssuesPerOpenFile: MutableMap<VirtualFile, Collection<LiveIssue>> = ConcurrentHashMap()
     private val currentSecurityHotspotsPerOpenFile: MutableMap<VirtualFile, Collection<LiveSecurityHotspot>> = ConcurrentHashMap()
+    private val analyzedVersionPerOpenFile: MutableMap<VirtualFile, AnalyzedFileVersion> = ConcurrentHashMap()
 
     init {
         project.messageBus.connect()
@@ -52,12 +64,35 @@ class OnTheFlyFindingsHolder(private val project: Project) : FileEditorManagerLi
     }
 
     fun updateOnAnalysisResult(analysisResult: AnalysisResult) =
-        updateViewsWithNewFindings(analysisResult.findings)
+        updateViewsWithNewFindings(analysisResult.findings, analysisResult.analyzedVersions)
 
-    fun updateOnAnalysisIntermediateResult(intermediateResult: AnalysisIntermediateResult) =
-        updateViewsWithNewFindings(intermediateResult.findings)
+    fun updateOnAnalysisIntermediateResult(intermediateResult: AnalysisIntermediateResult) {
+        if (selectedFile == null) {
+            runOnUiThread(project) {
+                selectedFile = SonarLintUtils.getSelectedFile(project)
+            }
+        }
+        // Temporary workaround as FileEditorManager.openFiles does not return open files on dev containers/SSH
+        val openedFiles = openFiles.ifEmpty { setOfNotNull(selectedFile) }
+        val delta = intermediateResult.findings.onlyFor(openedFiles)
+        val filesToRefresh = delta.filesInvolved
+        if (filesToRefresh.isEmpty()) {
+            return
+        }
+        currentIssuesPerOpenFile.putAll(delta.issuesPerFile)
+        currentSecurityHotspotsPerOpenFile.putAll(delta.securityHotspotsPerFile)
+        // the findings of these files are partial until the final result of the analysis is received
+        filesToRefresh.forEach { analyzedVersionPerOpenFile.remove(it) }
+        if (selectedFile in delta.issuesPerFile.keys) {
+            updateCurrentFileTab()
+        }
+        if (delta.securityHotspotsPerFile.isNotEmpty()) {
+            updateSecurityHotspots()
+        }
+        getService(project, CodeAnalyzerRestarter::class.java).refreshFiles(filesToRefresh)
+    }
 
-    private fun updateViewsWithNewFindings(findings: LiveFindings) {
+    private fun updateViewsWithNewFindings(findings: LiveFindings, analyzedVersions: Map<VirtualFile, AnalyzedFileVersion>) {
         if (selectedFile == null) {
             runOnUiThread(project) {
                 selectedFile = SonarLintUtils.getSelectedFile(project)
@@ -68,6 +103,15 @@ class OnTheFlyFindingsHolder(private val project: Project) : FileEditorManagerLi
         with(findings.onlyFor(openedFiles)) {
             currentIssuesPerOpenFile.putAll(issuesPerFile)
             currentSecurityHotspotsPerOpenFile.putAll(securityHotspotsPerFile)
+            // files without reported issues keep their previous findings, so only the reported ones are known to be up-to-date
+            issuesPerFile.keys.forEach { file ->
+                val version = analyzedVersions[file]
+                if (version != null) {
+                    analyzedVersionPerOpenFile[file] = version
+                } else {
+                    analyzedVersionPerOpenFile.remove(file)
+                }
+            }
         }
         updateCurrentFileTab()
         updateSecurityHotspots()
@@ -77,9 +121,7 @@ class OnTheFlyFindingsHolder(private val project: Project) : FileEditorManagerLi
     fun updateViewsWithNewIssues(module: Module, raisedIssues: Map<URI, List<RaisedIssueDto>>) {
         val issues = raisedIssues.mapNotNull { (uri, rawIssues) ->
             val virtualFile = uriToVirtualFile(uri) ?: return
-            val liveIssues = rawIssues.mapNotNull {
-                RawIssueAdapter.toLiveIssue(module, it, virtualFile, null)
-            }
+            val liveIssues = RawIssueAdapter.toLiveIssues(module, rawIssues, virtualFile, null)
             virtualFile to liveIssues
         }.toMap()
         currentIssuesPerOpenFile.putAll(issues)
@@ -95,9 +137,7 @@ class OnTheFlyFindingsHolder(private val project: Project) : FileEditorManagerLi
     fun updateViewsWithNewSecurityHotspots(module: Module, raisedSecurityHotspots: Map<URI, List<RaisedHotspotDto>>) {
         val securityHotspots = raisedSecurityHotspots.mapNotNull { (uri, rawSecurityHotspots) ->
             val virtualFile = uriToVirtualFile(uri) ?: return
-            val liveIssues = rawSecurityHotspots.mapNotNull {
-                RawIssueAdapter.toLiveSecurityHotspot(module, it, virtualFile, null)
-            }
+            val liveIssues = RawIssueAdapter.toLiveSecurityHotspots(module, rawSecurityHotspots, virtualFile, null)
             virtualFile to liveIssues
         }.toMap().filterKeys { it in openFiles }
         currentSecurityHotspotsPerOpenFile.putAll(securityHotspots)
@@ -118,6 +158,7 @@ class OnTheFlyFindingsHolder(private val project: Project) : FileEditorManagerLi
     override fun fileClosed(source: FileEditorManager, file: VirtualFile) {
         currentIssuesPerOpenFile.remove(file)
         currentSecurityHotspotsPerOpenFile.remove(file)
+        analyzedVersionPerOpenFile.remove(file)
         // update only Security Hotspots, issues will be updated in reaction to selectionChanged
         updateSecurityHotspots()
     }
@@ -156,10 +197,39 @@ class OnTheFlyFindingsHolder(private val project: Project) : FileEditorManagerLi
         }
         if (selectedFile != null) {
             currentIssuesPerOpenFile.remove(selectedFile)
+            analyzedVersionPerOpenFile.remove(selectedFile)
         }
         updateCurrentFileTab()
     }
 
+    /**
+     * Splits [files] between the ones whose findings were computed against their current content and the given [settings], and the
+     * ones that need to be analyzed again. Findings are only kept for open files, so the other files are always outdated.
+     */
+    fun collectUpToDateFindings(files: Collection<VirtualFile>, settings: AnalysisSettingsFingerprint): UpToDateFindings {
+        val issuesPerFile = mutableMapOf<VirtualFile, Collection<LiveIssue>>()
+        val securityHotspotsPerFile = mutableMapOf<VirtualFile, Collection<LiveSecurityHotspot>>()
+        val upToDateFiles = mutableListOf<VirtualFile>()
+        val outdatedFiles = mutableListOf<VirtualFile>()
+        files.forEach { file ->
+            val analyzedVersion = analyzedVersionPerOpenFile[file]
+            if (analyzedVersion != null && analyzedVersion == currentVersion(file, settings)) {
+                issuesPerFile[file] = getIssuesForFile(file)
+                currentSecurityHotspotsPerOpenFile[file]?.let { securityHotspotsPerFile[file] = it }
+                upToDateFiles.add(file)
+            } else {
+                outdatedFiles.add(file)
+            }
+        }
+        return UpToDateFindings(LiveFindings(issuesPerFile, securityHotspotsPerFile), upToDateFiles, outdatedFiles)
+    }
+
+    private fun currentVersion(file: VirtualFile, settings: AnalysisSettingsFingerprint): AnalyzedFileVersion? {
+        return computeReadActionSafely(file, project) {
+            FileDocumentManager.getInstance().getDocument(file)
+        }?.let { AnalyzedFileVersion(it.modificationStamp, settings) }
+    }
+
     private val openFiles: Set<VirtualFile>
         get() = FileEditorManager.getInstance(project).openFiles.toSet()
 }
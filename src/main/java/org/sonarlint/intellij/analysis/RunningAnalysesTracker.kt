@@ -20,7 +20,9 @@
 package org.sonarlint.intellij.analysis
 
 import com.intellij.openapi.components.Service
+import com.intellij.openapi.vfs.VirtualFile
 import java.util.UUID
+import java.util.concurrent.CompletableFuture
 import java.util.concurrent.ConcurrentHashMap
 import org.sonarlint.intellij.common.ui.SonarLintConsole
 
@@ -28,17 +30,28 @@ import org.sonarlint.intellij.common.ui.SonarLintConsole
 class RunningAnalysesTracker {
 
     private val analysisStateById: MutableMap<UUID, AnalysisState> = ConcurrentHashMap<UUID, AnalysisState>()
+    private val completionById: MutableMap<UUID, CompletableFuture<Void>> = ConcurrentHashMap<UUID, CompletableFuture<Void>>()
 
     fun track(analysisState: AnalysisState) {
+        completionById.computeIfAbsent(analysisState.id) { CompletableFuture() }
         analysisStateById[analysisState.id] = analysisState
     }
 
     fun finish(analysisState: AnalysisState) {
         analysisStateById.remove(analysisState.id)
+        completionById.remove(analysisState.id)?.complete(null)
     }
 
     fun finishAll() {
         analysisStateById.clear()
+        completionById.keys.toList().forEach { completionById.remove(it)?.complete(null) }
+    }
+
+    /**
+     * Completes when the analysis is finished, immediately if it is not tracked.
+     */
+    fun whenFinished(analysisId: UUID): CompletableFuture<Void> {
+        return completionById[analysisId] ?: CompletableFuture.completedFuture(null)
     }
 
     fun getById(analysisId: UUID): AnalysisState? {
@@ -52,6 +65,18 @@ class RunningAnalysesTracker {
         }
     }
 
+    /**
+     * Stops the backend request of the analysis to make room for a more urgent one. Unlike [cancel], the progress of the analysis is not
+     * cancelled, so that it can be submitted again. Returns false if the request already completed.
+     */
+    fun preempt(analysisState: AnalysisState, console: SonarLintConsole): Boolean {
+        val preempted = analysisState.preempt()
+        if (preempted) {
+            console.debug("Preempting analysis ${analysisState.id}")
+        }
+        return preempted
+    }
+
     fun cancelSimilarAnalysis(analysisState: AnalysisState, console: SonarLintConsole) {
         for (analysis in analysisStateById.values) {
             if (analysis.isRedundant(analysisState)) {
@@ -65,4 +90,8 @@ class RunningAnalysesTracker {
         return analysisStateById.isNotEmpty()
     }
 
+    fun isOnTheFlyAnalysisRunning(file: VirtualFile): Boolean {
+        return analysisStateById.values.any { it.isAnalyzingOnTheFly(file) }
+    }
+
 }
@@ -26,6 +26,7 @@ import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vfs.VirtualFile;
 import java.net.URI;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -79,14 +80,17 @@ public final class SonarLintAnalyzer {
       var what = filesToAnalyze.size() == 1 ? String.format("'%s'", filesToAnalyze.iterator().next().getName()) : String.format("%d files", filesToAnalyze.size());
       console.info("Analysing " + what + " (ID " + analysisState.getId() + ")...");
 
+      // the configuration of the analysis is not part of the duration used to adapt the debounce delays
+      var analysisStart = System.currentTimeMillis();
       var analysisTask = getService(BackendService.class).analyzeFilesAndTrack(module, analysisState.getId(), inputFiles, contributedProperties, shouldFetchServerIssues, start);
+      analysisState.attachBackendRequest(analysisTask);
 
       AnalyzeFilesResponse result = null;
       try {
         result = waitForFuture(indicator, analysisTask);
       } catch (ProcessCanceledException e) {
         getService(myProject, RunningAnalysesTracker.class).finish(analysisState);
-        console.debug("Analysis " + analysisState.getId() + " canceled");
+        console.debug("Analysis " + analysisState.getId() + (analysisState.isPreempted() ? " preempted" : " canceled"));
       } catch (Exception e) {
         getService(myProject, RunningAnalysesTracker.class).finish(analysisState);
         console.error("Error during analysis ID " + analysisState.getId(), e);
@@ -94,6 +98,7 @@ public final class SonarLintAnalyzer {
 
       Set<VirtualFile> failedAnalysisFiles = Collections.emptySet();
       if (result != null) {
+        getService(myProject, AnalysisDurationTracker.class).record(filesToAnalyze, Duration.ofMillis(System.currentTimeMillis() - analysisStart));
         failedAnalysisFiles = result.getFailedAnalysisFiles().stream()
           .map(VirtualFileUtils.INSTANCE::uriToVirtualFile).filter(Objects::nonNull).collect(Collectors.toSet());
       }
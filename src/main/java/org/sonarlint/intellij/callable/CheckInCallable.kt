@@ -27,6 +27,7 @@ import org.sonarlint.intellij.analysis.AnalysisResult
 class CheckInCallable : AnalysisCallback {
 
     private var resultsPerAnalysis = mutableMapOf<UUID, AnalysisResult>()
+    private var reusedResult: AnalysisResult? = null
     private val errored = AtomicBoolean(false)
 
     override fun onSuccess(analysisResult: AnalysisResult) {
@@ -37,12 +38,19 @@ class CheckInCallable : AnalysisCallback {
         errored.set(true)
     }
 
+    /**
+     * Findings that were already known and up-to-date, reported along with the results of the analyses.
+     */
+    fun reuse(analysisResult: AnalysisResult) {
+        reusedResult = analysisResult
+    }
+
     fun analysisSucceeded(): Boolean {
         return !errored.get()
     }
 
     fun getResults(): List<AnalysisResult> {
-        return resultsPerAnalysis.values.toList()
+        return listOfNotNull(reusedResult) + resultsPerAnalysis.values
     }
 
 }
@@ -35,7 +35,6 @@ import com.intellij.openapi.project.Project
 import com.intellij.openapi.project.ProjectManager
 import com.intellij.openapi.project.ProjectManagerListener
 import com.intellij.openapi.roots.TestSourcesFilter.isTestSources
-import com.intellij.openapi.util.io.FileUtilRt
 import com.intellij.openapi.vfs.VirtualFile
 import com.intellij.serviceContainer.NonInjectable
 import com.intellij.ui.jcef.JBCefApp
@@ -72,10 +71,12 @@ import org.sonarlint.intellij.config.global.NodeJsSettings
 import org.sonarlint.intellij.config.global.ServerConnection
 import org.sonarlint.intellij.config.global.SonarLintGlobalSettings
 import org.sonarlint.intellij.finding.issue.vulnerabilities.TaintVulnerabilityMatcher
+import org.sonarlint.intellij.fs.FileContentFingerprints
 import org.sonarlint.intellij.fs.VirtualFileEvent
 import org.sonarlint.intellij.messages.GlobalConfigurationListener
 import org.sonarlint.intellij.notifications.SonarLintProjectNotifications.Companion.projectLessNotification
 import org.sonarlint.intellij.ui.UiUtils.Companion.runOnUiThread
+import org.sonarlint.intellij.util.FutureUtils
 import org.sonarlint.intellij.util.GlobalLogOutput
 import org.sonarlint.intellij.util.SonarLintAppUtils.getRelativePathForAnalysis
 import org.sonarlint.intellij.util.VirtualFileUtils
@@ -210,6 +211,13 @@ class BackendService : Disposable {
         return ensureBackendInitialized().thenComposeAsync(action)
     }
 
+    /**
+     * Same as [requestFromBackend], except that cancelling the returned future sends the cancellation to the backend.
+     */
+    private fun <T> cancellableRequestFromBackend(action: (SonarLintRpcServer) -> CompletableFuture<T>): CompletableFuture<T> {
+        return FutureUtils.composeCancellable(ensureBackendInitialized()) { action(it) }
+    }
+
     private fun notifyBackend(action: (SonarLintRpcServer) -> Unit) {
         ensureBackendInitialized().thenAcceptAsync(action)
     }
@@ -516,6 +524,7 @@ class BackendService : Disposable {
     }
 
     fun projectOpened(project: Project) {
+        configurationScopeIndex.projectOpened(project)
         val binding = getService(project, ProjectBindingManager::class.java).binding
         notifyBackend {
             it.configurationService.didAddConfigurationScopes(
@@ -536,6 +545,7 @@ class BackendService : Disposable {
 
     internal fun projectClosed(project: Project) {
         ModuleManager.getInstance(project).modules.forEach { moduleRemoved(it) }
+        configurationScopeIndex.projectClosed(project)
         val projectId = projectId(project)
         notifyBackend { it.configurationService.didRemoveConfigurationScope(DidRemoveConfigurationScopeParams(projectId)) }
     }
@@ -586,6 +596,7 @@ class BackendService : Disposable {
     }
 
     fun modulesAdded(project: Project, modules: List<Module>) {
+        modules.forEach { configurationScopeIndex.moduleAdded(it) }
         val projectBinding = getService(project, ProjectBindingManager::class.java).binding
         notifyBackend {
             it.configurationService.didAddConfigurationScopes(
@@ -605,6 +616,8 @@ class BackendService : Disposable {
 
     fun moduleRemoved(module: Module) {
         val moduleId = moduleId(module)
+        configurationScopeIndex.moduleRemoved(module)
+        getService(FileContentFingerprints::class.java).forgetScope(moduleId)
         notifyBackend { it.configurationService.didRemoveConfigurationScope(DidRemoveConfigurationScopeParams(moduleId)) }
     }
 
@@ -671,6 +684,7 @@ class BackendService : Disposable {
     fun updateStandaloneRulesConfiguration(nonDefaultRulesConfigurationByKey: Map<String, SonarLintGlobalSettings.Rule>) {
         val nonDefaultRpcRulesConfigurationByKey = nonDefaultRulesConfigurationByKey.mapValues { StandaloneRuleConfigDto(it.value.isActive, it.value.params) }
         notifyBackend { it.rulesService.updateStandaloneRulesConfiguration(UpdateStandaloneRulesConfigurationParams(nonDefaultRpcRulesConfigurationByKey)) }
+        ProjectManager.getInstance().openProjects.forEach { project -> getService(project, RuleDetailsCache::class.java).clear() }
     }
 
     fun helpGenerateUserToken(serverUrl: String, isSonarCloud: Boolean): CompletableFuture<HelpGenerateUserTokenResponse> {
@@ -808,6 +822,7 @@ class BackendService : Disposable {
                 return@runOnPooledThread
             }
             initializationTriedOnce.set(false)
+            getService(FileContentFingerprints::class.java).clear()
             backendFuture = CompletableFuture()
             sloop = null
             ensureBackendInitialized().thenAcceptAsync { catchUpWithBackend(it) }
@@ -840,6 +855,8 @@ class BackendService : Disposable {
     }
 
     companion object {
+        private val configurationScopeIndex = ConfigurationScopeIndex()
+
         fun projectId(project: Project) = project.projectFilePath ?: "DEFAULT_PROJECT"
 
         fun moduleId(module: Module): String {
@@ -852,15 +869,11 @@ class BackendService : Disposable {
         }
 
         fun findModule(configScopeId: String): Module? {
-            return ProjectManager.getInstance().openProjects.firstNotNullOfOrNull { project ->
-                val mapping = getSettingsFor(project).moduleMapping.filterValues { scopeId -> scopeId == configScopeId }.keys
-                val currentModuleName = if (mapping.isNotEmpty()) mapping.first() else configScopeId
-                return@firstNotNullOfOrNull ModuleManager.getInstance(project).modules.firstOrNull { module -> moduleId(module) == currentModuleName }
-            }
+            return configurationScopeIndex.findModule(configScopeId)
         }
 
         fun findProject(configScopeId: String): Project? {
-            return ProjectManager.getInstance().openProjects.find { projectId(it) == configScopeId }
+            return configurationScopeIndex.findProject(configScopeId)
         }
     }
 
@@ -921,9 +934,11 @@ class BackendService : Disposable {
     }
 
     fun updateFileSystem(filesByModule: Map<Module, List<VirtualFileEvent>>) {
+        val fingerprints = getService(FileContentFingerprints::class.java)
         val deletedFileUris = filesByModule.values
             .flatMap { it.filter { event -> event.type == ModuleFileEvent.Type.DELETED } }
             .mapNotNull { VirtualFileUtils.toURI(it.virtualFile) }
+        deletedFileUris.forEach { fingerprints.forget(it) }
 
         val events = filesByModule.entries.flatMap { (module, event) ->
             val moduleId = moduleId(module)
@@ -938,17 +953,24 @@ class BackendService : Disposable {
                 val forcedLanguage = contributedLanguages[it.virtualFile]?.let { fl -> Language.valueOf(fl.name) }
                 VirtualFileUtils.toURI(it.virtualFile)?.let { uri ->
                     computeReadActionSafely(it.virtualFile, module.project) {
-                        ClientFileDto(
+                        val fingerprint = fingerprints.fingerprint(it.virtualFile)
+                        if (fingerprints.isUpToDate(uri, moduleId, fingerprint)) {
+                            // The backend already knows this version of the file
+                            return@computeReadActionSafely null
+                        }
+                        val clientFile = ClientFileDto(
                             uri,
                             Paths.get(relativePath),
                             moduleId,
                             isTestSources(it.virtualFile, module.project),
                             VirtualFileUtils.getEncoding(it.virtualFile, module.project),
                             Paths.get(it.virtualFile.path),
-                            if (FileUtilRt.isTooLarge(it.virtualFile.length)) null else getFileContent(it.virtualFile),
+                            fingerprint.contentToSend(it.virtualFile, ::getFileContent),
                             forcedLanguage,
                             true
                         )
+                        fingerprints.sent(uri, moduleId, fingerprint)
+                        clientFile
                     }
                 }
             }
@@ -967,7 +989,8 @@ class BackendService : Disposable {
         startTime: Long,
     ): CompletableFuture<AnalyzeFilesResponse> {
         val moduleId = moduleId(module)
-        return requestFromBackend {
+        // the analysis can be preempted, its cancellation must reach the backend to free it
+        return cancellableRequestFromBackend {
             it.analysisService.analyzeFilesAndTrack(
                 AnalyzeFilesAndTrackParams(
                     moduleId,
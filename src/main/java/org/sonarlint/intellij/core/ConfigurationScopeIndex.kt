@@ -0,0 +1,138 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.core
+
+import com.intellij.openapi.module.Module
+import com.intellij.openapi.module.ModuleManager
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.project.ProjectManager
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Resolves configuration scope IDs to the modules and projects they were registered for, and back.
+ * The backend calls the client with a configuration scope ID for every log line, progress notification or raised finding,
+ * so resolving them must not scan all the modules of all the open projects.
+ *
+ * Entries are kept up to date from the project and module lifecycle events handled by [BackendService], and validated on read:
+ * a module renamed or re-mapped since it was indexed is found again by a scan, then re-indexed.
+ * IDs that can't be resolved, e.g. scopes the backend still reports after they were removed, are only scanned for once until the
+ * next project or module is indexed.
+ */
+class ConfigurationScopeIndex internal constructor(
+    private val openProjects: () -> Array<Project>,
+    private val modulesOf: (Project) -> Array<Module>,
+    private val moduleIdOf: (Module) -> String,
+    private val projectIdOf: (Project) -> String,
+) {
+    private val projectsByScopeId = ConcurrentHashMap<String, Project>()
+    private val scopeIdsByProject = ConcurrentHashMap<Project, String>()
+    private val modulesByScopeId = ConcurrentHashMap<String, Module>()
+    private val scopeIdsByModule = ConcurrentHashMap<Module, String>()
+    private val unknownModuleScopeIds: MutableSet<String> = ConcurrentHashMap.newKeySet()
+    private val unknownProjectScopeIds: MutableSet<String> = ConcurrentHashMap.newKeySet()
+
+    constructor() : this(
+        { ProjectManager.getInstance().openProjects },
+        { ModuleManager.getInstance(it).modules },
+        BackendService::moduleId,
+        BackendService::projectId
+    )
+
+    fun projectOpened(project: Project) {
+        unknownProjectScopeIds.clear()
+        val projectId = projectIdOf(project)
+        scopeIdsByProject.put(project, projectId)?.let { projectsByScopeId.remove(it, project) }
+        projectsByScopeId[projectId] = project
+        modulesOf(project).forEach { moduleAdded(it) }
+    }
+
+    fun projectClosed(project: Project) {
+        scopeIdsByProject.remove(project)?.let { projectsByScopeId.remove(it, project) }
+        scopeIdsByModule.keys.filter { it.project == project }.forEach { moduleRemoved(it) }
+    }
+
+    fun moduleAdded(module: Module) {
+        unknownModuleScopeIds.clear()
+        val moduleId = moduleIdOf(module)
+        scopeIdsByModule.put(module, moduleId)?.let { modulesByScopeId.remove(it, module) }
+        modulesByScopeId[moduleId] = module
+    }
+
+    fun moduleRemoved(module: Module) {
+        scopeIdsByModule.remove(module)?.let { modulesByScopeId.remove(it, module) }
+    }
+
+    fun findModule(configScopeId: String): Module? {
+        val indexed = modulesByScopeId[configScopeId]
+        if (indexed != null && !indexed.isDisposed && moduleIdOf(indexed) == configScopeId) {
+            return indexed
+        }
+        if (indexed == null && findIndexedProject(configScopeId) != null) {
+            // project-level scope, no need to look for a module
+            return null
+        }
+        if (indexed == null && configScopeId in unknownModuleScopeIds) {
+            return null
+        }
+        indexed?.let { moduleRemoved(it) }
+        val scanned = scanModules(configScopeId)
+        if (scanned == null) {
+            rememberUnknown(unknownModuleScopeIds, configScopeId)
+            return null
+        }
+        moduleAdded(scanned)
+        return scanned
+    }
+
+    fun findProject(configScopeId: String): Project? {
+        findIndexedProject(configScopeId)?.let { return it }
+        if (configScopeId in unknownProjectScopeIds) {
+            return null
+        }
+        val scanned = openProjects().find { projectIdOf(it) == configScopeId }
+        if (scanned == null) {
+            rememberUnknown(unknownProjectScopeIds, configScopeId)
+            return null
+        }
+        projectOpened(scanned)
+        return scanned
+    }
+
+    private fun rememberUnknown(unknownScopeIds: MutableSet<String>, configScopeId: String) {
+        if (unknownScopeIds.size >= MAX_UNKNOWN_SCOPE_IDS) {
+            unknownScopeIds.clear()
+        }
+        unknownScopeIds.add(configScopeId)
+    }
+
+    private fun findIndexedProject(configScopeId: String): Project? {
+        return projectsByScopeId[configScopeId]?.takeIf { !it.isDisposed && projectIdOf(it) == configScopeId }
+    }
+
+    private fun scanModules(configScopeId: String): Module? {
+        return openProjects().firstNotNullOfOrNull { project ->
+            modulesOf(project).firstOrNull { module -> moduleIdOf(module) == configScopeId }
+        }
+    }
+
+    companion object {
+        private const val MAX_UNKNOWN_SCOPE_IDS = 1_000
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.core
+
+import com.intellij.openapi.Disposable
+import com.intellij.openapi.components.Service
+import com.intellij.openapi.module.Module
+import com.intellij.openapi.project.Project
+import java.util.UUID
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.TimeUnit
+import org.sonarlint.intellij.common.util.SonarLintUtils.getService
+import org.sonarlint.intellij.config.global.SonarLintGlobalSettings
+import org.sonarlint.intellij.messages.GlobalConfigurationListener
+import org.sonarlint.intellij.messages.PROJECT_BINDING_TOPIC
+import org.sonarlint.intellij.messages.ProjectBindingListener
+import org.sonarlint.intellij.messages.ProjectConfigurationListener
+import org.sonarsource.sonarlint.core.rpc.protocol.backend.issue.EffectiveIssueDetailsDto
+import org.sonarsource.sonarlint.core.rpc.protocol.backend.rules.EffectiveRuleDetailsDto
+
+private const val MAX_ENTRIES = 200
+private const val TIMEOUT_SECONDS = 30L
+
+/**
+ * Keeps the most recently requested effective rule and issue details, so that going back and forth between findings does not
+ * query the backend again. Entries are dropped when the binding, the project settings or the rules configuration change.
+ * Failed requests are not kept.
+ */
+@Service(Service.Level.PROJECT)
+class RuleDetailsCache(project: Project) : Disposable {
+
+    private data class RuleDetailsKey(val configScopeId: String, val ruleKey: String, val contextKey: String?)
+    private data class IssueDetailsKey(val configScopeId: String, val issueId: UUID)
+
+    private val ruleDetails = BoundedCache<RuleDetailsKey, EffectiveRuleDetailsDto>()
+    private val issueDetails = BoundedCache<IssueDetailsKey, EffectiveIssueDetailsDto>()
+
+    init {
+        val busConnection = project.messageBus.connect(this)
+        busConnection.subscribe(PROJECT_BINDING_TOPIC, object : ProjectBindingListener {
+            override fun bindingChanged() {
+                clear()
+            }
+        })
+        busConnection.subscribe(ProjectConfigurationListener.TOPIC, ProjectConfigurationListener { clear() })
+        busConnection.subscribe(GlobalConfigurationListener.TOPIC, object : GlobalConfigurationListener.Adapter() {
+            override fun applied(previousSettings: SonarLintGlobalSettings, newSettings: SonarLintGlobalSettings) {
+                clear()
+            }
+        })
+    }
+
+    fun getEffectiveRuleDetails(module: Module, ruleKey: String, contextKey: String?): CompletableFuture<EffectiveRuleDetailsDto> {
+        return ruleDetails.getOrLoad(RuleDetailsKey(BackendService.moduleId(module), ruleKey, contextKey)) {
+            getService(BackendService::class.java).getEffectiveRuleDetails(module, ruleKey, contextKey).thenApply { it.details() }
+        }
+    }
+
+    fun getEffectiveIssueDetails(module: Module, issueId: UUID): CompletableFuture<EffectiveIssueDetailsDto> {
+        return issueDetails.getOrLoad(IssueDetailsKey(BackendService.moduleId(module), issueId)) {
+            getService(BackendService::class.java).getEffectiveIssueDetails(module, issueId).thenApply { it.details }
+        }
+    }
+
+    fun clear() {
+        ruleDetails.clear()
+        issueDetails.clear()
+    }
+
+    override fun dispose() {
+        clear()
+    }
+
+    private class BoundedCache<K, V> {
+        private val futures = object : LinkedHashMap<K, CompletableFuture<V>>(16, 0.75f, true) {
+            override fun removeEldestEntry(eldest: MutableMap.MutableEntry<K, CompletableFuture<V>>) = size > MAX_ENTRIES
+        }
+
+        fun getOrLoad(key: K, load: () -> CompletableFuture<V>): CompletableFuture<V> {
+            val future = synchronized(futures) {
+                futures[key] ?: load().orTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS).also { futures[key] = it }
+            }
+            future.whenComplete { _, error ->
+                if (error != null) {
+                    synchronized(futures) { futures.remove(key, future) }
+                }
+            }
+            return future
+        }
+
+        fun clear() {
+            synchronized(futures) { futures.clear() }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.editor;
+
+import com.intellij.codeInsight.intention.IntentionAction;
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.lang.annotation.AnnotationHolder;
+import com.intellij.lang.annotation.HighlightSeverity;
+import com.intellij.openapi.editor.colors.TextAttributesKey;
+import com.intellij.openapi.util.TextRange;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+
+/**
+ * Everything needed to annotate a finding, except its range that follows the document changes.
+ * It is computed once per finding and reused by the following daemon passes while its state is the same.
+ *
+ * @param state the values the payload was computed from, that can change during the lifetime of the finding
+ * @param textAttributes null for file level annotations
+ */
+record AnnotationPayload(Object state, HighlightSeverity severity, String message, ProblemHighlightType highlightType,
+  @Nullable TextAttributesKey textAttributes, List<IntentionAction> intentionActions) {
+
+  /**
+   * @param previousPayloads payloads of the previous pass, by finding identity
+   */
+  static AnnotationPayload reuseOrCompute(@Nullable Map<Object, AnnotationPayload> previousPayloads, Object finding, Object state,
+    Supplier<AnnotationPayload> computation) {
+    var previousPayload = previousPayloads == null ? null : previousPayloads.get(finding);
+    if (previousPayload != null && Objects.equals(previousPayload.state, state)) {
+      return previousPayload;
+    }
+    return computation.get();
+  }
+
+  void annotate(AnnotationHolder holder, TextRange range) {
+    var annotationBuilder = holder.newAnnotation(severity, message).range(range);
+    for (var action : intentionActions) {
+      annotationBuilder = annotationBuilder.withFix(action);
+    }
+    if (textAttributes == null) {
+      annotationBuilder = annotationBuilder.fileLevel();
+    } else {
+      annotationBuilder = annotationBuilder.textAttributes(textAttributes);
+    }
+    annotationBuilder.highlightType(highlightType).create();
+  }
+}
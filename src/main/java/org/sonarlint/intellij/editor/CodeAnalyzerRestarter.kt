@@ -40,12 +40,16 @@ class CodeAnalyzerRestarter @NonInjectable internal constructor(private val myPr
     }
 
     fun refreshFiles(changedFiles: Collection<VirtualFile>) {
+        if (changedFiles.isEmpty()) {
+            return
+        }
+        val filesToRefresh = changedFiles.toSet()
         runOnPooledThread(myProject) {
             val fileEditorManager = FileEditorManager.getInstance(myProject)
             val openFiles = fileEditorManager.openFiles
             runReadActionSafely(myProject) {
                 openFiles
-                    .filter { it in changedFiles }
+                    .filter { it in filesToRefresh }
                     .mapNotNull { getPsi(it) }
                     .forEach { codeAnalyzer.restart(it) }
             }
@@ -28,9 +28,14 @@ import com.intellij.lang.annotation.HighlightSeverity;
 import com.intellij.openapi.editor.Editor;
 import com.intellij.openapi.editor.colors.TextAttributesKey;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
 import com.intellij.openapi.util.TextRange;
 import com.intellij.psi.PsiFile;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import javax.annotation.Nullable;
 import org.jetbrains.annotations.NotNull;
@@ -59,6 +64,7 @@ public class SonarExternalAnnotator extends ExternalAnnotator<SonarExternalAnnot
 
   // some quick fixes do not match the IntelliJ experience
   private static final Set<String> SILENCED_QUICK_FIXABLE_RULE_KEYS = Set.of("java:S1068", "java:S1144", "java:S1172");
+  private static final Key<Map<Object, AnnotationPayload>> ANNOTATION_PAYLOADS = Key.create("SonarLintAnnotationPayloads");
 
   @Override
   public void apply(@NotNull PsiFile psiFile, AnnotationContext annotationResult, @NotNull AnnotationHolder holder) {
@@ -68,6 +74,10 @@ public class SonarExternalAnnotator extends ExternalAnnotator<SonarExternalAnnot
 
     var project = psiFile.getProject();
     var file = psiFile.getVirtualFile();
+    var settings = new AnnotationSettings(getSettingsFor(project).isBindingEnabled(),
+      getService(CleanAsYouCodeService.class).shouldFocusOnNewCode(project));
+    var previousPayloads = psiFile.getUserData(ANNOTATION_PAYLOADS);
+    var payloads = new IdentityHashMap<Object, AnnotationPayload>();
 
     var onTheFlyFindingsHolder = getService(project, AnalysisSubmitter.class).getOnTheFlyFindingsHolder();
     var issues = onTheFlyFindingsHolder.getFindingsForFile(file);
@@ -77,7 +87,7 @@ public class SonarExternalAnnotator extends ExternalAnnotator<SonarExternalAnnot
         // reject ranges that are no longer valid. It probably means that they were deleted from the file, or the file was deleted
         var validTextRange = issue.getValidTextRange();
         if (validTextRange != null) {
-          addAnnotation(project, issue, validTextRange, holder);
+          addAnnotation(issue, settings, validTextRange, previousPayloads, payloads, holder);
         }
       });
 
@@ -88,15 +98,18 @@ public class SonarExternalAnnotator extends ExternalAnnotator<SonarExternalAnnot
         // reject ranges that are no longer valid. It probably means that they were deleted from the file, or the file was deleted
         var validTextRange = securityHotspot.getValidTextRange();
         if (validTextRange != null) {
-          addAnnotation(project, securityHotspot, validTextRange, holder);
+          addAnnotation(securityHotspot, settings, validTextRange, previousPayloads, payloads, holder);
         }
       });
 
     if (SonarLintUtils.isTaintVulnerabilitiesEnabled()) {
       getService(project, TaintVulnerabilitiesCache.class).getTaintVulnerabilitiesForFile(file)
         .stream().filter(vulnerability -> !vulnerability.isResolved())
-        .forEach(vulnerability -> addAnnotation(project, vulnerability, holder));
+        .forEach(vulnerability -> addAnnotation(vulnerability, settings, previousPayloads, payloads, holder));
     }
+
+    // payloads of the findings that disappeared are dropped
+    psiFile.putUserData(ANNOTATION_PAYLOADS, payloads);
   }
 
   private static boolean shouldSkip(@NotNull PsiFile file) {
@@ -120,10 +133,19 @@ public class SonarExternalAnnotator extends ExternalAnnotator<SonarExternalAnnot
     return collectedInfo;
   }
 
-  private static void addAnnotation(Project project, LiveFinding finding, TextRange validTextRange, AnnotationHolder annotationHolder) {
+  private static void addAnnotation(LiveFinding finding, AnnotationSettings settings, TextRange validTextRange,
+    @Nullable Map<Object, AnnotationPayload> previousPayloads, Map<Object, AnnotationPayload> payloads, AnnotationHolder annotationHolder) {
+    var hotspotStatus = finding instanceof LiveSecurityHotspot hotspot ? hotspot.getStatus() : null;
+    var state = List.of(settings, Objects.toString(finding.getServerKey()), Objects.toString(hotspotStatus));
+    var payload = AnnotationPayload.reuseOrCompute(previousPayloads, finding, state, () -> computePayload(finding, settings, state));
+    payloads.put(finding, payload);
+    payload.annotate(annotationHolder, validTextRange);
+  }
+
+  private static AnnotationPayload computePayload(LiveFinding finding, AnnotationSettings settings, Object state) {
     var intentionActions = new ArrayList<IntentionAction>();
     intentionActions.add(new ShowRuleDescriptionIntentionAction(finding));
-    if (!getSettingsFor(project).isBindingEnabled()) {
+    if (!settings.bindingEnabled()) {
       intentionActions.add(new DisableRuleIntentionAction(finding.getRuleKey()));
     }
 
@@ -150,43 +172,38 @@ public class SonarExternalAnnotator extends ExternalAnnotator<SonarExternalAnnot
 
     finding.context().ifPresent(c -> intentionActions.add(new ShowLocationsIntentionAction(finding, c)));
 
-    var annotationBuilder = annotationHolder
-      .newAnnotation(getSeverity(finding.getHighestImpact(), finding.getUserSeverity()), finding.getMessage())
-      .range(validTextRange);
-    for (IntentionAction action : intentionActions) {
-      annotationBuilder = annotationBuilder.withFix(action);
-    }
-
-    if (finding.getRange() == null) {
-      annotationBuilder = annotationBuilder.fileLevel();
-    } else {
-      annotationBuilder = annotationBuilder.textAttributes(getTextAttrsKey(project, finding.getHighestImpact(), finding.getUserSeverity(), finding.isOnNewCode()));
-    }
-
-    annotationBuilder.highlightType(getType(finding.getHighestImpact(), finding.getUserSeverity()))
-      .create();
+    var textAttributes = finding.getRange() == null ? null
+      : getTextAttrsKey(settings.focusOnNewCode(), finding.getHighestImpact(), finding.getUserSeverity(), finding.isOnNewCode());
+    return new AnnotationPayload(state, getSeverity(finding.getHighestImpact(), finding.getUserSeverity()), finding.getMessage(),
+      getType(finding.getHighestImpact(), finding.getUserSeverity()), textAttributes, List.copyOf(intentionActions));
   }
 
   private static boolean shouldSuggestQuickFix(LiveFinding issue) {
     return !SILENCED_QUICK_FIXABLE_RULE_KEYS.contains(issue.getRuleKey());
   }
 
-  private static void addAnnotation(Project project, LocalTaintVulnerability vulnerability, AnnotationHolder annotationHolder) {
+  private static void addAnnotation(LocalTaintVulnerability vulnerability, AnnotationSettings settings,
+    @Nullable Map<Object, AnnotationPayload> previousPayloads, Map<Object, AnnotationPayload> payloads, AnnotationHolder annotationHolder) {
     var textRange = vulnerability.getValidTextRange();
     if (textRange == null) {
       return;
     }
-    annotationHolder.newAnnotation(getSeverity(vulnerability.getHighestImpact(), vulnerability.severity()), vulnerability.message())
-      .range(textRange)
-      .withFix(new ShowTaintVulnerabilityRuleDescriptionIntentionAction(vulnerability))
-      .withFix(new MarkAsResolvedAction(vulnerability))
-      .textAttributes(getTextAttrsKey(project, vulnerability.getHighestImpact(), vulnerability.severity(), vulnerability.isOnNewCode()))
-      .highlightType(getType(vulnerability.getHighestImpact(), vulnerability.severity()))
-      .create();
+    var payload = AnnotationPayload.reuseOrCompute(previousPayloads, vulnerability, settings, () -> new AnnotationPayload(settings,
+      getSeverity(vulnerability.getHighestImpact(), vulnerability.severity()), vulnerability.message(),
+      getType(vulnerability.getHighestImpact(), vulnerability.severity()),
+      getTextAttrsKey(settings.focusOnNewCode(), vulnerability.getHighestImpact(), vulnerability.severity(), vulnerability.isOnNewCode()),
+      List.of(new ShowTaintVulnerabilityRuleDescriptionIntentionAction(vulnerability), new MarkAsResolvedAction(vulnerability))));
+    payloads.put(vulnerability, payload);
+    payload.annotate(annotationHolder, textRange);
   }
 
   static TextAttributesKey getTextAttrsKey(Project project, @Nullable ImpactSeverity impact, @Nullable IssueSeverity severity, boolean isOnNewCode) {
-    if (getService(CleanAsYouCodeService.class).shouldFocusOnNewCode(project) && !isOnNewCode) {
+    return getTextAttrsKey(getService(CleanAsYouCodeService.class).shouldFocusOnNewCode(project), impact, severity, isOnNewCode);
+  }
+
+  private static TextAttributesKey getTextAttrsKey(boolean focusOnNewCode, @Nullable ImpactSeverity impact, @Nullable IssueSeverity severity,
+    boolean isOnNewCode) {
+    if (focusOnNewCode && !isOnNewCode) {
       return SonarLintTextAttributes.OLD_CODE;
     }
 
@@ -241,4 +258,10 @@ public class SonarExternalAnnotator extends ExternalAnnotator<SonarExternalAnnot
 
   public static class AnnotationContext {
   }
+
+  /**
+   * Settings the annotations depend on, read once per pass.
+   */
+  private record AnnotationSettings(boolean bindingEnabled, boolean focusOnNewCode) {
+  }
 }
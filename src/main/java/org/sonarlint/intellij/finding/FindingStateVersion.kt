@@ -0,0 +1,38 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.finding
+
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Incremented each time a finding is resolved, reopened or reviewed, so that values computed from the findings can be kept
+ * until their state changes.
+ */
+object FindingStateVersion {
+    private val version = AtomicLong()
+
+    @JvmStatic
+    fun current() = version.get()
+
+    @JvmStatic
+    fun increment() {
+        version.incrementAndGet()
+    }
+}
@@ -223,6 +223,7 @@ public abstract class LiveFinding implements Finding {
 
   public void setResolved(boolean resolved) {
     this.resolved = resolved;
+    FindingStateVersion.increment();
   }
 
   public Optional<FindingContext> context() {
@@ -19,11 +19,14 @@
  */
 package org.sonarlint.intellij.finding;
 
+import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiDocumentManager;
 import com.intellij.psi.PsiFile;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedList;
@@ -50,38 +53,96 @@ public class RawIssueAdapter {
   public static LiveSecurityHotspot toLiveSecurityHotspot(Module module, RaisedHotspotDto rawHotspot,
     VirtualFile virtualFile, @Nullable Long modificationStamp) {
     return computeReadActionSafely(module, () -> {
+      var project = module.getProject();
+      var psiFile = toPsiFile(project, virtualFile);
+      var document = PsiDocumentManager.getInstance(project).getDocument(psiFile);
+      return toLiveSecurityHotspot(module, new TextRangeMatcher(project), psiFile, document, rawHotspot, virtualFile, modificationStamp);
+    });
+  }
+
+  /**
+   * Converts all the Security Hotspots raised on a single file within one read action. The PSI file, its document and the matcher are resolved once
+   * and shared by every finding, which avoids acquiring the read lock once per Security Hotspot.
+   */
+  public static List<LiveSecurityHotspot> toLiveSecurityHotspots(Module module, Collection<RaisedHotspotDto> rawHotspots,
+    VirtualFile virtualFile, @Nullable Long modificationStamp) {
+    if (rawHotspots.isEmpty()) {
+      return Collections.emptyList();
+    }
+    var liveHotspots = computeReadActionSafely(module, () -> {
       var project = module.getProject();
       var matcher = new TextRangeMatcher(project);
       var psiFile = toPsiFile(project, virtualFile);
-      var textRange = rawHotspot.getTextRange();
-      var quickFixes = transformQuickFixes(project, rawHotspot.getQuickFixes(), modificationStamp);
-      if (textRange != null) {
-        var rangeMarker = matcher.match(psiFile, textRange);
-        var context = transformFlows(project, matcher, psiFile, rawHotspot.getFlows(), rawHotspot.getRuleKey());
-        return new LiveSecurityHotspot(module, rawHotspot, virtualFile, rangeMarker, context.orElse(null), quickFixes);
-      } else {
-        return new LiveSecurityHotspot(module, rawHotspot, virtualFile, quickFixes);
+      var document = PsiDocumentManager.getInstance(project).getDocument(psiFile);
+      var converted = new ArrayList<LiveSecurityHotspot>(rawHotspots.size());
+      for (var rawHotspot : rawHotspots) {
+        converted.add(toLiveSecurityHotspot(module, matcher, psiFile, document, rawHotspot, virtualFile, modificationStamp));
       }
+      return converted;
     });
+    return liveHotspots == null ? Collections.emptyList() : liveHotspots;
   }
 
   @Nullable
   public static LiveIssue toLiveIssue(Module module, RaisedIssueDto rawIssue,
     VirtualFile virtualFile, @Nullable Long modificationStamp) {
     return computeReadActionSafely(module, () -> {
+      var project = module.getProject();
+      var psiFile = toPsiFile(project, virtualFile);
+      var document = PsiDocumentManager.getInstance(project).getDocument(psiFile);
+      return toLiveIssue(module, new TextRangeMatcher(project), psiFile, document, rawIssue, virtualFile, modificationStamp);
+    });
+  }
+
+  /**
+   * Converts all the issues raised on a single file within one read action. The PSI file, its document and the matcher are resolved once
+   * and shared by every finding, which avoids acquiring the read lock once per issue.
+   */
+  public static List<LiveIssue> toLiveIssues(Module module, Collection<RaisedIssueDto> rawIssues,
+    VirtualFile virtualFile, @Nullable Long modificationStamp) {
+    if (rawIssues.isEmpty()) {
+      return Collections.emptyList();
+    }
+    var liveIssues = computeReadActionSafely(module, () -> {
       var project = module.getProject();
       var matcher = new TextRangeMatcher(project);
       var psiFile = toPsiFile(project, virtualFile);
-      var textRange = rawIssue.getTextRange();
-      var quickFixes = transformQuickFixes(project, rawIssue.getQuickFixes(), modificationStamp);
-      if (textRange != null) {
-        var rangeMarker = matcher.match(psiFile, textRange);
-        var context = transformFlows(project, matcher, psiFile, rawIssue.getFlows(), rawIssue.getRuleKey());
-        return new LiveIssue(module, rawIssue, virtualFile, rangeMarker, context.orElse(null), quickFixes);
-      } else {
-        return new LiveIssue(module, rawIssue, virtualFile, quickFixes);
+      var document = PsiDocumentManager.getInstance(project).getDocument(psiFile);
+      var converted = new ArrayList<LiveIssue>(rawIssues.size());
+      for (var rawIssue : rawIssues) {
+        converted.add(toLiveIssue(module, matcher, psiFile, document, rawIssue, virtualFile, modificationStamp));
       }
+      return converted;
     });
+    return liveIssues == null ? Collections.emptyList() : liveIssues;
+  }
+
+  private static LiveSecurityHotspot toLiveSecurityHotspot(Module module, TextRangeMatcher matcher, PsiFile psiFile, @Nullable Document document,
+    RaisedHotspotDto rawHotspot, VirtualFile virtualFile, @Nullable Long modificationStamp) throws TextRangeMatcher.NoMatchException {
+    var project = module.getProject();
+    var textRange = rawHotspot.getTextRange();
+    var quickFixes = transformQuickFixes(project, rawHotspot.getQuickFixes(), modificationStamp);
+    if (textRange != null) {
+      var rangeMarker = matcher.match(psiFile, document, textRange);
+      var context = transformFlows(project, matcher, psiFile, rawHotspot.getFlows(), rawHotspot.getRuleKey());
+      return new LiveSecurityHotspot(module, rawHotspot, virtualFile, rangeMarker, context.orElse(null), quickFixes);
+    } else {
+      return new LiveSecurityHotspot(module, rawHotspot, virtualFile, quickFixes);
+    }
+  }
+
+  private static LiveIssue toLiveIssue(Module module, TextRangeMatcher matcher, PsiFile psiFile, @Nullable Document document,
+    RaisedIssueDto rawIssue, VirtualFile virtualFile, @Nullable Long modificationStamp) throws TextRangeMatcher.NoMatchException {
+    var project = module.getProject();
+    var textRange = rawIssue.getTextRange();
+    var quickFixes = transformQuickFixes(project, rawIssue.getQuickFixes(), modificationStamp);
+    if (textRange != null) {
+      var rangeMarker = matcher.match(psiFile, document, textRange);
+      var context = transformFlows(project, matcher, psiFile, rawIssue.getFlows(), rawIssue.getRuleKey());
+      return new LiveIssue(module, rawIssue, virtualFile, rangeMarker, context.orElse(null), quickFixes);
+    } else {
+      return new LiveIssue(module, rawIssue, virtualFile, quickFixes);
+    }
   }
 
   private static Optional<FindingContext> transformFlows(Project project, TextRangeMatcher matcher, PsiFile psiFile,
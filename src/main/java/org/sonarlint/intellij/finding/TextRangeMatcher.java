@@ -81,13 +81,24 @@ public class TextRangeMatcher {
     return match(file, textRange.getStartLine(), textRange.getStartLineOffset(), textRange.getEndLine(), textRange.getEndLineOffset());
   }
 
+  /**
+   * Same as {@link #match(PsiFile, TextRangeDto)}, for callers matching many ranges in the same file that already resolved its document.
+   */
+  public RangeMarker match(PsiFile file, @Nullable Document doc, TextRangeDto textRange) throws NoMatchException {
+    ApplicationManager.getApplication().assertReadAccessAllowed();
+    return match(file, doc, textRange.getStartLine(), textRange.getStartLineOffset(), textRange.getEndLine(), textRange.getEndLineOffset());
+  }
+
   private RangeMarker match(PsiFile file, @Nullable Integer startLine, @Nullable Integer startLineOffset, @Nullable Integer endLine, @Nullable Integer endLineOffset)
     throws NoMatchException {
     ApplicationManager.getApplication().assertReadAccessAllowed();
-    Preconditions.checkArgument(startLine != null);
-
     var docManager = PsiDocumentManager.getInstance(project);
-    var doc = docManager.getDocument(file);
+    return match(file, docManager.getDocument(file), startLine, startLineOffset, endLine, endLineOffset);
+  }
+
+  private static RangeMarker match(PsiFile file, @Nullable Document doc, @Nullable Integer startLine, @Nullable Integer startLineOffset, @Nullable Integer endLine,
+    @Nullable Integer endLineOffset) throws NoMatchException {
+    Preconditions.checkArgument(startLine != null);
     if (doc == null) {
       throw new NoMatchException("No document found for file: " + file.getName());
     }
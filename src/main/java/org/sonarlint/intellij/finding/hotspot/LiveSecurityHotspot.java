@@ -27,6 +27,7 @@ import java.util.List;
 import javax.annotation.Nullable;
 import org.jetbrains.annotations.NotNull;
 import org.sonarlint.intellij.finding.FindingContext;
+import org.sonarlint.intellij.finding.FindingStateVersion;
 import org.sonarlint.intellij.finding.LiveFinding;
 import org.sonarlint.intellij.finding.QuickFix;
 import org.sonarsource.sonarlint.core.client.utils.CleanCodeAttribute;
@@ -87,10 +88,11 @@ public class LiveSecurityHotspot extends LiveFinding {
 
   public void setStatus(HotspotReviewStatus status) {
     this.status = status;
+    FindingStateVersion.increment();
   }
 
   public void setStatus(HotspotStatus status) {
-    this.status = HotspotReviewStatus.valueOf(status.name());
+    setStatus(HotspotReviewStatus.valueOf(status.name()));
   }
 
   public HotspotReviewStatus getStatus() {
@@ -21,8 +21,10 @@ package org.sonarlint.intellij.finding.hotspot
 
 import com.intellij.openapi.components.Service
 import com.intellij.openapi.project.Project
+import java.util.concurrent.CompletableFuture
 import org.sonarlint.intellij.actions.SonarLintToolWindow
 import org.sonarlint.intellij.common.util.SonarLintUtils.getService
+import org.sonarlint.intellij.config.Settings.getSettingsFor
 import org.sonarlint.intellij.core.BackendService
 import org.sonarlint.intellij.editor.CodeAnalyzerRestarter
 import org.sonarlint.intellij.ui.UiUtils.Companion.runOnUiThread
@@ -34,17 +36,59 @@ object Supported : SecurityHotspotsLocalDetectionSupport()
 
 @Service(Service.Level.PROJECT)
 class SecurityHotspotsPresenter(private val project: Project) {
-    fun presentSecurityHotspotsForOpenFiles() {
-        getService(BackendService::class.java)
-            .checkLocalSecurityHotspotDetectionSupported(project)
-            .thenApplyAsync { response -> if (response.isSupported) Supported else NotSupported(response.reason!!) }
+    /**
+     * Whether hotspots can be detected locally only depends on the binding, the backend is asked again when it changes
+     */
+    @Volatile
+    private var cachedLocalDetectionSupport: CachedLocalDetectionSupport? = null
+    private var lastPresentedStatus: SecurityHotspotsLocalDetectionSupport? = null
+
+    fun invalidateLocalDetectionSupport() {
+        cachedLocalDetectionSupport = null
+    }
+
+    /**
+     * @param restartHighlighting whether the hotspots of the open files may have changed, e.g. after a settings, binding or branch
+     * change. Open files are highlighted again in that case, or when the local detection support changed.
+     */
+    fun presentSecurityHotspotsForOpenFiles(restartHighlighting: Boolean) {
+        localDetectionSupport()
             .thenAcceptAsync { status ->
                 runOnUiThread(project) {
                     getService(project, SonarLintToolWindow::class.java).populateSecurityHotspotsTab(status)
-                    if (status is Supported) {
+                    val statusChanged = status != lastPresentedStatus
+                    lastPresentedStatus = status
+                    if (status is Supported && (restartHighlighting || statusChanged)) {
                         getService(project, CodeAnalyzerRestarter::class.java).refreshOpenFiles()
                     }
                 }
             }
     }
+
+    private fun localDetectionSupport(): CompletableFuture<SecurityHotspotsLocalDetectionSupport> {
+        val binding = currentBinding()
+        cachedLocalDetectionSupport?.takeIf { it.binding == binding }?.let { return it.support }
+        val support = getService(BackendService::class.java)
+            .checkLocalSecurityHotspotDetectionSupported(project)
+            .thenApply<SecurityHotspotsLocalDetectionSupport> { response ->
+                if (response.isSupported) Supported else NotSupported(response.reason!!)
+            }
+        val cached = CachedLocalDetectionSupport(binding, support)
+        cachedLocalDetectionSupport = cached
+        support.exceptionally {
+            // ask again next time
+            if (cachedLocalDetectionSupport === cached) {
+                cachedLocalDetectionSupport = null
+            }
+            null
+        }
+        return support
+    }
+
+    private fun currentBinding(): List<Any?> {
+        val settings = getSettingsFor(project)
+        return listOf(settings.isBindingEnabled, settings.connectionName, settings.projectKey)
+    }
+
+    private class CachedLocalDetectionSupport(val binding: List<Any?>, val support: CompletableFuture<SecurityHotspotsLocalDetectionSupport>)
 }
@@ -19,6 +19,7 @@
  */
 package org.sonarlint.intellij.finding.hotspot
 
+import com.intellij.openapi.Disposable
 import com.intellij.openapi.components.Service
 import com.intellij.openapi.fileEditor.FileEditorManager
 import com.intellij.openapi.fileEditor.FileEditorManagerListener
@@ -29,15 +30,27 @@ import org.sonarlint.intellij.common.util.SonarLintUtils.getService
 import org.sonarlint.intellij.config.global.SonarLintGlobalSettings
 import org.sonarlint.intellij.connected.SonarProjectBranchListener
 import org.sonarlint.intellij.messages.GlobalConfigurationListener
+import org.sonarlint.intellij.messages.PROJECT_BINDING_TOPIC
+import org.sonarlint.intellij.messages.ProjectBindingListener
 import org.sonarlint.intellij.messages.ProjectConfigurationListener
+import org.sonarlint.intellij.trigger.AnalysisScheduler
+import org.sonarlint.intellij.trigger.DebouncePolicy
 import org.sonarlint.intellij.util.SonarLintAppUtils.findModuleForFile
 import org.sonarlint.intellij.util.getOpenFiles
-import org.sonarlint.intellij.util.runOnPooledThread
 
+/**
+ * Refreshes the Security Hotspots tab when the open files, the settings or the binding change.
+ * Bursts of events, e.g. when the editors of a session are restored, are merged into a single refresh.
+ */
 @Service(Service.Level.PROJECT)
-class SecurityHotspotsRefreshTrigger(private val project: Project) {
+class SecurityHotspotsRefreshTrigger(private val project: Project) : Disposable {
+  private val debounceKey = "SecurityHotspotsRefresh:" + project.locationHash
+  private var refreshAllPending = false
+  private var settingsChangedPending = false
+  private val pendingModules = HashSet<Module>()
+
   fun subscribeToTriggeringEvents() {
-    val busConnection = project.messageBus.connect()
+    val busConnection = project.messageBus.connect(this)
     with(busConnection) {
       subscribe(FileEditorManagerListener.FILE_EDITOR_MANAGER, object : FileEditorManagerListener {
         override fun fileOpened(source: FileEditorManager, file: VirtualFile) {
@@ -48,10 +61,15 @@ class SecurityHotspotsRefreshTrigger(private val project: Project) {
           triggerRefresh()
         }
       })
-      subscribe(ProjectConfigurationListener.TOPIC, ProjectConfigurationListener { triggerRefresh() })
+      subscribe(ProjectConfigurationListener.TOPIC, ProjectConfigurationListener { triggerRefreshForNewSettings() })
       subscribe(GlobalConfigurationListener.TOPIC, object : GlobalConfigurationListener.Adapter() {
         override fun applied(previousSettings: SonarLintGlobalSettings, newSettings: SonarLintGlobalSettings) {
-          triggerRefresh()
+          triggerRefreshForNewSettings()
+        }
+      })
+      subscribe(PROJECT_BINDING_TOPIC, object : ProjectBindingListener {
+        override fun bindingChanged() {
+          triggerRefreshForNewSettings()
         }
       })
       subscribe(SonarProjectBranchListener.TOPIC, SonarProjectBranchListener { module, _ ->
@@ -63,11 +81,49 @@ class SecurityHotspotsRefreshTrigger(private val project: Project) {
   }
 
   fun triggerRefresh(onlyForModule: Module? = null) {
-    runOnPooledThread(project) {
-      if (onlyForModule == null || project.getOpenFiles().any { onlyForModule == findModuleForFile(it, project) }) {
-        getService(project, SecurityHotspotsPresenter::class.java).presentSecurityHotspotsForOpenFiles()
+    synchronized(pendingModules) {
+      if (onlyForModule == null) {
+        refreshAllPending = true
+      } else {
+        pendingModules.add(onlyForModule)
       }
     }
+    getService(AnalysisScheduler::class.java).debounce(debounceKey, DebouncePolicy.SECURITY_HOTSPOTS_REFRESH) { refresh() }
+  }
+
+  private fun triggerRefreshForNewSettings() {
+    getService(project, SecurityHotspotsPresenter::class.java).invalidateLocalDetectionSupport()
+    synchronized(pendingModules) {
+      settingsChangedPending = true
+    }
+    triggerRefresh()
+  }
+
+  private fun refresh() {
+    val modules: Set<Module>
+    val refreshAll: Boolean
+    val settingsChanged: Boolean
+    synchronized(pendingModules) {
+      refreshAll = refreshAllPending
+      settingsChanged = settingsChangedPending
+      modules = pendingModules.toSet()
+      refreshAllPending = false
+      settingsChangedPending = false
+      pendingModules.clear()
+    }
+    if (project.isDisposed) {
+      return
+    }
+    val branchChangedForOpenFiles = modules.isNotEmpty() && project.getOpenFiles().any { findModuleForFile(it, project) in modules }
+    if (refreshAll || branchChangedForOpenFiles) {
+      // opening or closing editors does not change the hotspots of the other files, no need to highlight them again
+      getService(project, SecurityHotspotsPresenter::class.java)
+        .presentSecurityHotspotsForOpenFiles(settingsChanged || branchChangedForOpenFiles)
+    }
+  }
+
+  override fun dispose() {
+    getService(AnalysisScheduler::class.java).cancelDebounced(debounceKey)
   }
 
 }
@@ -23,6 +23,7 @@ import com.intellij.openapi.module.Module
 import java.time.Instant
 import java.util.Collections
 import java.util.UUID
+import org.sonarlint.intellij.finding.FindingStateVersion
 import org.sonarlint.intellij.finding.Flow
 import org.sonarlint.intellij.finding.Issue
 import org.sonarlint.intellij.finding.Location
@@ -53,10 +54,12 @@ class LocalTaintVulnerability(val module: Module?, private val primaryLocation:
     override fun getId(): UUID = remoteTaintVulnerability.id
     override fun resolve() {
         resolved = true
+        FindingStateVersion.increment()
     }
 
     override fun reopen() {
         resolved = false
+        FindingStateVersion.increment()
     }
 
     override fun getCleanCodeAttribute(): CleanCodeAttribute? =
@@ -23,35 +23,72 @@ import com.intellij.openapi.components.Service
 import com.intellij.openapi.project.Project
 import com.intellij.openapi.vfs.VirtualFile
 import java.util.UUID
+import java.util.concurrent.ConcurrentHashMap
 import org.sonarlint.intellij.cayc.CleanAsYouCodeService
 import org.sonarlint.intellij.common.util.SonarLintUtils.getService
 
 @Service(Service.Level.PROJECT)
 class TaintVulnerabilitiesCache(val project: Project) {
     private var isResolvedState = false
-    var taintVulnerabilities: List<LocalTaintVulnerability> = emptyList()
 
+    /**
+     * The indexes are only modified in place while holding the lock, so an update costs the size of the change rather than
+     * the size of the cache. The annotator looks vulnerabilities up by file on each daemon pass without taking the lock: each
+     * per-file list is immutable and is replaced when the vulnerabilities of its file change.
+     */
+    private val byServerKey = LinkedHashMap<String, LocalTaintVulnerability>()
+    private val byId = HashMap<UUID, LocalTaintVulnerability>()
+    private var taintVulnerabilitiesList: List<LocalTaintVulnerability>? = emptyList()
+
+    @Volatile
+    private var byFile = ConcurrentHashMap<VirtualFile, List<LocalTaintVulnerability>>()
+
+    var taintVulnerabilities: List<LocalTaintVulnerability>
+        @Synchronized get() = taintVulnerabilitiesList ?: byServerKey.values.toList().also { taintVulnerabilitiesList = it }
+        @Synchronized set(value) {
+            byServerKey.clear()
+            byId.clear()
+            value.forEach { byServerKey[it.key()] = it }
+            byServerKey.values.associateByTo(byId) { it.getId() }
+            byFile = ConcurrentHashMap(byServerKey.values.filter { it.file() != null }.groupBy { it.file()!! })
+            taintVulnerabilitiesList = null
+        }
+
+    @Synchronized
     fun update(taintVulnerabilityIdsToRemove: Set<UUID>, taintVulnerabilitiesToAdd: List<LocalTaintVulnerability>, taintVulnerabilitiesToUpdate: List<LocalTaintVulnerability>) {
-        val currentTaintVulnerabilities = taintVulnerabilities.toMutableList()
-        currentTaintVulnerabilities.removeAll { it.getId() in taintVulnerabilityIdsToRemove }
-        currentTaintVulnerabilities.addAll(taintVulnerabilitiesToAdd)
-        val updatedTaintVulnerabilityKeys = taintVulnerabilitiesToUpdate.map { updatedTaint -> updatedTaint.getServerKey() }
-        currentTaintVulnerabilities.removeAll { it.getServerKey() in updatedTaintVulnerabilityKeys }
-        currentTaintVulnerabilities.addAll(taintVulnerabilitiesToUpdate)
-        taintVulnerabilities = currentTaintVulnerabilities
+        val removed = ArrayList<LocalTaintVulnerability>()
+        val added = ArrayList<LocalTaintVulnerability>()
+
+        fun removeExisting(existing: LocalTaintVulnerability?) {
+            existing ?: return
+            byServerKey.remove(existing.key())
+            byId.remove(existing.getId())
+            removed.add(existing)
+        }
+
+        fun add(taintVulnerability: LocalTaintVulnerability) {
+            removeExisting(byServerKey[taintVulnerability.key()])
+            byServerKey[taintVulnerability.key()] = taintVulnerability
+            byId[taintVulnerability.getId()] = taintVulnerability
+            added.add(taintVulnerability)
+        }
+
+        taintVulnerabilityIdsToRemove.forEach { removeExisting(byId[it]) }
+        taintVulnerabilitiesToAdd.forEach { add(it) }
+        taintVulnerabilitiesToUpdate.forEach { add(it) }
+        applyChanges(removed, added)
     }
 
+    @Synchronized
     fun remove(taintVulnerabilityToRemove: LocalTaintVulnerability): Boolean {
-        val currentTaintVulnerabilities = taintVulnerabilities.toMutableList()
-        val removed = currentTaintVulnerabilities.removeIf { currentVulnerability -> currentVulnerability.getServerKey() == taintVulnerabilityToRemove.getServerKey() }
-        if (removed) {
-            taintVulnerabilities = currentTaintVulnerabilities
-        }
-        return removed
+        val existing = byServerKey.remove(taintVulnerabilityToRemove.getServerKey()) ?: return false
+        byId.remove(existing.getId())
+        applyChanges(listOf(existing), emptyList())
+        return true
     }
 
-    fun getTaintVulnerabilitiesForFile(file: VirtualFile) : List<LocalTaintVulnerability> {
-        return taintVulnerabilities.filter { it.file() == file }
+    fun getTaintVulnerabilitiesForFile(file: VirtualFile): List<LocalTaintVulnerability> {
+        return byFile[file] ?: emptyList()
     }
 
     @JvmOverloads
@@ -60,4 +97,26 @@ class TaintVulnerabilitiesCache(val project: Project) {
         isResolved?.let { isResolvedState = it }
         return taintVulnerabilities.count { (isResolvedState || !it.isResolved()) && (!isFocusOnNewCode || it.isOnNewCode()) }
     }
+
+    /**
+     * Only the per-file lists of the files having removed or added vulnerabilities are rebuilt.
+     */
+    private fun applyChanges(removed: Collection<LocalTaintVulnerability>, added: Collection<LocalTaintVulnerability>) {
+        if (removed.isEmpty() && added.isEmpty()) {
+            return
+        }
+        taintVulnerabilitiesList = null
+        val removedByFile = removed.filter { it.file() != null }.groupBy { it.file()!! }
+        // a vulnerability added then replaced within the same update is not part of the cache
+        val addedByFile = added.filter { it.file() != null && byServerKey[it.key()] === it }.groupBy { it.file()!! }
+        (removedByFile.keys + addedByFile.keys).forEach { file ->
+            val removedInFile = removedByFile[file].orEmpty().toSet()
+            val fileVulnerabilities = byFile[file].orEmpty().filter { it !in removedInFile } + addedByFile[file].orEmpty()
+            if (fileVulnerabilities.isEmpty()) {
+                byFile.remove(file)
+            } else {
+                byFile[file] = fileVulnerabilities
+            }
+        }
+    }
 }
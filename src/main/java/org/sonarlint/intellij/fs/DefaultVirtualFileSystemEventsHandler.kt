@@ -20,6 +20,7 @@
 package org.sonarlint.intellij.fs
 
 import com.intellij.openapi.Disposable
+import com.intellij.openapi.application.ReadAction
 import com.intellij.openapi.module.Module
 import com.intellij.openapi.project.Project
 import com.intellij.openapi.project.ProjectCoreUtil
@@ -30,6 +31,7 @@ import com.intellij.openapi.vfs.newvfs.events.VFileEvent
 import com.intellij.serviceContainer.NonInjectable
 import java.util.concurrent.ExecutorService
 import java.util.concurrent.Executors
+import org.sonarlint.intellij.analysis.AnalysisDurationTracker
 import org.sonarlint.intellij.common.util.FileUtils
 import org.sonarlint.intellij.common.util.SonarLintUtils.getService
 import org.sonarlint.intellij.core.BackendService
@@ -51,12 +53,19 @@ open class DefaultVirtualFileSystemEventsHandler @NonInjectable constructor(priv
         events: List<VFileEvent>,
         eventTypeConverter: (VFileEvent) -> ModuleFileEvent.Type?,
     ) {
-        
         val openProjects = ProjectManager.getInstance().openProjects.filter { !it.isDisposed }.toList()
         val filesByModule = fileEventsByModules(events, openProjects, eventTypeConverter)
-        val allFilesByModule = filesByModule.entries.associate { it.key to it.value.toList() }
-        if (allFilesByModule.isNotEmpty()) {
-            getService(BackendService::class.java).updateFileSystem(allFilesByModule)
+        if (filesByModule.isNotEmpty()) {
+            forgetDeletedFiles(filesByModule)
+            getService(BackendService::class.java).updateFileSystem(filesByModule)
+        }
+    }
+
+    private fun forgetDeletedFiles(filesByModule: Map<Module, List<VirtualFileEvent>>) {
+        filesByModule.forEach { (module, events) ->
+            if (module.isDisposed) return@forEach
+            val durationTracker = getService(module.project, AnalysisDurationTracker::class.java)
+            events.filter { it.type == ModuleFileEvent.Type.DELETED }.forEach { durationTracker.forget(it.virtualFile) }
         }
     }
 
@@ -65,39 +74,93 @@ open class DefaultVirtualFileSystemEventsHandler @NonInjectable constructor(priv
         openProjects: List<Project>,
         eventTypeConverter: (VFileEvent) -> ModuleFileEvent.Type?,
     ): Map<Module, List<VirtualFileEvent>> {
-        val map: MutableMap<Module, List<VirtualFileEvent>> = mutableMapOf()
+        val builder = ModuleEventsBuilder(openProjects)
+        val (directoryEvents, fileEvents) = involvedFiles(events, eventTypeConverter).partition { it.virtualFile.isDirectory }
+        fileEvents.chunked(EVENTS_PER_READ_ACTION).forEach { chunk ->
+            runReadAction { chunk.forEach { builder.addFile(it) } }
+        }
+        // each directory is visited in its own read action, as its content can be large
+        directoryEvents.forEach { event -> runReadAction { builder.addDirectory(event) } }
+        return builder.build()
+    }
+
+    /**
+     * Converts the raw events, removes duplicates and events already covered by an event of the same type on a parent directory.
+     */
+    private fun involvedFiles(events: List<VFileEvent>, eventTypeConverter: (VFileEvent) -> ModuleFileEvent.Type?): Collection<VirtualFileEvent> {
+        val uniqueEvents = LinkedHashSet<VirtualFileEvent>()
         for (event in events) {
+            val type = eventTypeConverter(event) ?: continue
             // call event.file only once as it can be hurting performance
             val file = event.file ?: continue
             if (ProjectCoreUtil.isProjectOrWorkspaceFile(file)) continue
-            val fileModule = findModule(file, openProjects) ?: continue
-            if (!FileUtils.Companion.isFileValidForSonarLintWithExtensiveChecks(file, fileModule.project)) continue
             val fileInvolved = if (event is VFileCopyEvent) event.findCreatedFile() else file
             fileInvolved ?: continue
-            val type = eventTypeConverter(event) ?: continue
-            val moduleEvents = map[fileModule] ?: emptyList()
-            map[fileModule] = moduleEvents + allEventsFor(fileInvolved, fileModule, type)
+            uniqueEvents.add(VirtualFileEvent(type, fileInvolved))
+        }
+        val directoriesByType = uniqueEvents.filter { it.virtualFile.isDirectory }.groupBy({ it.type }, { it.virtualFile }).mapValues { it.value.toSet() }
+        if (directoriesByType.isEmpty()) {
+            return uniqueEvents
+        }
+        return uniqueEvents.filter { event ->
+            val directories = directoriesByType[event.type] ?: return@filter true
+            generateSequence(event.virtualFile.parent) { it.parent }.none { it in directories }
         }
-        return map
     }
 
-    private fun allEventsFor(
-        file: VirtualFile,
-        fileModule: Module,
-        type: ModuleFileEvent.Type,
-    ): List<VirtualFileEvent> {
-        return visitAndAddAllChildren(file, fileModule.project).mapNotNull { VirtualFileEvent(type, it) }
+    private fun runReadAction(action: () -> Unit) {
+        ReadAction.run<RuntimeException> { action() }
     }
 
-    private fun findModule(file: VirtualFile?, openProjects: List<Project>): Module? {
-        file ?: return null
-        return openProjects.asSequence()
-            .filter { !it.isDisposed }
-            .map { findModuleForFile(file, it) }
-            .find { it != null }
+    /**
+     * Accumulates events per module, resolving the module of the files of a same directory only once.
+     * Must be used within a read action.
+     */
+    private class ModuleEventsBuilder(private val openProjects: List<Project>) {
+        private val eventsByModule = mutableMapOf<Module, MutableList<VirtualFileEvent>>()
+        private val moduleByDirectory = HashMap<VirtualFile, Module?>()
+
+        fun addFile(event: VirtualFileEvent) {
+            val module = findModule(event.virtualFile) ?: return
+            if (!FileUtils.Companion.isFileValidForSonarLintWithExtensiveChecks(event.virtualFile, module.project)) return
+            eventsByModule.getOrPut(module) { mutableListOf() }.add(event)
+        }
+
+        fun addDirectory(event: VirtualFileEvent) {
+            val module = findModule(event.virtualFile) ?: return
+            if (!FileUtils.Companion.isFileValidForSonarLintWithExtensiveChecks(event.virtualFile, module.project)) return
+            val moduleEvents = eventsByModule.getOrPut(module) { mutableListOf() }
+            visitAndAddAllChildren(event.virtualFile, module.project).forEach { moduleEvents.add(VirtualFileEvent(event.type, it)) }
+        }
+
+        fun build(): Map<Module, List<VirtualFileEvent>> = eventsByModule.filterValues { it.isNotEmpty() }
+
+        private fun findModule(file: VirtualFile): Module? {
+            val directory = file.parent
+            if (file.isDirectory || directory == null) {
+                return findModuleInOpenProjects(file)
+            }
+            // files of a same directory belong to the same module
+            if (!moduleByDirectory.containsKey(directory)) {
+                moduleByDirectory[directory] = findModuleInOpenProjects(file)
+            }
+            return moduleByDirectory[directory]
+        }
+
+        private fun findModuleInOpenProjects(file: VirtualFile): Module? {
+            return openProjects.asSequence()
+                .filter { !it.isDisposed }
+                .map { findModuleForFile(file, it) }
+                .find { it != null }
+        }
     }
 
     override fun dispose() {
         executorService.shutdownNow()
     }
+
+    companion object {
+        // keep read actions short enough to not delay write actions too much
+        private const val EVENTS_PER_READ_ACTION = 500
+    }
 }
@@ -29,19 +29,18 @@ import com.intellij.openapi.module.Module
 import com.intellij.openapi.project.Project
 import com.intellij.openapi.project.ProjectLocator
 import com.intellij.openapi.vfs.VirtualFile
-import java.time.Duration
 import org.sonarlint.intellij.common.util.FileUtils
 import org.sonarlint.intellij.common.util.SonarLintUtils.getService
 import org.sonarlint.intellij.core.BackendService
-import org.sonarlint.intellij.util.Alarm
+import org.sonarlint.intellij.trigger.AnalysisScheduler
+import org.sonarlint.intellij.trigger.DebouncePolicy
 import org.sonarlint.intellij.util.SonarLintAppUtils.findModuleForFile
 import org.sonarsource.sonarlint.plugin.api.module.file.ModuleFileEvent
 
-const val DEBOUNCE_DELAY_MS = 1000L
+private const val DEBOUNCE_KEY = "editor-changes-notifier"
 
 @Service(Service.Level.APP)
 class EditorFileChangeListener : BulkAwareDocumentListener.Simple, Disposable {
-    private val triggerAlarm = Alarm("sonarlint-editor-changes-notifier", Duration.ofMillis(DEBOUNCE_DELAY_MS)) { notifyPendingChanges() }
     private val changedFiles = LinkedHashSet<VirtualFile>()
 
     fun startListening() {
@@ -52,7 +51,7 @@ class EditorFileChangeListener : BulkAwareDocumentListener.Simple, Disposable {
         val virtualFile = FileDocumentManager.getInstance().getFile(document) ?: return
         synchronized(changedFiles) {
             changedFiles.add(virtualFile)
-            triggerAlarm.reset()
+            getService(AnalysisScheduler::class.java).debounce(DEBOUNCE_KEY, DebouncePolicy.FILE_SYSTEM_CHANGE) { notifyPendingChanges() }
         }
     }
 
@@ -91,7 +90,9 @@ class EditorFileChangeListener : BulkAwareDocumentListener.Simple, Disposable {
     }
 
     override fun dispose() {
-        changedFiles.clear()
-        triggerAlarm.shutdown()
+        synchronized(changedFiles) {
+            changedFiles.clear()
+        }
+        getService(AnalysisScheduler::class.java).cancelDebounced(DEBOUNCE_KEY)
     }
 }
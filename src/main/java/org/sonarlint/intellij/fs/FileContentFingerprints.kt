@@ -0,0 +1,97 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.fs
+
+import com.intellij.openapi.components.Service
+import com.intellij.openapi.fileEditor.FileDocumentManager
+import com.intellij.openapi.util.io.FileUtilRt
+import com.intellij.openapi.vfs.VirtualFile
+import java.net.URI
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Remembers which version of each file was last sent to the backend, so that file system updates only carry the files
+ * that actually changed. The content itself is only sent inline when it cannot be read from the disk by the backend,
+ * i.e. when the document has unsaved modifications. Otherwise the backend reads it lazily from the file path.
+ */
+@Service(Service.Level.APP)
+class FileContentFingerprints {
+
+    /**
+     * Keyed by URI first, so that forgetting a file does not go through all the files
+     */
+    private val lastSentByUri = ConcurrentHashMap<URI, ConcurrentHashMap<String, ContentFingerprint>>()
+
+    /**
+     * Must be called within a read action.
+     */
+    fun fingerprint(file: VirtualFile): ContentFingerprint {
+        val documentManager = FileDocumentManager.getInstance()
+        if (documentManager.isFileModified(file)) {
+            documentManager.getCachedDocument(file)?.let { return ContentFingerprint(it.modificationStamp, true) }
+        }
+        return ContentFingerprint(file.modificationStamp, false)
+    }
+
+    /**
+     * Returns true if the backend was already given this version of the file for the configuration scope.
+     */
+    fun isUpToDate(uri: URI, configScopeId: String, fingerprint: ContentFingerprint): Boolean {
+        return lastSentByUri[uri]?.get(configScopeId) == fingerprint
+    }
+
+    fun sent(uri: URI, configScopeId: String, fingerprint: ContentFingerprint) {
+        lastSentByUri.compute(uri) { _, byScope -> (byScope ?: ConcurrentHashMap()).also { it[configScopeId] = fingerprint } }
+    }
+
+    fun forget(uri: URI) {
+        lastSentByUri.remove(uri)
+    }
+
+    fun forgetScope(configScopeId: String) {
+        lastSentByUri.keys.forEach { uri ->
+            lastSentByUri.computeIfPresent(uri) { _, byScope ->
+                byScope.remove(configScopeId)
+                if (byScope.isEmpty()) null else byScope
+            }
+        }
+    }
+
+    fun clear() {
+        lastSentByUri.clear()
+    }
+
+    data class ContentFingerprint(val modificationStamp: Long, val unsaved: Boolean) {
+        /**
+         * Content to embed in the file DTO: only unsaved documents need to be sent, the backend reads the others from the disk.
+         */
+        fun contentToSend(file: VirtualFile, contentProvider: (VirtualFile) -> String): String? {
+            if (!unsaved && !INLINE_CONTENT) {
+                return null
+            }
+            return if (FileUtilRt.isTooLarge(file.length)) null else contentProvider(file)
+        }
+    }
+
+    companion object {
+        // Restores the previous behavior of always embedding the file content in the file system updates
+        private val INLINE_CONTENT = System.getProperty("sonarlint.fs.content.inline", "false").toBoolean()
+    }
+}
@@ -41,6 +41,7 @@ import com.intellij.pom.java.LanguageLevel;
 import java.io.File;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -53,6 +54,7 @@ import org.sonarlint.intellij.common.analysis.AnalysisConfigurator;
 import org.sonarlint.intellij.common.ui.SonarLintConsole;
 
 import static org.sonarlint.intellij.common.ui.ReadActionUtils.computeReadActionSafely;
+import static org.sonarlint.intellij.common.util.SonarLintUtils.getService;
 import static org.sonarlint.intellij.common.util.SonarLintUtils.isEmpty;
 
 public class JavaAnalysisConfigurator implements AnalysisConfigurator {
@@ -71,19 +73,25 @@ public class JavaAnalysisConfigurator implements AnalysisConfigurator {
   @Override
   public AnalysisConfiguration configure(@NotNull Module ijModule, Collection<VirtualFile> filesToAnalyze) {
     var config = new AnalysisConfiguration();
+    var properties = config.extraProperties;
+    properties.putAll(getService(ijModule.getProject(), JavaClasspathCache.class).getClasspathProperties(ijModule, JavaAnalysisConfigurator::computeClasspathProperties));
+    configureJavaSourceTarget(ijModule, properties);
+    return config;
+  }
+
+  private static Map<String, String> computeClasspathProperties(Module ijModule) {
     var moduleClasspath = new JavaModuleClasspath();
     moduleClasspath.dependentModules().add(ijModule);
     collectModuleClasspath(moduleClasspath, ijModule, true, false);
-    var properties = config.extraProperties;
+    var properties = new HashMap<String, String>();
     setMultiValuePropertyIfNonEmpty(properties, JAVA_LIBRARIES_PROPERTY, moduleClasspath.libraries());
     setMultiValuePropertyIfNonEmpty(properties, JAVA_TEST_LIBRARIES_PROPERTY, moduleClasspath.testLibraries());
     setMultiValuePropertyIfNonEmpty(properties, JAVA_BINARIES_PROPERTY, moduleClasspath.binaries());
     setMultiValuePropertyIfNonEmpty(properties, JAVA_TEST_BINARIES_PROPERTY, moduleClasspath.testBinaries());
-    configureJavaSourceTarget(ijModule, properties);
     if (moduleClasspath.getJdkHome() != null) {
       properties.put(JAVA_JDK_HOME_PROPERTY, moduleClasspath.getJdkHome());
     }
-    return config;
+    return properties;
   }
 
   private static void setMultiValuePropertyIfNonEmpty(Map<String, String> properties, String propKey, Set<String> values) {
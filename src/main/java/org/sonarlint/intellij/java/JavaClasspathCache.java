@@ -0,0 +1,170 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.java;
+
+import com.intellij.compiler.server.BuildManagerListener;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.compiler.CompilationStatusListener;
+import com.intellij.openapi.compiler.CompileContext;
+import com.intellij.openapi.compiler.CompilerTopics;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.externalSystem.model.task.ExternalSystemTaskId;
+import com.intellij.openapi.externalSystem.model.task.ExternalSystemTaskNotificationListenerAdapter;
+import com.intellij.openapi.externalSystem.service.notification.ExternalSystemProgressNotificationManager;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.projectRoots.ProjectJdkTable;
+import com.intellij.openapi.projectRoots.Sdk;
+import com.intellij.openapi.roots.ModuleRootEvent;
+import com.intellij.openapi.roots.ModuleRootListener;
+import com.intellij.openapi.roots.libraries.Library;
+import com.intellij.openapi.roots.libraries.LibraryTable;
+import com.intellij.openapi.roots.libraries.LibraryTablesRegistrar;
+import com.intellij.task.ProjectTaskListener;
+import com.intellij.task.ProjectTaskManager;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.jetbrains.annotations.NotNull;
+import org.sonarlint.intellij.analysis.AnalysisSettingsTracker;
+
+import static org.sonarlint.intellij.common.util.SonarLintUtils.getService;
+
+/**
+ * Keeps the classpath related analysis properties of each module, so that they are not recomputed for every analysis.
+ * The whole cache is dropped when the module roots, the libraries or the SDKs change, and after each compilation or build
+ * (including the ones delegated to Gradle or Maven) since compiler outputs are only part of the classpath once they exist.
+ */
+@Service(Service.Level.PROJECT)
+public final class JavaClasspathCache implements Disposable {
+
+  private final Map<Module, Map<String, String>> classpathPropertiesByModule = new ConcurrentHashMap<>();
+  private final AtomicLong generation = new AtomicLong();
+  private final Project project;
+
+  public JavaClasspathCache(Project project) {
+    this.project = project;
+    var busConnection = project.getMessageBus().connect(this);
+    busConnection.subscribe(ModuleRootListener.TOPIC, new ModuleRootListener() {
+      @Override
+      public void rootsChanged(@NotNull ModuleRootEvent event) {
+        classpathChanged();
+      }
+    });
+    busConnection.subscribe(ProjectJdkTable.JDK_TABLE_TOPIC, new ProjectJdkTable.Listener() {
+      @Override
+      public void jdkAdded(@NotNull Sdk jdk) {
+        classpathChanged();
+      }
+
+      @Override
+      public void jdkRemoved(@NotNull Sdk jdk) {
+        classpathChanged();
+      }
+
+      @Override
+      public void jdkNameChanged(@NotNull Sdk jdk, @NotNull String previousName) {
+        classpathChanged();
+      }
+    });
+    busConnection.subscribe(CompilerTopics.COMPILATION_STATUS, new CompilationStatusListener() {
+      @Override
+      public void compilationFinished(boolean aborted, int errors, int warnings, @NotNull CompileContext compileContext) {
+        classpathChanged();
+      }
+    });
+    busConnection.subscribe(ProjectTaskListener.TOPIC, new ProjectTaskListener() {
+      @Override
+      public void finished(@NotNull ProjectTaskManager.Result result) {
+        classpathChanged();
+      }
+    });
+    ApplicationManager.getApplication().getMessageBus().connect(this).subscribe(BuildManagerListener.TOPIC, new BuildManagerListener() {
+      @Override
+      public void buildFinished(@NotNull Project builtProject, @NotNull UUID sessionId, boolean isAutomake) {
+        if (builtProject.equals(project)) {
+          classpathChanged();
+        }
+      }
+    });
+    ExternalSystemProgressNotificationManager.getInstance().addNotificationListener(new ExternalSystemTaskNotificationListenerAdapter() {
+      @Override
+      public void onEnd(@NotNull ExternalSystemTaskId id) {
+        if (project.equals(id.findProject())) {
+          classpathChanged();
+        }
+      }
+    }, this);
+    var librariesListener = new LibraryTable.Listener() {
+      @Override
+      public void afterLibraryAdded(@NotNull Library newLibrary) {
+        classpathChanged();
+      }
+
+      @Override
+      public void afterLibraryRenamed(@NotNull Library library, String oldName) {
+        classpathChanged();
+      }
+
+      @Override
+      public void afterLibraryRemoved(@NotNull Library library) {
+        classpathChanged();
+      }
+    };
+    LibraryTablesRegistrar.getInstance().getLibraryTable(project).addListener(librariesListener, this);
+    LibraryTablesRegistrar.getInstance().getLibraryTable().addListener(librariesListener, this);
+  }
+
+  public Map<String, String> getClasspathProperties(Module module, Function<Module, Map<String, String>> computeProperties) {
+    var properties = classpathPropertiesByModule.get(module);
+    if (properties != null) {
+      return properties;
+    }
+    var generationBeforeComputation = generation.get();
+    properties = Map.copyOf(computeProperties.apply(module));
+    if (!module.isDisposed()) {
+      classpathPropertiesByModule.put(module, properties);
+      // do not keep a result that might have been computed from a configuration that changed in the meantime
+      if (generation.get() != generationBeforeComputation) {
+        classpathPropertiesByModule.remove(module, properties);
+      }
+    }
+    return properties;
+  }
+
+  private void classpathChanged() {
+    invalidate();
+    // findings computed with the previous classpath can't be reused
+    getService(project, AnalysisSettingsTracker.class).settingsChanged();
+  }
+
+  public void invalidate() {
+    generation.incrementAndGet();
+    classpathPropertiesByModule.clear();
+  }
+
+  @Override
+  public void dispose() {
+    invalidate();
+  }
+}
@@ -20,15 +20,15 @@
 package org.sonarlint.intellij.progress
 
 import com.intellij.openapi.application.ApplicationManager
-import com.intellij.openapi.progress.EmptyProgressIndicator
+import com.intellij.openapi.application.ModalityState
 import com.intellij.openapi.progress.PerformInBackgroundOption
 import com.intellij.openapi.progress.ProgressIndicator
-import com.intellij.openapi.progress.ProgressManager
 import com.intellij.openapi.progress.Task
+import com.intellij.openapi.progress.impl.BackgroundableProcessIndicator
+import com.intellij.openapi.progress.util.ProgressIndicatorBase
 import com.intellij.openapi.project.Project
 import java.util.concurrent.CompletableFuture
 import java.util.concurrent.ConcurrentHashMap
-import java.util.concurrent.atomic.AtomicBoolean
 import org.sonarlint.intellij.core.BackendService
 import org.sonarlint.intellij.util.GlobalLogOutput
 import org.sonarsource.sonarlint.core.client.utils.ClientLogOutput
@@ -36,7 +36,7 @@ import org.sonarsource.sonarlint.core.rpc.protocol.client.progress.ProgressUpdat
 import org.sonarsource.sonarlint.core.rpc.protocol.client.progress.StartProgressParams
 
 class BackendTaskProgressReporter {
-    private val taskPool = ConcurrentHashMap<String, AwaitingBackgroundTask>()
+    private val taskPool = ConcurrentHashMap<String, BackendProgressTask>()
 
     fun startTask(params: StartProgressParams): CompletableFuture<Void> {
         val taskId = params.taskId
@@ -49,18 +49,11 @@ class BackendTaskProgressReporter {
             BackendService.findModule(it)?.project
                 ?: BackendService.findProject(it)
         }
-        val taskStartedFuture = CompletableFuture<Void>()
-        val task = AwaitingBackgroundTask(project, params, taskStartedFuture, onCompletion = {
+        val task = BackendProgressTask(project, params, onCompletion = {
             taskPool.remove(taskId)
         })
         taskPool[taskId] = task
-        if (ApplicationManager.getApplication().isUnitTestMode) {
-            // in headless mode the task is run on the same thread, run on a pooled thread instead
-            ProgressManager.getInstance().runProcessWithProgressAsynchronously(task, EmptyProgressIndicator())
-        } else {
-            task.queue()
-        }
-        return taskStartedFuture
+        return task.start()
     }
 
     fun updateProgress(taskId: String, notification: ProgressUpdateNotification) {
@@ -82,39 +75,49 @@ class BackendTaskProgressReporter {
     }
 }
 
-private class AwaitingBackgroundTask(
-    project: Project?,
+/**
+ * Displays the progress of a task running in the backend. No thread is held while it runs: the indicator is started when the
+ * task is reported and stopped when the backend completes it or when the user cancels it.
+ */
+private class BackendProgressTask(
+    private val project: Project?,
     private val params: StartProgressParams,
-    private val taskStartedFuture: CompletableFuture<Void>,
     private val onCompletion: () -> Unit,
-) :
-    Task.Backgroundable(project, params.title, params.isCancellable, PerformInBackgroundOption.ALWAYS_BACKGROUND) {
-    var progressIndicator: ProgressIndicator? = null
-    private val waitMonitor = Object()
-    private val complete = AtomicBoolean(false)
+) {
+    private var progressIndicator: ProgressIndicator? = null
+    private var completed = false
 
-    override fun run(indicator: ProgressIndicator) {
-        progressIndicator = indicator
-        progressIndicator!!.isIndeterminate = params.isIndeterminate
-        params.message?.let { progressIndicator!!.text = it }
-        taskStartedFuture.complete(null)
-        while (!complete.get()) {
-            try {
-                synchronized(waitMonitor) {
-                    waitMonitor.wait(60 * 1000)
+    fun start(): CompletableFuture<Void> {
+        val started = CompletableFuture<Void>()
+        if (ApplicationManager.getApplication().isUnitTestMode) {
+            // there is no status bar to display the progress in
+            start(ProgressIndicatorBase())
+            started.complete(null)
+        } else {
+            // the indicator registers itself in the status bar, which can only be done on the EDT
+            ApplicationManager.getApplication().invokeLater({
+                if (project == null || !project.isDisposed) {
+                    start(CancellableIndicator(project, params))
                 }
-            } catch (e: InterruptedException) {
-                complete.set(true)
-            }
+                started.complete(null)
+            }, ModalityState.any())
         }
-        onCompletion()
+        return started
     }
 
+    @Synchronized
+    private fun start(indicator: ProgressIndicator) {
+        if (completed) {
+            return
+        }
+        indicator.isIndeterminate = params.isIndeterminate
+        params.message?.let { indicator.text = it }
+        indicator.start()
+        progressIndicator = indicator
+    }
 
+    @Synchronized
     fun updateProgress(notification: ProgressUpdateNotification) {
-        synchronized(waitMonitor) {
-            waitMonitor.notify()
-        }
         notification.percentage?.let { percentage ->
             progressIndicator?.let {
                 if (it.isIndeterminate) {
@@ -126,10 +129,36 @@ private class AwaitingBackgroundTask(
         notification.message?.let { message -> progressIndicator?.text = message }
     }
 
+    @Synchronized
     fun complete() {
-        complete.set(true)
-        synchronized(waitMonitor) {
-            waitMonitor.notify()
+        if (completed) {
+            return
+        }
+        completed = true
+        progressIndicator?.let {
+            if (it.isRunning) {
+                it.stop()
+            }
+        }
+        progressIndicator = null
+        onCompletion()
+    }
+
+    private inner class CancellableIndicator(project: Project?, params: StartProgressParams) :
+        BackgroundableProcessIndicator(DescriptionOnlyTask(project, params)) {
+        override fun cancel() {
+            super.cancel()
+            complete()
+        }
+    }
+
+    /**
+     * Only describes the indicator (title, cancellable), it is never run.
+     */
+    private class DescriptionOnlyTask(project: Project?, params: StartProgressParams) :
+        Task.Backgroundable(project, params.title, params.isCancellable, PerformInBackgroundOption.ALWAYS_BACKGROUND) {
+        override fun run(indicator: ProgressIndicator) {
+            // Nothing to do
         }
     }
 }
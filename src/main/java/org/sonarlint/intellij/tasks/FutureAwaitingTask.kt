@@ -25,8 +25,7 @@ import com.intellij.openapi.project.Project
 import java.util.concurrent.CancellationException
 import java.util.concurrent.CompletableFuture
 import java.util.concurrent.ExecutionException
-import java.util.concurrent.TimeUnit
-import java.util.concurrent.TimeoutException
+import org.sonarlint.intellij.util.ProgressUtils.awaitCompletion
 
 open class FutureAwaitingTask<T>(
     project: Project,
@@ -39,22 +38,18 @@ open class FutureAwaitingTask<T>(
     }
 
     private fun waitForFuture(indicator: ProgressIndicator, future: CompletableFuture<T>): T? {
-        while (true) {
-            if (indicator.isCanceled) {
-                future.cancel(true)
-                return null
-            }
-            return try {
-                future.get(100, TimeUnit.MILLISECONDS)
-            } catch (_: TimeoutException) {
-                continue
-            } catch (_: InterruptedException) {
-                throw InterruptedException("Interrupted")
-            } catch (_: CancellationException) {
-                throw InterruptedException("Operation cancelled")
-            } catch (e: ExecutionException) {
-                throw e.cause ?: e
-            }
+        if (!awaitCompletion(indicator, future)) {
+            future.cancel(true)
+            return null
+        }
+        return try {
+            future.get()
+        } catch (_: InterruptedException) {
+            throw InterruptedException("Interrupted")
+        } catch (_: CancellationException) {
+            throw InterruptedException("Operation cancelled")
+        } catch (e: ExecutionException) {
+            throw e.cause ?: e
         }
     }
 }
@@ -0,0 +1,232 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.trigger
+
+import com.intellij.openapi.Disposable
+import com.intellij.openapi.components.Service
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.vfs.VirtualFile
+import java.time.Duration
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledFuture
+import java.util.concurrent.TimeUnit
+import org.sonarlint.intellij.analysis.AnalysisDurationTracker
+import org.sonarlint.intellij.analysis.AnalysisSubmitter
+import org.sonarlint.intellij.analysis.RunningAnalysesTracker
+import org.sonarlint.intellij.common.ui.SonarLintConsole
+import org.sonarlint.intellij.common.util.SonarLintUtils.getService
+import org.sonarlint.intellij.config.Settings
+import org.sonarlint.intellij.util.runOnPooledThread
+
+/**
+ * Application-wide scheduler shared by all the automatic triggers of all the open projects.
+ * Files notified for the same project are coalesced whatever the trigger they come from, so a file is analyzed once
+ * even if it was both opened and modified before the deadline. A single thread is used to time the deadlines, the work
+ * itself is done on pooled threads.
+ */
+@Service(Service.Level.APP)
+class AnalysisScheduler : Disposable {
+
+    private val executor = Executors.newSingleThreadScheduledExecutor { r ->
+        Thread(r, "sonarlint-analysis-scheduler").apply { isDaemon = true }
+    }
+    private val pendingAnalysesByProject = ConcurrentHashMap<Project, PendingAnalyses>()
+    private val debouncedTasks = ConcurrentHashMap<String, Deadline>()
+
+    fun scheduleAnalysis(project: Project, file: VirtualFile, triggerType: TriggerType, policy: DebouncePolicy) {
+        scheduleAnalysis(project, listOf(file), triggerType, policy)
+    }
+
+    fun scheduleAnalysis(project: Project, files: Collection<VirtualFile>, triggerType: TriggerType, policy: DebouncePolicy) {
+        if (files.isEmpty() || project.isDisposed || !Settings.getGlobalSettings().isAutoTrigger || executor.isShutdown) {
+            return
+        }
+        val pending = pendingAnalysesByProject.computeIfAbsent(project) { PendingAnalyses(it) }
+        pending.add(files, triggerType)
+        pending.schedule(if (DebouncePolicy.ADAPTIVE) pending.adapt(policy, files) else policy)
+    }
+
+    /**
+     * Runs [action] once no other call with the same [key] happened for the duration of the [policy].
+     */
+    fun debounce(key: String, policy: DebouncePolicy, action: Runnable) {
+        if (executor.isShutdown) {
+            return
+        }
+        debouncedTasks.computeIfAbsent(key) { Deadline() }.schedule(policy) { runOnPooledThread(action) }
+    }
+
+    /**
+     * Drops the files pending for [triggerType], the files notified by other triggers are still analyzed.
+     */
+    fun cancelPendingAnalyses(project: Project, triggerType: TriggerType) {
+        pendingAnalysesByProject[project]?.cancel(triggerType)
+    }
+
+    fun cancelDebounced(key: String) {
+        debouncedTasks.remove(key)?.cancel()
+    }
+
+    override fun dispose() {
+        pendingAnalysesByProject.values.forEach { it.cancel() }
+        pendingAnalysesByProject.clear()
+        debouncedTasks.values.forEach { it.cancel() }
+        debouncedTasks.clear()
+        executor.shutdownNow()
+    }
+
+    private inner class Deadline {
+        private var scheduledTask: ScheduledFuture<*>? = null
+        private var deadlineNanos = 0L
+        private var batchStartNanos = 0L
+        // No pending event can be postponed past this point, whatever the events received after it
+        private var latestDeadlineNanos = Long.MAX_VALUE
+        private var generation = 0L
+
+        @Synchronized
+        fun schedule(policy: DebouncePolicy, action: () -> Unit) {
+            val now = System.nanoTime()
+            val current = scheduledTask?.takeUnless { it.isDone }
+            if (current == null) {
+                batchStartNanos = now
+                latestDeadlineNanos = Long.MAX_VALUE
+            }
+            val requestedDeadline = now + policy.delay.toNanos()
+            // An event that postpones the others is itself handled at most after the maximum wait of the batch
+            val latestForEvent = if (policy.restartOnNewEvent) {
+                batchStartNanos + maxOf(DebouncePolicy.MAX_WAIT, policy.delay).toNanos()
+            } else {
+                requestedDeadline
+            }
+            latestDeadlineNanos = minOf(latestDeadlineNanos, latestForEvent)
+            val newDeadline = minOf(requestedDeadline, latestDeadlineNanos)
+            if (current != null && (deadlineNanos == newDeadline || (!policy.restartOnNewEvent && deadlineNanos <= newDeadline))) {
+                // A task is already scheduled early enough, the new event will be handled with it
+                return
+            }
+            current?.cancel(false)
+            deadlineNanos = newDeadline
+            val scheduledGeneration = ++generation
+            scheduledTask = executor.schedule(Runnable { fire(scheduledGeneration, action) }, newDeadline - now, TimeUnit.NANOSECONDS)
+        }
+
+        private fun fire(scheduledGeneration: Long, action: () -> Unit) {
+            synchronized(this) {
+                if (scheduledGeneration != generation) {
+                    // Superseded by a more recent schedule while starting
+                    return
+                }
+                // The action may schedule again, it must not see itself as still pending
+                scheduledTask = null
+            }
+            action()
+        }
+
+        @Synchronized
+        fun cancel() {
+            generation++
+            scheduledTask?.cancel(false)
+            scheduledTask = null
+        }
+    }
+
+    private inner class PendingAnalyses(private val project: Project) {
+        private val deadline = Deadline()
+        // Only the last trigger is kept for a file notified several times before the deadline
+        private val triggerTypeByFile = LinkedHashMap<VirtualFile, TriggerType>()
+        private var lastPolicy: DebouncePolicy? = null
+        private var lastLoggedDelay: Duration? = null
+
+        @Synchronized
+        fun add(files: Collection<VirtualFile>, triggerType: TriggerType) {
+            files.forEach {
+                triggerTypeByFile.remove(it)
+                triggerTypeByFile[it] = triggerType
+            }
+        }
+
+        fun adapt(policy: DebouncePolicy, files: Collection<VirtualFile>): DebouncePolicy {
+            val adapted = policy.adaptedTo(getService(project, AnalysisDurationTracker::class.java).estimate(files))
+            logEffectiveDelay(adapted.delay)
+            return adapted
+        }
+
+        fun schedule(policy: DebouncePolicy) {
+            synchronized(this) {
+                lastPolicy = policy
+            }
+            deadline.schedule(policy) { submit() }
+        }
+
+        private fun submit() {
+            val filesByTriggerType = synchronized(this) {
+                // Files still being analyzed stay pending, they will be submitted once the running analysis is over
+                val runningTracker = getService(project, RunningAnalysesTracker::class.java)
+                val ready = triggerTypeByFile.entries.filter { !DebouncePolicy.ADAPTIVE || !runningTracker.isOnTheFlyAnalysisRunning(it.key) }
+                val grouped = ready.groupBy({ it.value }, { it.key })
+                ready.map { it.key }.forEach { triggerTypeByFile.remove(it) }
+                grouped
+            }
+            rescheduleIfStillPending()
+            if (filesByTriggerType.isEmpty()) {
+                return
+            }
+            runOnPooledThread(project) {
+                filesByTriggerType.forEach { (triggerType, files) ->
+                    getService(project, AnalysisSubmitter::class.java).autoAnalyzeFiles(files, triggerType)
+                }
+            }
+        }
+
+        private fun rescheduleIfStillPending() {
+            val (remainingFiles, policy) = synchronized(this) { triggerTypeByFile.keys.toList() to lastPolicy }
+            if (remainingFiles.isNotEmpty() && policy != null && !project.isDisposed) {
+                schedule(adapt(policy, remainingFiles))
+            }
+        }
+
+        @Synchronized
+        private fun logEffectiveDelay(delay: Duration) {
+            if (delay != lastLoggedDelay) {
+                lastLoggedDelay = delay
+                SonarLintConsole.get(project).debug("Automatic analysis delay is now ${delay.toMillis()} ms")
+            }
+        }
+
+        fun cancel() {
+            deadline.cancel()
+            synchronized(this) {
+                triggerTypeByFile.clear()
+            }
+        }
+
+        fun cancel(triggerType: TriggerType) {
+            val nothingLeft = synchronized(this) {
+                triggerTypeByFile.values.removeIf { it == triggerType }
+                triggerTypeByFile.isEmpty()
+            }
+            if (nothingLeft) {
+                deadline.cancel()
+            }
+        }
+    }
+
+}
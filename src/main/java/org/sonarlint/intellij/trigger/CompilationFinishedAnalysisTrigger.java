@@ -21,11 +21,11 @@ package org.sonarlint.intellij.trigger;
 
 import com.intellij.openapi.compiler.CompilationStatusListener;
 import com.intellij.openapi.compiler.CompileContext;
-import org.sonarlint.intellij.analysis.AnalysisSubmitter;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import java.util.List;
 import org.sonarlint.intellij.common.ui.SonarLintConsole;
 
 import static org.sonarlint.intellij.common.util.SonarLintUtils.getService;
-import static org.sonarlint.intellij.util.ThreadUtilsKt.runOnPooledThread;
 
 public class CompilationFinishedAnalysisTrigger implements CompilationStatusListener {
 
@@ -37,6 +37,7 @@ public class CompilationFinishedAnalysisTrigger implements CompilationStatusList
   public void compilationFinished(boolean aborted, int errors, int warnings, CompileContext compileContext) {
     var compiledProject = compileContext.getProject();
     getService(compiledProject, SonarLintConsole.class).debug("compilation finished");
-    runOnPooledThread(compiledProject, () -> getService(compiledProject, AnalysisSubmitter.class).autoAnalyzeOpenFiles(TriggerType.COMPILATION));
+    var openFiles = FileEditorManager.getInstance(compiledProject).getOpenFiles();
+    getService(AnalysisScheduler.class).scheduleAnalysis(compiledProject, List.of(openFiles), TriggerType.COMPILATION, DebouncePolicy.COMPILATION);
   }
 }
@@ -0,0 +1,77 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.trigger
+
+import java.time.Duration
+
+/**
+ * How long the [AnalysisScheduler] waits before acting on pending events.
+ * When [restartOnNewEvent] is true, each new event postpones the deadline (classic debounce), otherwise events are grouped
+ * and handled at most [delay] after the first one was received.
+ */
+data class DebouncePolicy(val delay: Duration, val restartOnNewEvent: Boolean) {
+
+    /**
+     * Delay to use when the analysis of the notified files is expected to take [estimatedAnalysisDuration]: never shorter
+     * than the configured delay, never longer than [MAX_ADAPTIVE_DELAY].
+     */
+    fun adaptedTo(estimatedAnalysisDuration: Duration): DebouncePolicy {
+        val adaptedDelay = estimatedAnalysisDuration.coerceIn(delay, MAX_ADAPTIVE_DELAY.coerceAtLeast(delay))
+        return if (adaptedDelay == delay) this else copy(delay = adaptedDelay)
+    }
+
+    companion object {
+        /**
+         * When enabled, the automatic analyses wait longer for files that are slow to analyze and are never started on a file
+         * that is still being analyzed.
+         */
+        @JvmField
+        val ADAPTIVE = System.getProperty("sonarlint.analysis.debounce.adaptive", "false").toBoolean()
+
+        @JvmField
+        val MAX_ADAPTIVE_DELAY: Duration = delayFromProperty("sonarlint.analysis.debounce.adaptive.max.ms", 30_000)
+
+        /**
+         * Longest time a pending event can be postponed by events of policies restarting on each new event, e.g. while typing.
+         */
+        @JvmField
+        val MAX_WAIT: Duration = delayFromProperty("sonarlint.analysis.debounce.max.wait.ms", 10_000)
+
+        @JvmField
+        val EDITOR_CHANGE = DebouncePolicy(delayFromProperty("sonarlint.analysis.debounce.change.ms", 2000), true)
+
+        @JvmField
+        val EDITOR_OPEN = DebouncePolicy(delayFromProperty("sonarlint.analysis.debounce.open.ms", 1000), false)
+
+        @JvmField
+        val COMPILATION = DebouncePolicy(delayFromProperty("sonarlint.analysis.debounce.compilation.ms", 200), false)
+
+        @JvmField
+        val FILE_SYSTEM_CHANGE = DebouncePolicy(delayFromProperty("sonarlint.fs.debounce.change.ms", 1000), true)
+
+        @JvmField
+        val SECURITY_HOTSPOTS_REFRESH = DebouncePolicy(delayFromProperty("sonarlint.hotspots.refresh.debounce.ms", 300), false)
+
+        private fun delayFromProperty(propertyName: String, defaultMillis: Long): Duration {
+            val millis = System.getProperty(propertyName)?.toLongOrNull()?.takeIf { it >= 0 } ?: defaultMillis
+            return Duration.ofMillis(millis)
+        }
+    }
+}
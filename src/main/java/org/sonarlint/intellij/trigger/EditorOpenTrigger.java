@@ -47,7 +47,7 @@ public final class EditorOpenTrigger implements FileEditorManagerListener, Dispo
 
   public EditorOpenTrigger(Project project) {
     myProject = project;
-    scheduler = new EventScheduler(myProject, "open", TriggerType.EDITOR_OPEN, 1000, true);
+    scheduler = new EventScheduler(myProject, TriggerType.EDITOR_OPEN, DebouncePolicy.EDITOR_OPEN);
   }
 
   public void onProjectOpened() {
@@ -21,62 +21,23 @@ package org.sonarlint.intellij.trigger
 
 import com.intellij.openapi.project.Project
 import com.intellij.openapi.vfs.VirtualFile
-import java.util.concurrent.Executors
-import java.util.concurrent.ScheduledFuture
-import java.util.concurrent.TimeUnit
-import org.sonarlint.intellij.analysis.AnalysisSubmitter
 import org.sonarlint.intellij.common.util.SonarLintUtils.getService
-import org.sonarlint.intellij.config.Settings
 
+/**
+ * Project-level entry point of a trigger into the shared [AnalysisScheduler]. It does not own any thread.
+ */
 class EventScheduler(
     private val project: Project,
-    private val schedulerName: String,
     private val triggerType: TriggerType,
-    private val timer: Long,
-    // True -> Schedule tasks at specific intervals
-    // False -> Cancel the scheduled task and reschedule a new one
-    private val atInterval: Boolean
+    private val policy: DebouncePolicy,
 ) {
 
-    private val filesToAnalyze = mutableSetOf<VirtualFile>()
-    private val scheduler = Executors.newScheduledThreadPool(1) { r -> Thread(r, "sonarlint-auto-trigger-$schedulerName-${project.name}") }
-    private var scheduledTask: ScheduledFuture<*>? = null
-
     fun stopScheduler() {
-        scheduledTask?.cancel(true)
-        filesToAnalyze.clear()
-        scheduler.shutdownNow()
-    }
-
-    private fun trigger() {
-        if (filesToAnalyze.isNotEmpty()) {
-            getService(project, AnalysisSubmitter::class.java).autoAnalyzeFiles(filesToAnalyze.toList(), triggerType)
-        }
-        filesToAnalyze.clear()
+        getService(AnalysisScheduler::class.java).cancelPendingAnalyses(project, triggerType)
     }
 
     fun notify(file: VirtualFile) {
-        if (!Settings.getGlobalSettings().isAutoTrigger) {
-            return
-        }
-
-        filesToAnalyze.add(file)
-
-        // Remove the previously finished task
-        if (scheduledTask?.isDone == true) {
-            scheduledTask = null
-        }
-
-        if (atInterval) {
-            scheduledTask ?: let {
-                // Schedule new task only if no task currently scheduled
-                scheduledTask = scheduler.schedule({ trigger() }, timer, TimeUnit.MILLISECONDS)
-            }
-        } else {
-            // Cancelling the scheduled task and postponing it later
-            scheduledTask?.cancel(false)
-            scheduledTask = scheduler.schedule({ trigger() }, timer, TimeUnit.MILLISECONDS)
-        }
+        getService(AnalysisScheduler::class.java).scheduleAnalysis(project, file, triggerType, policy)
     }
 
 }
@@ -41,9 +41,10 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import javax.swing.JCheckBox;
@@ -60,6 +61,7 @@ import org.sonarlint.intellij.common.util.SonarLintUtils;
 import org.sonarlint.intellij.finding.LiveFindings;
 import org.sonarlint.intellij.finding.hotspot.LiveSecurityHotspot;
 import org.sonarlint.intellij.finding.issue.LiveIssue;
+import org.sonarlint.intellij.util.ProgressUtils;
 import org.sonarsource.sonarlint.core.client.utils.ImpactSeverity;
 import org.sonarsource.sonarlint.core.commons.IssueSeverity;
 import org.sonarsource.sonarlint.core.commons.api.SonarLanguage;
@@ -103,19 +105,11 @@ public class SonarLintCheckinHandler extends CheckinHandler {
         return ReturnResult.CANCEL;
       }
 
-      new Task.Modal(project, "Waiting for SonarQube for IntelliJ Analysis", true) {
-        public void run(@NotNull final ProgressIndicator progressIndicator) {
-          new Timer().scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-              var analysis = analysisIdsByCallback.getRight().stream().map(id -> getService(project, RunningAnalysesTracker.class).getById(id)).filter(Objects::nonNull).toList();
-              if (analysis.isEmpty()) {
-                cancel();
-              }
-            }
-          }, 0, 100);
+      if (!analysisIdsByCallback.getRight().isEmpty()) {
+        if (!waitForAnalyses(analysisIdsByCallback.getRight())) {
+          return ReturnResult.CANCEL;
         }
-      }.queue();
+      }
 
       if (!analysisIdsByCallback.getLeft().analysisSucceeded()) {
         return ReturnResult.CANCEL;
@@ -128,6 +122,31 @@ public class SonarLintCheckinHandler extends CheckinHandler {
     }
   }
 
+  /**
+   * Waits as long as the analyses run, large change sets can take a while: canceling the modal task is the only way out.
+   *
+   * @return false if the wait was canceled
+   */
+  private boolean waitForAnalyses(List<UUID> analysisIds) {
+    var completed = new AtomicBoolean();
+    new Task.Modal(project, "Waiting for SonarQube for IntelliJ Analysis", true) {
+      public void run(@NotNull final ProgressIndicator progressIndicator) {
+        var tracker = getService(project, RunningAnalysesTracker.class);
+        var analysesFinished = CompletableFuture.allOf(analysisIds.stream()
+          .map(tracker::whenFinished)
+          .toArray(CompletableFuture[]::new));
+        try {
+          completed.set(ProgressUtils.awaitCompletion(progressIndicator, analysesFinished));
+        } catch (TimeoutException e) {
+          // cannot happen without a timeout
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }.queue();
+    return completed.get();
+  }
+
   private void handleError(Exception e, int numFiles) {
     var msg = "SonarQube for IntelliJ - Error analysing " + numFiles + " changed file(s).";
     if (e.getMessage() != null) {
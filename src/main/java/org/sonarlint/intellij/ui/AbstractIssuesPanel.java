@@ -172,6 +172,7 @@ public abstract class AbstractIssuesPanel extends SimpleToolWindowPanel implemen
     var selectedIssueNodes = tree.getSelectedNodes(IssueNode.class, null);
     if (selectedIssueNodes.length > 0) {
       updateOnSelect(selectedIssueNodes[0].issue());
+      findingDetailsPanel.prefetchNeighbours(tree);
     } else {
       clearSelection();
     }
@@ -184,6 +185,7 @@ public abstract class AbstractIssuesPanel extends SimpleToolWindowPanel implemen
     var selectedIssueNodes = oldTree.getSelectedNodes(IssueNode.class, null);
     if (selectedIssueNodes.length > 0) {
       updateOnSelect(selectedIssueNodes[0].issue());
+      findingDetailsPanel.prefetchNeighbours(oldTree);
     } else {
       clearSelection();
     }
@@ -26,10 +26,13 @@ import com.intellij.openapi.project.Project
 import com.intellij.openapi.vfs.VirtualFile
 import com.intellij.ui.ScrollPaneFactory
 import com.intellij.ui.components.JBTabbedPane
+import javax.swing.JTree
 import org.sonarlint.intellij.common.util.SonarLintUtils
 import org.sonarlint.intellij.editor.EditorDecorator
 import org.sonarlint.intellij.finding.Flow
 import org.sonarlint.intellij.finding.LiveFinding
+import org.sonarlint.intellij.ui.nodes.IssueNode
+import org.sonarlint.intellij.ui.nodes.LiveSecurityHotspotNode
 import org.sonarlint.intellij.ui.tree.FlowsTree
 import org.sonarlint.intellij.ui.tree.FlowsTreeModelBuilder
 
@@ -80,6 +83,26 @@ class FindingDetailsPanel(private val project: Project, parentDisposable: Dispos
         flowsTree.expandAll()
     }
 
+    /**
+     * Prefetches the rule details of the findings displayed around the selected one, as they are likely to be selected next.
+     */
+    fun prefetchNeighbours(tree: JTree) {
+        val selectedRow = tree.leadSelectionRow
+        if (selectedRow < 0) {
+            return
+        }
+        val neighbours = (selectedRow - PREFETCH_DISTANCE..selectedRow + PREFETCH_DISTANCE)
+            .filter { it != selectedRow && it in 0 until tree.rowCount }
+            .mapNotNull { row ->
+                when (val node = tree.getPathForRow(row)?.lastPathComponent) {
+                    is IssueNode -> node.issue()
+                    is LiveSecurityHotspotNode -> node.hotspot
+                    else -> null
+                }
+            }
+        rulePanel.prefetch(neighbours)
+    }
+
     fun showServerOnlyIssue(
         module: Module,
         file: VirtualFile,
@@ -112,5 +135,6 @@ class FindingDetailsPanel(private val project: Project, parentDisposable: Dispos
     companion object {
         private const val RULE_TAB_INDEX = 0
         private const val LOCATIONS_TAB_INDEX = 1
+        private const val PREFETCH_DISTANCE = 3
     }
 }
@@ -34,6 +34,7 @@ import com.intellij.ui.SimpleTextAttributes;
 import com.intellij.ui.components.JBPanel;
 import com.intellij.ui.components.JBPanelWithEmptyText;
 import com.intellij.ui.treeStructure.Tree;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import com.intellij.util.ui.tree.TreeUtil;
 import java.awt.BorderLayout;
 import java.awt.Dimension;
@@ -43,6 +44,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 import javax.swing.Box;
 import javax.swing.JScrollPane;
@@ -94,6 +96,7 @@ public class ReportPanel extends SimpleToolWindowPanel implements Disposable {
   private FindingDetailsPanel findingDetailsPanel;
   private AnalysisResult lastAnalysisResult;
   private JBPanelWithEmptyText findingsPanel;
+  private final ExecutorService treeUpdateExecutor = AppExecutorUtil.createBoundedApplicationPoolExecutor("SonarLint Report Tree", 1);
 
   public ReportPanel(Project project) {
     super(false, false);
@@ -126,38 +129,33 @@ public class ReportPanel extends SimpleToolWindowPanel implements Disposable {
     lastAnalysisPanel.update(analysisResult.getAnalysisDate(), whatAnalyzed(analysisResult));
     var findings = analysisResult.getFindings();
 
-    if (currentFocus) {
-      var oldHotspots = findings.getSecurityHotspotsPerFile().entrySet().stream()
-        .map(e -> Map.entry(e.getKey(), e.getValue().stream().filter(not(LiveFinding::isOnNewCode)).toList()))
-        .filter(e -> !e.getValue().isEmpty())
-        .collect(Collectors.toMap(Map.Entry::getKey, e -> (Collection<LiveSecurityHotspot>) e.getValue()));
-      var newHotspots = findings.getSecurityHotspotsPerFile().entrySet().stream()
-        .map(e -> Map.entry(e.getKey(), e.getValue().stream().filter(LiveFinding::isOnNewCode).toList()))
-        .filter(e -> !e.getValue().isEmpty())
-        .collect(Collectors.toMap(Map.Entry::getKey, e -> (Collection<LiveSecurityHotspot>) e.getValue()));
-      var oldIssues = findings.getIssuesPerFile().entrySet().stream()
-        .map(e -> Map.entry(e.getKey(), e.getValue().stream().filter(not(LiveFinding::isOnNewCode)).toList()))
-        .filter(e -> !e.getValue().isEmpty())
-        .collect(Collectors.toMap(Map.Entry::getKey, e -> (Collection<LiveIssue>) e.getValue()));
-      var newIssues = findings.getIssuesPerFile().entrySet().stream()
-        .map(e -> Map.entry(e.getKey(), e.getValue().stream().filter(LiveFinding::isOnNewCode).toList()))
-        .filter(e -> !e.getValue().isEmpty())
-        .collect(Collectors.toMap(Map.Entry::getKey, e -> (Collection<LiveIssue>) e.getValue()));
-
-      runOnUiThread(project, () -> {
-        treeBuilder.updateModel(newIssues);
-        oldTreeBuilder.updateModel(oldIssues);
-        securityHotspotTreeBuilder.updateModel(newHotspots);
-        oldSecurityHotspotTreeBuilder.updateModel(oldHotspots);
-      });
-    } else {
-      runOnUiThread(project, () -> {
-        securityHotspotTreeBuilder.updateModel(findings.getSecurityHotspotsPerFile());
-        oldSecurityHotspotTreeBuilder.updateModel(Collections.emptyMap());
-        treeBuilder.updateModel(findings.getIssuesPerFile());
-        oldTreeBuilder.updateModel(Collections.emptyMap());
-      });
-    }
+    // filtering and sorting the findings of a large report is too slow for the EDT, only the tree differences are applied there
+    treeUpdateExecutor.execute(() -> {
+      if (currentFocus) {
+        var oldHotspots = findings.getSecurityHotspotsPerFile().entrySet().stream()
+          .map(e -> Map.entry(e.getKey(), e.getValue().stream().filter(not(LiveFinding::isOnNewCode)).toList()))
+          .filter(e -> !e.getValue().isEmpty())
+          .collect(Collectors.toMap(Map.Entry::getKey, e -> (Collection<LiveSecurityHotspot>) e.getValue()));
+        var newHotspots = findings.getSecurityHotspotsPerFile().entrySet().stream()
+          .map(e -> Map.entry(e.getKey(), e.getValue().stream().filter(LiveFinding::isOnNewCode).toList()))
+          .filter(e -> !e.getValue().isEmpty())
+          .collect(Collectors.toMap(Map.Entry::getKey, e -> (Collection<LiveSecurityHotspot>) e.getValue()));
+        var oldIssues = findings.getIssuesPerFile().entrySet().stream()
+          .map(e -> Map.entry(e.getKey(), e.getValue().stream().filter(not(LiveFinding::isOnNewCode)).toList()))
+          .filter(e -> !e.getValue().isEmpty())
+          .collect(Collectors.toMap(Map.Entry::getKey, e -> (Collection<LiveIssue>) e.getValue()));
+        var newIssues = findings.getIssuesPerFile().entrySet().stream()
+          .map(e -> Map.entry(e.getKey(), e.getValue().stream().filter(LiveFinding::isOnNewCode).toList()))
+          .filter(e -> !e.getValue().isEmpty())
+          .collect(Collectors.toMap(Map.Entry::getKey, e -> (Collection<LiveIssue>) e.getValue()));
+        applyTreeUpdates(treeBuilder.prepareUpdate(newIssues), oldTreeBuilder.prepareUpdate(oldIssues),
+          SecurityHotspotTreeModelBuilder.prepareUpdate(newHotspots), SecurityHotspotTreeModelBuilder.prepareUpdate(oldHotspots));
+      } else {
+        applyTreeUpdates(treeBuilder.prepareUpdate(findings.getIssuesPerFile()), oldTreeBuilder.prepareUpdate(Collections.emptyMap()),
+          SecurityHotspotTreeModelBuilder.prepareUpdate(findings.getSecurityHotspotsPerFile()),
+          SecurityHotspotTreeModelBuilder.prepareUpdate(Collections.emptyMap()));
+      }
+    });
 
     disableEmptyDisplay(true);
 
@@ -166,8 +164,27 @@ public class ReportPanel extends SimpleToolWindowPanel implements Disposable {
     expandTree();
   }
 
+  private void applyTreeUpdates(IssueTreeModelBuilder.PreparedUpdate issues, IssueTreeModelBuilder.PreparedUpdate oldIssues,
+    SecurityHotspotTreeModelBuilder.PreparedUpdate hotspots, SecurityHotspotTreeModelBuilder.PreparedUpdate oldHotspots) {
+    runOnUiThread(project, () -> {
+      securityHotspotTreeBuilder.applyUpdate(hotspots);
+      oldSecurityHotspotTreeBuilder.applyUpdate(oldHotspots);
+      treeBuilder.applyUpdate(issues);
+      oldTreeBuilder.applyUpdate(oldIssues);
+      expandTree();
+    });
+  }
+
   public void remove(LiveIssue issue) {
-    treeBuilder.remove(issue);
+    applyAfterPendingTreeUpdates(() -> treeBuilder.remove(issue));
+  }
+
+  /**
+   * Tree updates are prepared on {@link #treeUpdateExecutor} and then applied on the EDT. Changes made directly to the trees must go
+   * through the same path, otherwise an update prepared before them could be applied after and revert them.
+   */
+  private void applyAfterPendingTreeUpdates(Runnable treeChange) {
+    treeUpdateExecutor.execute(() -> runOnUiThread(project, treeChange));
   }
 
   public void updateStatusForSecurityHotspot(String securityHotspotKey, HotspotStatus status) {
@@ -267,6 +284,7 @@ public class ReportPanel extends SimpleToolWindowPanel implements Disposable {
     var selectedIssueNodes = tree.getSelectedNodes(IssueNode.class, null);
     if (selectedIssueNodes.length > 0) {
       updateOnSelect(selectedIssueNodes[0].issue());
+      findingDetailsPanel.prefetchNeighbours(tree);
     } else {
       clearSelection();
     }
@@ -290,6 +308,7 @@ public class ReportPanel extends SimpleToolWindowPanel implements Disposable {
       var selectedHotspotsNodes = tree.getSelectedNodes(LiveSecurityHotspotNode.class, null);
       if (selectedHotspotsNodes.length > 0) {
         updateOnSelect(selectedHotspotsNodes[0].getHotspot());
+        findingDetailsPanel.prefetchNeighbours(tree);
       } else {
         clearSelection();
       }
@@ -411,10 +430,12 @@ public class ReportPanel extends SimpleToolWindowPanel implements Disposable {
       return;
     }
     lastAnalysisPanel.clear();
-    treeBuilder.clear();
-    oldTreeBuilder.clear();
-    oldSecurityHotspotTreeBuilder.clear();
-    securityHotspotTreeBuilder.clear();
+    applyAfterPendingTreeUpdates(() -> {
+      treeBuilder.clear();
+      oldTreeBuilder.clear();
+      oldSecurityHotspotTreeBuilder.clear();
+      securityHotspotTreeBuilder.clear();
+    });
     disableEmptyDisplay(false);
   }
 
@@ -246,6 +246,7 @@ public class SecurityHotspotsPanel extends SimpleToolWindowPanel implements Disp
       var selectedHotspotsNodes = tree.getSelectedNodes(LiveSecurityHotspotNode.class, null);
       if (selectedHotspotsNodes.length > 0) {
         updateOnSelect(selectedHotspotsNodes[0].getHotspot());
+        findingDetailsPanel.prefetchNeighbours(tree);
       } else {
         clearSelectionChanged();
       }
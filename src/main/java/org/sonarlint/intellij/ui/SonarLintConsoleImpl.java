@@ -25,20 +25,37 @@ import com.intellij.openapi.Disposable;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Disposer;
 import com.intellij.serviceContainer.NonInjectable;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import org.jetbrains.annotations.Nullable;
 import org.sonarlint.intellij.common.ui.SonarLintConsole;
 
+import static org.sonarlint.intellij.common.util.SonarLintUtils.pluralize;
 import static org.sonarlint.intellij.config.Settings.getSettingsFor;
 
+/**
+ * Lines are retained in a bounded buffer and printed to the console view in batches, coalescing consecutive lines of the same type.
+ * A verbose analysis can log hundreds of thousands of lines, printing them one by one would keep the EDT busy.
+ * When more lines than the retention cap are logged between two flushes, or before the view is created, the oldest ones are dropped
+ * and a "N lines suppressed" message is printed instead.
+ */
 public class SonarLintConsoleImpl implements SonarLintConsole, Disposable {
+  static final int MAX_PENDING_LINES = Math.max(1, Integer.getInteger("sonarlint.console.retention", 10_000));
+  private static final long FLUSH_DELAY_MS = Math.max(0, Long.getLong("sonarlint.console.flush.delay.ms", 100));
 
-  private ConsoleView consoleView;
+  private volatile ConsoleView consoleView;
   private final Project myProject;
-  private final Queue<Log> previousLogs = new ConcurrentLinkedQueue<>();
+  private final Object pendingLogsLock = new Object();
+  private final Object flushLock = new Object();
+  private final Deque<Log> pendingLogs = new ArrayDeque<>();
+  private int suppressedLines;
+  private boolean flushScheduled;
 
   public SonarLintConsoleImpl(Project project) {
     this.myProject = project;
@@ -73,15 +90,60 @@ public class SonarLintConsoleImpl implements SonarLintConsole, Disposable {
   }
 
   private void print(String msg, ConsoleViewContentType outputType) {
-    if (!myProject.isDisposed()) {
-      if (consoleView == null) {
-        previousLogs.offer(new Log(msg + "\n", outputType));
-      } else {
-        consoleView.print(msg + "\n", outputType);
+    if (myProject.isDisposed()) {
+      return;
+    }
+    synchronized (pendingLogsLock) {
+      if (pendingLogs.size() >= MAX_PENDING_LINES) {
+        pendingLogs.poll();
+        suppressedLines++;
+      }
+      pendingLogs.offer(new Log(msg + "\n", outputType));
+      if (consoleView != null && !flushScheduled) {
+        flushScheduled = true;
+        AppExecutorUtil.getAppScheduledExecutorService().schedule(this::flush, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
       }
     }
   }
 
+  void flush() {
+    // flushes are serialized so that batches are printed in order
+    synchronized (flushLock) {
+      ConsoleView view;
+      List<Log> logs;
+      int suppressed;
+      synchronized (pendingLogsLock) {
+        flushScheduled = false;
+        view = consoleView;
+        if (view == null || pendingLogs.isEmpty()) {
+          return;
+        }
+        logs = new ArrayList<>(pendingLogs);
+        pendingLogs.clear();
+        suppressed = suppressedLines;
+        suppressedLines = 0;
+      }
+      if (suppressed > 0) {
+        view.print(suppressed + pluralize(" line", suppressed) + " suppressed\n", ConsoleViewContentType.SYSTEM_OUTPUT);
+      }
+      printCoalesced(view, logs);
+    }
+  }
+
+  private static void printCoalesced(ConsoleView view, List<Log> logs) {
+    var batch = new StringBuilder();
+    var batchOutputType = logs.get(0).outputType;
+    for (var log : logs) {
+      if (log.outputType != batchOutputType) {
+        view.print(batch.toString(), batchOutputType);
+        batch.setLength(0);
+        batchOutputType = log.outputType;
+      }
+      batch.append(log.text);
+    }
+    view.print(batch.toString(), batchOutputType);
+  }
+
   @Override
   public void error(String msg, @Nullable Throwable t) {
     error(msg);
@@ -94,6 +156,10 @@ public class SonarLintConsoleImpl implements SonarLintConsole, Disposable {
 
   @Override
   public void clear() {
+    synchronized (pendingLogsLock) {
+      pendingLogs.clear();
+      suppressedLines = 0;
+    }
     if (consoleView != null) {
       consoleView.clear();
     }
@@ -101,12 +167,16 @@ public class SonarLintConsoleImpl implements SonarLintConsole, Disposable {
 
   @Override
   public void setConsoleView(ConsoleView consoleView) {
-    while (!previousLogs.isEmpty()) {
-      var log = previousLogs.poll();
-      consoleView.print(log.text, log.outputType);
+    synchronized (pendingLogsLock) {
+      this.consoleView = consoleView;
     }
-    this.consoleView = consoleView;
     Disposer.register(this, consoleView);
+    flush();
+  }
+
+  @Override
+  public boolean acceptsGlobalLogs() {
+    return consoleView != null;
   }
 
   @Override
@@ -43,22 +43,24 @@ import java.awt.BorderLayout
 import java.awt.GridBagConstraints
 import java.awt.GridBagLayout
 import java.util.UUID
-import java.util.concurrent.TimeUnit
+import java.util.concurrent.CompletableFuture
 import javax.swing.JEditorPane
 import javax.swing.event.HyperlinkEvent
 import javax.swing.text.DefaultCaret
 import org.apache.commons.text.StringEscapeUtils
 import org.sonarlint.intellij.common.ui.SonarLintConsole
 import org.sonarlint.intellij.common.util.SonarLintUtils
+import org.sonarlint.intellij.common.util.SonarLintUtils.getService
 import org.sonarlint.intellij.common.util.UrlUtils.Companion.urlEncode
 import org.sonarlint.intellij.config.Settings
 import org.sonarlint.intellij.config.global.ServerConnection
 import org.sonarlint.intellij.config.global.SonarLintGlobalConfigurable
-import org.sonarlint.intellij.core.BackendService
 import org.sonarlint.intellij.core.ProjectBindingManager
+import org.sonarlint.intellij.core.RuleDetailsCache
 import org.sonarlint.intellij.documentation.SonarLintDocumentation.Intellij.SECURITY_HOTSPOTS_LINK
 import org.sonarlint.intellij.finding.Finding
 import org.sonarlint.intellij.finding.Issue
+import org.sonarlint.intellij.finding.LiveFinding
 import org.sonarlint.intellij.finding.hotspot.LiveSecurityHotspot
 import org.sonarlint.intellij.ui.UiUtils.Companion.runOnUiThread
 import org.sonarlint.intellij.ui.ruledescription.RuleDescriptionPanel
@@ -137,10 +139,16 @@ class SonarLintRulePanel(private val project: Project, parent: Disposable) : JBL
      */
     inner class RuleDetailsLoader {
 
+        @Volatile
         private var state = RuleDetailsLoaderState(null, null, null)
 
+        // the state whose details are being loaded behind the loading overlay, if any
+        @Volatile
+        private var loadingState: RuleDetailsLoaderState? = null
+
         fun clearState() {
             state = RuleDetailsLoaderState(null, null, null)
+            hideLoading()
         }
 
         fun updateActiveRuleDetailsIfNeeded(module: Module, ruleKey: String) {
@@ -154,28 +162,9 @@ class SonarLintRulePanel(private val project: Project, parent: Disposable) : JBL
                 return
             }
             state = newState
-            startLoading()
-            ProgressManager.getInstance().run(object : Task.Backgroundable(project, "Loading rule description\u2026", false) {
-                override fun run(progressIndicator: ProgressIndicator) {
-                    runOnPooledThread(project) {
-                        SonarLintUtils.getService(BackendService::class.java)
-                            .getEffectiveRuleDetails(module, ruleKey, null)
-                            .orTimeout(30, TimeUnit.SECONDS)
-                            .handle { response, error ->
-                                stopLoading()
-                                ruleDetails = if (error != null) {
-                                    SonarLintConsole.get(project).error("Cannot get rule description", error)
-                                    null
-                                } else {
-                                    response.details()
-                                }
-                                runOnUiThread(project) {
-                                    updateUiComponents()
-                                }
-                            }
-                    }
-                }
-            })
+            load(newState, { getService(project, RuleDetailsCache::class.java).getEffectiveRuleDetails(module, ruleKey, null) }) { details ->
+                ruleDetails = details
+            }
         }
 
         fun updateActiveIssueDetailsIfNeeded(module: Module, issueId: UUID) {
@@ -189,29 +178,66 @@ class SonarLintRulePanel(private val project: Project, parent: Disposable) : JBL
                 return
             }
             state = newState
+            load(newState, { getService(project, RuleDetailsCache::class.java).getEffectiveIssueDetails(module, issueId) }) { details ->
+                issueDetails = details
+            }
+        }
+
+        private fun <T> load(loadedState: RuleDetailsLoaderState, request: () -> CompletableFuture<T>, onLoaded: (T?) -> Unit) {
+            val future = request()
+            if (future.isDone) {
+                // details of a recently displayed finding, no need to show the loading state, but the one of a previously selected
+                // finding still loading must be removed
+                hideLoading()
+                applyLoadedDetails(loadedState, future, onLoaded)
+                return
+            }
+            loadingState = loadedState
             startLoading()
             ProgressManager.getInstance().run(object : Task.Backgroundable(project, "Loading rule description\u2026", false) {
                 override fun run(progressIndicator: ProgressIndicator) {
                     runOnPooledThread(project) {
-                        SonarLintUtils.getService(BackendService::class.java)
-                            .getEffectiveIssueDetails(module, issueId)
-                            .orTimeout(30, TimeUnit.SECONDS)
-                            .handle { response, error ->
-                                stopLoading()
-                                issueDetails = if (error != null) {
-                                    SonarLintConsole.get(project).error("Cannot get rule description", error)
-                                    null
-                                } else {
-                                    response.details
-                                }
-                                runOnUiThread(project) {
-                                    updateUiComponents()
-                                }
+                        future.handle { _, _ ->
+                            if (loadingState == loadedState) {
+                                hideLoading()
                             }
+                            applyLoadedDetails(loadedState, future, onLoaded)
+                        }
                     }
                 }
             })
         }
+
+        private fun hideLoading() {
+            loadingState = null
+            stopLoading()
+        }
+
+        private fun <T> applyLoadedDetails(loadedState: RuleDetailsLoaderState, future: CompletableFuture<T>, onLoaded: (T?) -> Unit) {
+            if (state != loadedState) {
+                // another finding was selected in the meantime
+                return
+            }
+            future.handle { details, error ->
+                onLoaded(if (error != null) {
+                    SonarLintConsole.get(project).error("Cannot get rule description", error)
+                    null
+                } else {
+                    details
+                })
+                runOnUiThread(project) {
+                    updateUiComponents()
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads in the background the details of findings likely to be selected next, e.g. the neighbours of the selected one.
+     */
+    fun prefetch(findings: Collection<LiveFinding>) {
+        val cache = getService(project, RuleDetailsCache::class.java)
+        findings.forEach { finding -> cache.getEffectiveIssueDetails(finding.module, finding.id) }
     }
 
     fun clear() {
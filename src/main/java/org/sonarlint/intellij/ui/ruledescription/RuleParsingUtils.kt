@@ -43,9 +43,27 @@ class RuleParsingUtils {
 
     companion object {
         private const val PRE_TAG_ENDING = "</pre>"
+        private const val MAX_PARSED_DESCRIPTIONS = 100
+
+        /**
+         * Parsing a description is costly for long rule descriptions, and the same descriptions are displayed again and again when
+         * browsing findings. The fragments are only read once parsed, so they can be reused for a new panel.
+         */
+        private val parsedDescriptions = object : LinkedHashMap<String, Section>(16, 0.75f, true) {
+            override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, Section>) = size > MAX_PARSED_DESCRIPTIONS
+        }
 
         fun parseCodeExamples(project: Project, parent: Disposable, htmlDescription: String, fileType: FileType): JScrollPane {
             val mainPanel = JBPanel<JBPanel<*>>(VerticalFlowLayout(0, 0))
+            val section = synchronized(parsedDescriptions) { parsedDescriptions[htmlDescription] }
+                ?: parseSection(project, htmlDescription).also { synchronized(parsedDescriptions) { parsedDescriptions[htmlDescription] = it } }
+
+            transformAndAddSections(section, project, parent, fileType, mainPanel)
+
+            return createScrollPane(mainPanel)
+        }
+
+        private fun parseSection(project: Project, htmlDescription: String): Section {
             var remainingRuleDescription = htmlDescription
             var computedRuleDescription = ""
             var matcherStart: Matcher = Pattern.compile("<pre[^>]*>").matcher(remainingRuleDescription)
@@ -87,9 +105,7 @@ class RuleParsingUtils {
                 section.mergeOrAdd(HtmlFragment(remainingRuleDescription))
             }
 
-            transformAndAddSections(section, project, parent, fileType, mainPanel)
-
-            return createScrollPane(mainPanel)
+            return section
         }
 
         private fun transformAndAddSections(section: Section, project: Project, parent: Disposable, fileType: FileType, mainPanel: JBPanel<*>) {
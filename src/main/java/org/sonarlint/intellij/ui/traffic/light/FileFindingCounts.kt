@@ -0,0 +1,82 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.ui.traffic.light
+
+import org.sonarlint.intellij.finding.Finding
+import org.sonarlint.intellij.finding.FindingStateVersion
+
+/**
+ * Number of unresolved findings of a file, by type, overall and on new code.
+ */
+data class FileFindingCounts(
+    val issues: Int,
+    val issuesOnNewCode: Int,
+    val hotspots: Int,
+    val hotspotsOnNewCode: Int,
+    val taintVulnerabilities: Int,
+    val taintVulnerabilitiesOnNewCode: Int,
+) {
+    companion object {
+        fun of(issues: Collection<Finding>, hotspots: Collection<Finding>, taintVulnerabilities: Collection<Finding>): FileFindingCounts {
+            val unresolvedIssues = issues.filter { !it.isResolved() }
+            val unresolvedHotspots = hotspots.filter { !it.isResolved() }
+            val unresolvedTaintVulnerabilities = taintVulnerabilities.filter { !it.isResolved() }
+            return FileFindingCounts(
+                unresolvedIssues.size,
+                unresolvedIssues.count { it.isOnNewCode() },
+                unresolvedHotspots.size,
+                unresolvedHotspots.count { it.isOnNewCode() },
+                unresolvedTaintVulnerabilities.size,
+                unresolvedTaintVulnerabilities.count { it.isOnNewCode() }
+            )
+        }
+    }
+}
+
+/**
+ * Keeps the counts of a file until its findings change. The findings holders replace the collection of a file when its
+ * findings change, so comparing the collections by identity is enough, plus [FindingStateVersion] for the findings that
+ * get resolved or reopened in place.
+ */
+class FileFindingCounter {
+    private var issues: Collection<Finding>? = null
+    private var hotspots: Collection<Finding>? = null
+    private var taintVulnerabilities: Collection<Finding>? = null
+    private var stateVersion = -1L
+    private var counts: FileFindingCounts? = null
+
+    @Synchronized
+    fun count(issues: Collection<Finding>, hotspots: Collection<Finding>, taintVulnerabilities: Collection<Finding>): FileFindingCounts {
+        val currentStateVersion = FindingStateVersion.current()
+        val previousCounts = counts
+        if (previousCounts != null && issues === this.issues && hotspots === this.hotspots
+            && taintVulnerabilities === this.taintVulnerabilities && currentStateVersion == stateVersion
+        ) {
+            return previousCounts
+        }
+        val newCounts = FileFindingCounts.of(issues, hotspots, taintVulnerabilities)
+        this.issues = issues
+        this.hotspots = hotspots
+        this.taintVulnerabilities = taintVulnerabilities
+        stateVersion = currentStateVersion
+        counts = newCounts
+        return newCounts
+    }
+}
@@ -41,6 +41,10 @@ class SonarLintTrafficLightAction(private val editor: Editor) : AbstractSonarAct
         private val DASHBOARD_MODEL = Key<SonarLintDashboardModel>("DASHBOARD_MODEL")
     }
 
+    private val findingCounter = FileFindingCounter()
+    private var lastCounts: FileFindingCounts? = null
+    private var lastModel: SonarLintDashboardModel? = null
+
     override fun createCustomComponent(presentation: Presentation, place: String): JComponent {
         return SonarLintTrafficLightWidget(this, presentation, place, editor)
     }
@@ -57,23 +61,37 @@ class SonarLintTrafficLightAction(private val editor: Editor) : AbstractSonarAct
             val isAlive = getService(BackendService::class.java).isAlive()
             val presentation = e.presentation
             val isFocusOnNewCode = getService(project, CleanAsYouCodeService::class.java).shouldFocusOnNewCode(project)
-            val relevantIssues = getService(project, AnalysisSubmitter::class.java).onTheFlyFindingsHolder.getIssuesForFile(file)
-                .filter { !it.isResolved() && (!isFocusOnNewCode || it.isOnNewCode()) }
-            val relevantSecurityHotspots =
-                getService(project, AnalysisSubmitter::class.java).onTheFlyFindingsHolder.getSecurityHotspotsForFile(file)
-                    .filter { !it.isResolved() && (!isFocusOnNewCode || it.isOnNewCode()) }
-            val relevantTaintVulnerabilitiesCount =
+            val onTheFlyFindingsHolder = getService(project, AnalysisSubmitter::class.java).onTheFlyFindingsHolder
+            val counts = findingCounter.count(
+                onTheFlyFindingsHolder.getIssuesForFile(file),
+                onTheFlyFindingsHolder.getSecurityHotspotsForFile(file),
                 getService(project, TaintVulnerabilitiesCache::class.java).getTaintVulnerabilitiesForFile(file)
-                    .filter { !it.isResolved() && (!isFocusOnNewCode || it.isOnNewCode()) }
-            val model =
-                SonarLintDashboardModel(
-                    isAlive,
-                    relevantIssues.size,
-                    relevantSecurityHotspots.size,
-                    relevantTaintVulnerabilitiesCount.size,
-                    isFocusOnNewCode
-                )
-            presentation.putClientProperty(DASHBOARD_MODEL, model)
+            )
+            val model = modelFor(isAlive, counts, isFocusOnNewCode)
+            if (presentation.getClientProperty(DASHBOARD_MODEL) !== model) {
+                presentation.putClientProperty(DASHBOARD_MODEL, model)
+            }
+        }
+    }
+
+    /**
+     * The model is only re-created when the counts or the state change, so that the widget is not refreshed on each update.
+     */
+    @Synchronized
+    private fun modelFor(isAlive: Boolean, counts: FileFindingCounts, isFocusOnNewCode: Boolean): SonarLintDashboardModel {
+        val model = lastModel
+        if (model != null && lastCounts === counts && model.isAlive == isAlive && model.isFocusOnNewCode == isFocusOnNewCode) {
+            return model
+        }
+        return SonarLintDashboardModel(
+            isAlive,
+            if (isFocusOnNewCode) counts.issuesOnNewCode else counts.issues,
+            if (isFocusOnNewCode) counts.hotspotsOnNewCode else counts.hotspots,
+            if (isFocusOnNewCode) counts.taintVulnerabilitiesOnNewCode else counts.taintVulnerabilities,
+            isFocusOnNewCode
+        ).also {
+            lastModel = it
+            lastCounts = counts
         }
     }
 
@@ -63,6 +63,7 @@ class SonarLintTrafficLightWidget(
     private val iconAndFindingsCountLabel = JLabel()
     private var mousePressed = false
     private var mouseHover = false
+    private var currentModel: SonarLintDashboardModel? = null
 
     init {
         isOpaque = false
@@ -143,6 +144,10 @@ class SonarLintTrafficLightWidget(
     }
 
     fun refresh(model: SonarLintDashboardModel) {
+        if (model == currentModel) {
+            return
+        }
+        currentModel = model
         if (!model.isAlive) {
             iconAndFindingsCountLabel.icon = SonarLintIcons.SONARQUBE_FOR_INTELLIJ_ORANGE_13PX
             iconAndFindingsCountLabel.text = model.findingsCount().toString()
@@ -22,6 +22,7 @@ package org.sonarlint.intellij.ui.tree
 class CompactTree(private val nodesByParent: Map<Any, List<Any>>) {
     fun getChild(parent: Any, index: Int) = nodesByParent[parent]?.getOrNull(index)
     fun getChildCount(parent: Any) = nodesByParent[parent]?.size ?: 0
+    fun getChildren(parent: Any): List<Any> = nodesByParent[parent] ?: emptyList()
 
     fun getIndexOfChild(parent: Any?, child: Any?): Int {
         if (parent == null || child == null) {
@@ -0,0 +1,100 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.ui.tree
+
+import javax.swing.event.TreeModelEvent
+import javax.swing.event.TreeModelListener
+import javax.swing.tree.TreePath
+
+/**
+ * Structural difference between two [CompactTree]s, as the list of events to fire to go from the first one to the second one.
+ * Children are matched using [Any.equals]. A child that is equal to the previous one but is a different instance is reported as
+ * changed, e.g. to refresh a counter. When the relative order of the remaining children of a node changed, the whole subtree
+ * of this node is reported as changed.
+ *
+ * Computing the difference does not touch Swing, it can be done outside the EDT.
+ */
+class CompactTreeDiff private constructor(val newTree: CompactTree, private val events: List<Pair<EventType, TreeModelEvent>>) {
+
+    enum class EventType { REMOVED, INSERTED, CHANGED, STRUCTURE_CHANGED }
+
+    fun isEmpty() = events.isEmpty()
+
+    fun fire(listener: TreeModelListener) {
+        events.forEach { (type, event) ->
+            when (type) {
+                EventType.REMOVED -> listener.treeNodesRemoved(event)
+                EventType.INSERTED -> listener.treeNodesInserted(event)
+                EventType.CHANGED -> listener.treeNodesChanged(event)
+                EventType.STRUCTURE_CHANGED -> listener.treeStructureChanged(event)
+            }
+        }
+    }
+
+    companion object {
+        fun between(source: Any, root: Any, oldTree: CompactTree, newTree: CompactTree): CompactTreeDiff {
+            val events = mutableListOf<Pair<EventType, TreeModelEvent>>()
+            diffChildren(source, TreePath(root), oldTree, newTree, events)
+            return CompactTreeDiff(newTree, events)
+        }
+
+        private fun diffChildren(
+            source: Any,
+            parentPath: TreePath,
+            oldTree: CompactTree,
+            newTree: CompactTree,
+            events: MutableList<Pair<EventType, TreeModelEvent>>,
+        ) {
+            val parent = parentPath.lastPathComponent
+            val oldChildren = oldTree.getChildren(parent)
+            val newChildren = newTree.getChildren(parent)
+            if (oldChildren.isEmpty() && newChildren.isEmpty()) {
+                return
+            }
+            val newIndexByChild = newChildren.withIndex().associate { (index, child) -> child to index }
+            val oldIndexByChild = oldChildren.withIndex().associate { (index, child) -> child to index }
+
+            val removedIndices = oldChildren.indices.filter { oldChildren[it] !in newIndexByChild }
+            val insertedIndices = newChildren.indices.filter { newChildren[it] !in oldIndexByChild }
+            val keptChildren = newChildren.filter { it in oldIndexByChild }
+            if (keptChildren.map { oldIndexByChild[it]!! }.zipWithNext().any { (previous, next) -> previous > next }) {
+                // children were reordered, no point in computing a finer grained difference
+                events.add(EventType.STRUCTURE_CHANGED to TreeModelEvent(source, parentPath))
+                return
+            }
+
+            if (removedIndices.isNotEmpty()) {
+                events.add(EventType.REMOVED to event(source, parentPath, removedIndices, oldChildren))
+            }
+            if (insertedIndices.isNotEmpty()) {
+                events.add(EventType.INSERTED to event(source, parentPath, insertedIndices, newChildren))
+            }
+            val changedIndices = keptChildren.map { newIndexByChild[it]!! }
+                .filter { newChildren[it] !== oldChildren[oldIndexByChild[newChildren[it]]!!] }
+            if (changedIndices.isNotEmpty()) {
+                events.add(EventType.CHANGED to event(source, parentPath, changedIndices, newChildren))
+            }
+            keptChildren.forEach { child -> diffChildren(source, parentPath.pathByAddingChild(child), oldTree, newTree, events) }
+        }
+
+        private fun event(source: Any, parentPath: TreePath, indices: List<Int>, children: List<Any>) =
+            TreeModelEvent(source, parentPath, indices.toIntArray(), indices.map { children[it] }.toTypedArray())
+    }
+}
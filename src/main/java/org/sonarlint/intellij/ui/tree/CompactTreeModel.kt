@@ -31,9 +31,33 @@ class CompactTreeModel(private val rootNode: SummaryNode) : TreeModel {
 
     private var compactTree: CompactTree = CompactTree(mapOf(rootNode to emptyList()))
 
+    /**
+     * Last tree passed to [prepareUpdate], which is the one the model will display once all prepared updates are applied.
+     */
+    @Volatile
+    private var latestTree: CompactTree = compactTree
+
     fun setCompactTree(compactTree: CompactTree) {
-        this.compactTree = compactTree
-        notifyListeners()
+        applyUpdate(prepareUpdate(compactTree))
+    }
+
+    /**
+     * Computes the difference with the tree of the previous update. It can be called outside the EDT, but calls must be sequential,
+     * and the updates applied in the same order with [applyUpdate].
+     */
+    fun prepareUpdate(newTree: CompactTree): CompactTreeDiff {
+        val diff = CompactTreeDiff.between(this, rootNode, latestTree, newTree)
+        latestTree = newTree
+        return diff
+    }
+
+    fun applyUpdate(diff: CompactTreeDiff) {
+        compactTree = diff.newTree
+        listeners.forEach {
+            // the summary displayed by the root node is refreshed on each update
+            it.treeNodesChanged(TreeModelEvent(this, TreePath(rootNode)))
+            diff.fire(it)
+        }
     }
 
     override fun getRoot() = rootNode
@@ -54,10 +78,6 @@ class CompactTreeModel(private val rootNode: SummaryNode) : TreeModel {
         listeners.remove(listener)
     }
 
-    private fun notifyListeners() {
-        listeners.forEach { it.treeStructureChanged(TreeModelEvent(this, TreePath(root))) }
-    }
-
     override fun valueForPathChanged(path: TreePath?, newValue: Any?) {
         throw UnsupportedOperationException("Tree is not mutable")
     }
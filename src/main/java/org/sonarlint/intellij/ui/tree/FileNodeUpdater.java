@@ -0,0 +1,148 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.ui.tree;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import javax.swing.tree.DefaultTreeModel;
+import javax.swing.tree.TreeNode;
+import org.sonarlint.intellij.finding.Finding;
+import org.sonarlint.intellij.ui.nodes.FileNode;
+import org.sonarlint.intellij.ui.nodes.FindingNode;
+
+/**
+ * Replaces the finding nodes of a {@link FileNode} with nodes for an already sorted list of findings.
+ * Nodes of findings that are still present are kept, and only the removed and inserted nodes are notified to the model,
+ * so that re-analyzing a file with a few changes doesn't collapse or repaint the whole file.
+ * When the relative order of the kept findings changed, the children are rebuilt and a structure change is fired.
+ */
+final class FileNodeUpdater {
+
+  private FileNodeUpdater() {
+    // utility class
+  }
+
+  /**
+   * Must be called on the EDT.
+   *
+   * @return the finding nodes of the file, in tree order
+   */
+  static <F extends Finding, N extends FindingNode> List<N> update(DefaultTreeModel model, FileNode fileNode, List<F> sortedFindings,
+    Function<F, N> nodeFactory) {
+    var oldNodes = childrenOf(fileNode);
+    var oldNodesByFinding = new IdentityHashMap<Finding, N>(oldNodes.size());
+    oldNodes.forEach(node -> oldNodesByFinding.put(node.getFinding(), node));
+    var newFindings = Collections.newSetFromMap(new IdentityHashMap<Finding, Boolean>(sortedFindings.size()));
+    newFindings.addAll(sortedFindings);
+
+    if (!keptFindingsHaveSameOrder(oldNodes, sortedFindings, oldNodesByFinding, newFindings)) {
+      return rebuild(model, fileNode, sortedFindings, nodeFactory, oldNodesByFinding);
+    }
+
+    removeStaleNodes(model, fileNode, oldNodes, newFindings);
+
+    var newNodes = new ArrayList<N>(sortedFindings.size());
+    var inserted = new ArrayList<Integer>();
+    var kept = new ArrayList<Integer>();
+    for (var i = 0; i < sortedFindings.size(); i++) {
+      var finding = sortedFindings.get(i);
+      var node = oldNodesByFinding.get(finding);
+      if (node == null) {
+        node = nodeFactory.apply(finding);
+        fileNode.insert(node, i);
+        inserted.add(i);
+      } else {
+        kept.add(i);
+      }
+      newNodes.add(node);
+    }
+    if (!inserted.isEmpty()) {
+      model.nodesWereInserted(fileNode, toArray(inserted));
+    }
+    if (!kept.isEmpty()) {
+      // the status of a kept finding may have changed, repaint without touching the structure
+      model.nodesChanged(fileNode, toArray(kept));
+    }
+    model.nodeChanged(fileNode);
+    return newNodes;
+  }
+
+  private static <N extends FindingNode> boolean keptFindingsHaveSameOrder(List<N> oldNodes, List<? extends Finding> sortedFindings,
+    Map<Finding, N> oldNodesByFinding, Set<Finding> newFindings) {
+    var keptInOldOrder = oldNodes.stream().map(FindingNode::getFinding).filter(newFindings::contains).iterator();
+    for (var finding : sortedFindings) {
+      if (oldNodesByFinding.containsKey(finding) && (!keptInOldOrder.hasNext() || keptInOldOrder.next() != finding)) {
+        return false;
+      }
+    }
+    return !keptInOldOrder.hasNext();
+  }
+
+  private static <N extends FindingNode> void removeStaleNodes(DefaultTreeModel model, FileNode fileNode, List<N> oldNodes, Set<Finding> newFindings) {
+    var removedIndices = new ArrayList<Integer>();
+    var removedNodes = new ArrayList<TreeNode>();
+    for (var i = 0; i < oldNodes.size(); i++) {
+      var node = oldNodes.get(i);
+      if (!newFindings.contains(node.getFinding())) {
+        removedIndices.add(i);
+        removedNodes.add(node);
+      }
+    }
+    if (removedIndices.isEmpty()) {
+      return;
+    }
+    for (var i = removedIndices.size() - 1; i >= 0; i--) {
+      fileNode.remove(removedIndices.get(i));
+    }
+    model.nodesWereRemoved(fileNode, toArray(removedIndices), removedNodes.toArray());
+  }
+
+  private static <F extends Finding, N extends FindingNode> List<N> rebuild(DefaultTreeModel model, FileNode fileNode, List<F> sortedFindings,
+    Function<F, N> nodeFactory, Map<Finding, N> oldNodesByFinding) {
+    fileNode.removeAllChildren();
+    var newNodes = new ArrayList<N>(sortedFindings.size());
+    for (var finding : sortedFindings) {
+      var node = oldNodesByFinding.get(finding);
+      if (node == null) {
+        node = nodeFactory.apply(finding);
+      }
+      fileNode.add(node);
+      newNodes.add(node);
+    }
+    model.nodeStructureChanged(fileNode);
+    return newNodes;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <N extends FindingNode> List<N> childrenOf(FileNode fileNode) {
+    var children = new ArrayList<N>(fileNode.getChildCount());
+    fileNode.children().asIterator().forEachRemaining(child -> children.add((N) child));
+    return children;
+  }
+
+  private static int[] toArray(List<Integer> indices) {
+    return indices.stream().mapToInt(Integer::intValue).toArray();
+  }
+}
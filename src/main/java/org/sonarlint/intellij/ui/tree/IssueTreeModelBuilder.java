@@ -27,12 +27,12 @@ import com.intellij.openapi.vfs.VirtualFile;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.TreeSet;
 import java.util.stream.StreamSupport;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
@@ -48,6 +48,7 @@ import org.sonarsource.sonarlint.core.client.utils.ImpactSeverity;
 import org.sonarsource.sonarlint.core.rpc.protocol.common.IssueSeverity;
 
 import static org.sonarlint.intellij.ui.UiUtils.runOnUiThread;
+import static org.sonarlint.intellij.ui.tree.SortedFindings.sortedDistinct;
 import static org.sonarsource.sonarlint.core.client.utils.ImpactSeverity.HIGH;
 import static org.sonarsource.sonarlint.core.client.utils.ImpactSeverity.LOW;
 import static org.sonarsource.sonarlint.core.client.utils.ImpactSeverity.MEDIUM;
@@ -70,7 +71,7 @@ public class IssueTreeModelBuilder implements FindingTreeModelBuilder {
   private final Project project;
   private DefaultTreeModel model;
   private SummaryNode summaryNode;
-  private boolean includeLocallyResolvedIssues = false;
+  private volatile boolean includeLocallyResolvedIssues = false;
   private Map<VirtualFile, Collection<LiveIssue>> latestIssues;
   private TreeSummary treeSummary;
 
@@ -104,23 +105,41 @@ public class IssueTreeModelBuilder implements FindingTreeModelBuilder {
   }
 
   public void updateModel(Map<VirtualFile, Collection<LiveIssue>> map) {
-    latestIssues = map;
-    var toRemove = index.getAllFiles().stream().filter(f -> !map.containsKey(f)).toList();
+    applyUpdate(prepareUpdate(map));
+  }
+
+  /**
+   * Filters and sorts the issues of each file. It doesn't touch the tree, so it can be called from a background thread
+   * to keep the EDT phase ({@link #applyUpdate(PreparedUpdate)}) limited to the per-file differences.
+   */
+  public PreparedUpdate prepareUpdate(Map<VirtualFile, Collection<LiveIssue>> map) {
+    var sortedIssuesPerFile = new HashMap<VirtualFile, List<LiveIssue>>();
+    for (var e : map.entrySet()) {
+      if (accept(e.getKey())) {
+        var sorted = filter(e.getValue());
+        if (!sorted.isEmpty()) {
+          sortedIssuesPerFile.put(e.getKey(), sorted);
+        }
+      }
+    }
+    return new PreparedUpdate(map, sortedIssuesPerFile);
+  }
+
+  public void applyUpdate(PreparedUpdate update) {
     ApplicationManager.getApplication().assertIsDispatchThread();
+    latestIssues = update.issues();
+    var sortedIssuesPerFile = update.sortedIssuesPerFile();
+    var toRemove = index.getAllFiles().stream().filter(f -> !sortedIssuesPerFile.containsKey(f)).toList();
 
     toRemove.forEach(this::removeFile);
 
-    var fileWithIssuesCount = 0;
     var issuesCount = 0;
-    for (var e : map.entrySet()) {
-      var fileIssuesCount = setFileIssues(e.getKey(), e.getValue());
-      if (fileIssuesCount > 0) {
-        issuesCount += fileIssuesCount;
-        fileWithIssuesCount++;
-      }
+    for (var e : sortedIssuesPerFile.entrySet()) {
+      setFileIssues(e.getKey(), e.getValue());
+      issuesCount += e.getValue().size();
     }
 
-    treeSummary.refresh(fileWithIssuesCount, issuesCount);
+    treeSummary.refresh(sortedIssuesPerFile.size(), issuesCount);
     model.nodeChanged(summaryNode);
   }
 
@@ -136,38 +155,23 @@ public class IssueTreeModelBuilder implements FindingTreeModelBuilder {
     SonarLintUtils.getService(project, CodeAnalyzerRestarter.class).refreshFiles(fileList);
   }
 
-  private int setFileIssues(VirtualFile file, Iterable<LiveIssue> issues) {
-    if (!accept(file)) {
-      removeFile(file);
-      return 0;
-    }
-
-    var filtered = filter(issues);
-    if (filtered.isEmpty()) {
-      removeFile(file);
-      return 0;
-    }
-
-    var newFile = false;
+  private void setFileIssues(VirtualFile file, List<LiveIssue> sortedIssues) {
     var fNode = index.getFileNode(file);
-    if (fNode == null) {
-      newFile = true;
-      fNode = new FileNode(file, false);
-      index.setFileNode(fNode);
+    if (fNode != null) {
+      FileNodeUpdater.update(model, fNode, sortedIssues, IssueNode::new);
+      return;
     }
 
-    setIssues(fNode, filtered);
-
-    if (newFile) {
-      var parent = getFilesParent();
-      var idx = parent.insertFileNode(fNode, new FileNodeComparator());
-      var newIdx = new int[]{idx};
-      model.nodesWereInserted(parent, newIdx);
-      model.nodeChanged(parent);
-    } else {
-      model.nodeStructureChanged(fNode);
+    fNode = new FileNode(file, false);
+    index.setFileNode(fNode);
+    for (var issue : sortedIssues) {
+      fNode.add(new IssueNode(issue));
     }
-    return filtered.size();
+    var parent = getFilesParent();
+    var idx = parent.insertFileNode(fNode, new FileNodeComparator());
+    var newIdx = new int[]{idx};
+    model.nodesWereInserted(parent, newIdx);
+    model.nodeChanged(parent);
   }
 
   private void removeFile(VirtualFile file) {
@@ -183,26 +187,8 @@ public class IssueTreeModelBuilder implements FindingTreeModelBuilder {
     model.removeNodeFromParent(node);
   }
 
-  private static void setIssues(FileNode node, Iterable<LiveIssue> issuePointers) {
-    node.removeAllChildren();
-
-    // 15ms for 500 issues -> to improve?
-    var issues = new TreeSet<>(ISSUE_COMPARATOR);
-
-    for (var issue : issuePointers) {
-      issues.add(issue);
-    }
-
-    for (var issue : issues) {
-      var iNode = new IssueNode(issue);
-      node.add(iNode);
-    }
-  }
-
   private List<LiveIssue> filter(Iterable<LiveIssue> issues) {
-    return StreamSupport.stream(issues.spliterator(), false)
-      .filter(this::accept)
-      .toList();
+    return sortedDistinct(StreamSupport.stream(issues.spliterator(), false).filter(this::accept), ISSUE_COMPARATOR);
   }
 
   private boolean accept(LiveIssue issue) {
@@ -263,6 +249,12 @@ public class IssueTreeModelBuilder implements FindingTreeModelBuilder {
     }
   }
 
+  /**
+   * Issues of each valid file, filtered and sorted for display. Files without any issue to display are absent.
+   */
+  public record PreparedUpdate(Map<VirtualFile, Collection<LiveIssue>> issues, Map<VirtualFile, List<LiveIssue>> sortedIssuesPerFile) {
+  }
+
   static class IssueComparator implements Comparator<LiveIssue> {
     @Override public int compare(@Nonnull LiveIssue o1, @Nonnull LiveIssue o2) {
       var isResolvedCompare = Comparator.comparing(LiveIssue::isResolved).compare(o1, o2);
@@ -28,10 +28,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.TreeSet;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 import javax.annotation.CheckForNull;
@@ -48,6 +48,8 @@ import org.sonarlint.intellij.ui.nodes.SummaryNode;
 import org.sonarsource.sonarlint.core.rpc.protocol.backend.hotspot.HotspotStatus;
 import org.sonarsource.sonarlint.core.rpc.protocol.backend.rules.VulnerabilityProbability;
 
+import static org.sonarlint.intellij.ui.tree.SortedFindings.sortedDistinct;
+
 /**
  * Responsible for maintaining the tree model and send change events when needed.
  * Should be optimized to minimize the recreation of portions of the tree.
@@ -100,74 +102,63 @@ public class SecurityHotspotTreeModelBuilder implements FindingTreeModelBuilder
   }
 
   public void updateModel(Map<VirtualFile, Collection<LiveSecurityHotspot>> map) {
-    var toRemove = index.getAllFiles().stream().filter(f -> !map.containsKey(f)).toList();
-    ApplicationManager.getApplication().assertIsDispatchThread();
-
-    nonFilteredNodes.clear();
-    toRemove.forEach(this::removeFile);
+    applyUpdate(prepareUpdate(map));
+  }
 
-    var fileWithIssuesCount = 0;
-    var issuesCount = 0;
+  /**
+   * Filters and sorts the Security Hotspots of each file. It doesn't touch the tree, so it can be called from a background thread
+   * to keep the EDT phase ({@link #applyUpdate(PreparedUpdate)}) limited to the per-file differences.
+   */
+  public static PreparedUpdate prepareUpdate(Map<VirtualFile, Collection<LiveSecurityHotspot>> map) {
+    var sortedHotspotsPerFile = new HashMap<VirtualFile, List<LiveSecurityHotspot>>();
     for (var e : map.entrySet()) {
-      var fileIssuesCount = setFileSecurityHotspots(e.getKey(), e.getValue());
-      if (fileIssuesCount > 0) {
-        issuesCount += fileIssuesCount;
-        fileWithIssuesCount++;
+      if (accept(e.getKey())) {
+        var sorted = sortedDistinct(filter(e.getValue(), false).stream(), SECURITY_HOTSPOT_COMPARATOR);
+        if (!sorted.isEmpty()) {
+          sortedHotspotsPerFile.put(e.getKey(), sorted);
+        }
       }
     }
-    treeSummary.refresh(fileWithIssuesCount, issuesCount);
-    model.nodeChanged(summaryNode);
+    return new PreparedUpdate(sortedHotspotsPerFile);
   }
 
-  private int setFileSecurityHotspots(VirtualFile file, Iterable<LiveSecurityHotspot> securityHotspots) {
-    if (!accept(file)) {
-      removeFile(file);
-      return 0;
-    }
-
-    var filtered = filter(securityHotspots, false);
-    if (filtered.isEmpty()) {
-      removeFile(file);
-      return 0;
-    }
-
-    var newFile = false;
-    var fNode = index.getFileNode(file);
-    if (fNode == null) {
-      newFile = true;
-      fNode = new FileNode(file, true);
-      index.setFileNode(fNode);
-    }
+  public void applyUpdate(PreparedUpdate update) {
+    ApplicationManager.getApplication().assertIsDispatchThread();
+    var sortedHotspotsPerFile = update.sortedHotspotsPerFile();
+    var toRemove = index.getAllFiles().stream().filter(f -> !sortedHotspotsPerFile.containsKey(f)).toList();
 
-    setFileNodeSecurityHotspots(fNode, filtered);
+    nonFilteredNodes.clear();
+    toRemove.forEach(this::removeFile);
 
-    if (newFile) {
-      var parent = getFilesParent();
-      var idx = parent.insertFileNode(fNode, new FileNodeComparator());
-      var newIdx = new int[] {idx};
-      model.nodesWereInserted(parent, newIdx);
-      model.nodeChanged(parent);
-    } else {
-      model.nodeStructureChanged(fNode);
+    var issuesCount = 0;
+    for (var e : sortedHotspotsPerFile.entrySet()) {
+      nonFilteredNodes.addAll(setFileSecurityHotspots(e.getKey(), e.getValue()));
+      issuesCount += e.getValue().size();
     }
-    return filtered.size();
+    treeSummary.refresh(sortedHotspotsPerFile.size(), issuesCount);
+    model.nodeChanged(summaryNode);
   }
 
-  private void setFileNodeSecurityHotspots(FileNode node, Iterable<LiveSecurityHotspot> securityHotspotsPointer) {
-    node.removeAllChildren();
-
-    var securityHotspots = new TreeSet<>(SECURITY_HOTSPOT_COMPARATOR);
-
-    for (var securityHotspot : securityHotspotsPointer) {
-      securityHotspots.add(securityHotspot);
+  private List<LiveSecurityHotspotNode> setFileSecurityHotspots(VirtualFile file, List<LiveSecurityHotspot> sortedSecurityHotspots) {
+    var fNode = index.getFileNode(file);
+    if (fNode != null) {
+      return FileNodeUpdater.update(model, fNode, sortedSecurityHotspots, hotspot -> new LiveSecurityHotspotNode(hotspot, false));
     }
 
-    for (var securityHotspot : securityHotspots) {
+    fNode = new FileNode(file, true);
+    index.setFileNode(fNode);
+    var nodes = new ArrayList<LiveSecurityHotspotNode>(sortedSecurityHotspots.size());
+    for (var securityHotspot : sortedSecurityHotspots) {
       var iNode = new LiveSecurityHotspotNode(securityHotspot, false);
-      node.add(iNode);
-
-      nonFilteredNodes.add(iNode);
+      fNode.add(iNode);
+      nodes.add(iNode);
     }
+    var parent = getFilesParent();
+    var idx = parent.insertFileNode(fNode, new FileNodeComparator());
+    var newIdx = new int[] {idx};
+    model.nodesWereInserted(parent, newIdx);
+    model.nodeChanged(parent);
+    return nodes;
   }
 
   private void removeFile(VirtualFile file) {
@@ -200,39 +191,19 @@ public class SecurityHotspotTreeModelBuilder implements FindingTreeModelBuilder
   public int updateModelWithoutFileNode(Map<VirtualFile, Collection<LiveSecurityHotspot>> map) {
     summaryNode.removeAllChildren();
 
-    for (var e : map.entrySet()) {
-      setSecurityHotspots(e.getKey(), e.getValue());
-    }
+    // sort once and append, instead of a binary search insertion (and an event) per node
+    var nodes = map.entrySet().stream()
+      .filter(e -> accept(e.getKey()))
+      .flatMap(e -> filter(e.getValue(), true).stream())
+      .map(securityHotspot -> new LiveSecurityHotspotNode(securityHotspot, true));
+    sortedDistinct(nodes, SECURITY_HOTSPOT_WITHOUT_FILE_COMPARATOR).forEach(summaryNode::add);
 
     copyToFilteredNodes();
-    model.nodeChanged(summaryNode);
+    model.nodeStructureChanged(summaryNode);
 
     return summaryNode.getFindingCount();
   }
 
-  private void setSecurityHotspots(VirtualFile file, Iterable<LiveSecurityHotspot> securityHotspots) {
-    if (!accept(file)) {
-      return;
-    }
-
-    var filtered = filter(securityHotspots, true);
-    if (filtered.isEmpty()) {
-      return;
-    }
-
-    setRootSecurityHotspots(filtered);
-  }
-
-  private void setRootSecurityHotspots(Iterable<LiveSecurityHotspot> securityHotspotsPointer) {
-    for (var securityHotspot : securityHotspotsPointer) {
-      var iNode = new LiveSecurityHotspotNode(securityHotspot, true);
-      var idx = summaryNode.insertLiveSecurityHotspotNode(iNode, SECURITY_HOTSPOT_WITHOUT_FILE_COMPARATOR);
-      var newIdx = new int[] {idx};
-      model.nodesWereInserted(summaryNode, newIdx);
-      model.nodeChanged(summaryNode);
-    }
-  }
-
   private void copyToFilteredNodes() {
     nonFilteredNodes.clear();
     Collections.list(summaryNode.children()).forEach(e -> {
@@ -348,6 +319,12 @@ public class SecurityHotspotTreeModelBuilder implements FindingTreeModelBuilder
     }
   }
 
+  /**
+   * Security Hotspots of each valid file, filtered and sorted for display. Files without any Security Hotspot to display are absent.
+   */
+  public record PreparedUpdate(Map<VirtualFile, List<LiveSecurityHotspot>> sortedHotspotsPerFile) {
+  }
+
   static class LiveSecurityHotspotNodeComparator implements Comparator<LiveSecurityHotspotNode> {
     @Override
     public int compare(LiveSecurityHotspotNode o1, LiveSecurityHotspotNode o2) {
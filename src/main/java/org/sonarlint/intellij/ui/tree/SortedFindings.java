@@ -0,0 +1,47 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.ui.tree;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Sorts the findings to display the same way the trees used to when collecting them in a {@link java.util.TreeSet}:
+ * of several findings that the comparator considers equal, only the first one is kept.
+ */
+final class SortedFindings {
+
+  private SortedFindings() {
+    // utility class
+  }
+
+  static <T> List<T> sortedDistinct(Stream<T> elements, Comparator<? super T> comparator) {
+    var sorted = elements.sorted(comparator).toList();
+    var distinct = new ArrayList<T>(sorted.size());
+    for (var element : sorted) {
+      if (distinct.isEmpty() || comparator.compare(distinct.get(distinct.size() - 1), element) != 0) {
+        distinct.add(element);
+      }
+    }
+    return distinct;
+  }
+}
@@ -20,6 +20,8 @@
 package org.sonarlint.intellij.ui.vulnerabilities.tree
 
 import com.intellij.openapi.application.ModalityState
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.util.concurrency.AppExecutorUtil
 import org.sonarlint.intellij.finding.FindingType
 import org.sonarlint.intellij.finding.Flow
 import org.sonarlint.intellij.finding.FragmentLocation
@@ -76,15 +78,24 @@ class TaintVulnerabilityTreeUpdater(private val treeSummary: TreeSummary) {
 
     var filteredTaintVulnerabilities: List<LocalTaintVulnerability> = emptyList()
 
+    /**
+     * Builds the new tree and computes the difference with the previous one in the background, one update at a time, so that
+     * the EDT only has to fire the resulting events.
+     */
+    private val treeUpdateExecutor = AppExecutorUtil.createBoundedApplicationPoolExecutor("SonarLint Taint Vulnerabilities Tree", 1)
+
     private fun applyFiltering() {
         val filters = findingFilters()
         filteredTaintVulnerabilities = taintVulnerabilities.filter { vulnerability -> filters.all { filter -> filter.filter(vulnerability) } }
-        runOnUiThread(ModalityState.defaultModalityState()) { model.setCompactTree(createCompactTree(filteredTaintVulnerabilities)) }
-        treeSummary.refresh(filteredTaintVulnerabilities.filter { it.file() != null }.groupBy { it.file() }.keys.size, filteredTaintVulnerabilities.size)
+        val taintVulnerabilitiesByFile = filteredTaintVulnerabilities.filter { it.file() != null }.groupBy { it.file()!! }
+        treeUpdateExecutor.execute {
+            val update = model.prepareUpdate(createCompactTree(taintVulnerabilitiesByFile))
+            runOnUiThread(ModalityState.defaultModalityState()) { model.applyUpdate(update) }
+        }
+        treeSummary.refresh(taintVulnerabilitiesByFile.keys.size, filteredTaintVulnerabilities.size)
     }
 
-    private fun createCompactTree(taintVulnerabilities: List<LocalTaintVulnerability>): CompactTree {
-        val taintVulnerabilitiesByFile = taintVulnerabilities.filter { it.file() != null }.groupBy { it.file()!! }
+    private fun createCompactTree(taintVulnerabilitiesByFile: Map<VirtualFile, List<LocalTaintVulnerability>>): CompactTree {
         val sortedFiles = taintVulnerabilitiesByFile.keys.sortedWith(compareBy({ it.name }, { it.path }))
             .map { FileSummary(it, taintVulnerabilitiesByFile[it]!!.size, FindingType.TAINT_VULNERABILITY) }
         val nodesByParent: MutableMap<Any, List<Any>> = mutableMapOf(model.root to sortedFiles)
@@ -0,0 +1,177 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.util
+
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.application.ReadAction
+import com.intellij.openapi.module.Module
+import com.intellij.openapi.module.ModuleManager
+import com.intellij.openapi.progress.ProcessCanceledException
+import com.intellij.openapi.progress.ProgressIndicator
+import com.intellij.openapi.progress.ProgressManager
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.roots.FileIndex
+import com.intellij.openapi.roots.ModuleRootManager
+import com.intellij.openapi.roots.ProjectRootManager
+import com.intellij.openapi.vfs.VfsUtilCore
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.util.concurrency.AppExecutorUtil
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.function.Consumer
+import kotlin.math.max
+import kotlin.math.min
+import org.sonarlint.intellij.common.ui.ReadActionUtils.Companion.computeReadActionSafely
+import org.sonarlint.intellij.common.ui.SonarLintConsole
+import org.sonarlint.intellij.common.util.FileUtils.Companion.isFileValidForSonarLintInReadAction
+
+/**
+ * Lists the content files that can be analyzed, for Analyze All Files and for the files sent to the backend.
+ *
+ * The content roots are walked in parallel. The files found are validated in chunks, each chunk under a single non-blocking
+ * read action that is restarted when a write action comes in, and the valid files are handed to the consumer chunk by chunk
+ * while the walk continues. The consumer can be called concurrently from several threads.
+ *
+ * Cancelling the indicator stops the walk. When called with read access (e.g. from the EDT), the walk happens on the calling
+ * thread, as waiting for other threads to read would block the write actions.
+ */
+object ContentFilesEnumerator {
+    private val PARALLELISM = max(1, Integer.getInteger("sonarlint.files.enumeration.parallelism", min(4, Runtime.getRuntime().availableProcessors())))
+    private val CHUNK_SIZE = max(1, Integer.getInteger("sonarlint.files.enumeration.chunk.size", 500))
+    private val executor = AppExecutorUtil.createBoundedApplicationPoolExecutor("SonarLint Files Enumeration", PARALLELISM)
+
+    @JvmStatic
+    fun enumerate(project: Project, indicator: ProgressIndicator?, chunkConsumer: Consumer<List<VirtualFile>>) {
+        val contentRoots = computeReadActionSafely(project) {
+            outermostRoots(ModuleManager.getInstance(project).modules.flatMap { ModuleRootManager.getInstance(it).contentRoots.asList() })
+        } ?: return
+        enumerate(project, contentRoots, ProjectRootManager.getInstance(project).fileIndex, { project.isDisposed }, indicator, chunkConsumer)
+    }
+
+    @JvmStatic
+    fun enumerate(module: Module, indicator: ProgressIndicator?, chunkConsumer: Consumer<List<VirtualFile>>) {
+        val contentRoots = computeReadActionSafely(module) { outermostRoots(ModuleRootManager.getInstance(module).contentRoots.asList()) } ?: return
+        enumerate(module.project, contentRoots, ModuleRootManager.getInstance(module).fileIndex, { module.isDisposed }, indicator, chunkConsumer)
+    }
+
+    private fun enumerate(
+        project: Project,
+        contentRoots: List<VirtualFile>,
+        fileIndex: FileIndex,
+        isDisposed: () -> Boolean,
+        indicator: ProgressIndicator?,
+        chunkConsumer: Consumer<List<VirtualFile>>,
+    ) {
+        val isStopped = { isDisposed() || indicator?.isCanceled == true }
+        if (ApplicationManager.getApplication().isReadAccessAllowed) {
+            contentRoots.forEach { root ->
+                walk(root, fileIndex, isStopped) { chunk -> chunkConsumer.accept(chunk.filter { isFileValidForSonarLintInReadAction(it, project) }) }
+            }
+        } else {
+            val validations = ConcurrentLinkedQueue<CompletableFuture<*>>()
+            val walks = contentRoots.map { root ->
+                CompletableFuture.runAsync({
+                    walk(root, fileIndex, isStopped) { chunk ->
+                        validations.add(CompletableFuture.runAsync({ validate(project, chunk, indicator, isStopped, chunkConsumer) }, executor))
+                    }
+                }, executor).exceptionally { e -> log(project, root, e) }
+            }
+            await(indicator, CompletableFuture.allOf(*walks.toTypedArray()))
+            await(indicator, CompletableFuture.allOf(*validations.toTypedArray()))
+        }
+        indicator?.checkCanceled()
+    }
+
+    private fun walk(root: VirtualFile, fileIndex: FileIndex, isStopped: () -> Boolean, onChunk: (List<VirtualFile>) -> Unit) {
+        var chunk = ArrayList<VirtualFile>(CHUNK_SIZE)
+        fileIndex.iterateContentUnderDirectory(root) { file ->
+            if (isStopped()) {
+                return@iterateContentUnderDirectory false
+            }
+            if (!file.isDirectory) {
+                chunk.add(file)
+                if (chunk.size == CHUNK_SIZE) {
+                    onChunk(chunk)
+                    chunk = ArrayList(CHUNK_SIZE)
+                }
+            }
+            true
+        }
+        if (chunk.isNotEmpty() && !isStopped()) {
+            onChunk(chunk)
+        }
+    }
+
+    private fun validate(
+        project: Project,
+        chunk: List<VirtualFile>,
+        indicator: ProgressIndicator?,
+        isStopped: () -> Boolean,
+        chunkConsumer: Consumer<List<VirtualFile>>,
+    ) {
+        if (isStopped()) {
+            return
+        }
+        var readAction = ReadAction.nonBlocking<List<VirtualFile>> {
+            chunk.filter {
+                ProgressManager.checkCanceled()
+                isFileValidForSonarLintInReadAction(it, project)
+            }
+        }.expireWith(project)
+        if (indicator != null) {
+            readAction = readAction.wrapProgress(indicator)
+        }
+        val validFiles = try {
+            readAction.executeSynchronously()
+        } catch (e: ProcessCanceledException) {
+            // cancelled or project closed
+            return
+        } catch (e: Exception) {
+            SonarLintConsole.get(project).error("Error while visiting files, reason: " + e.message)
+            return
+        }
+        if (validFiles.isNotEmpty() && !isStopped()) {
+            chunkConsumer.accept(validFiles)
+        }
+    }
+
+    private fun await(indicator: ProgressIndicator?, future: CompletableFuture<*>) {
+        if (indicator == null) {
+            future.join()
+        } else {
+            ProgressUtils.awaitCompletion(indicator, future)
+        }
+    }
+
+    private fun log(project: Project, root: VirtualFile, e: Throwable): Void? {
+        if (e.cause !is ProcessCanceledException && !project.isDisposed) {
+            SonarLintConsole.get(project).error("Error while listing the files of '${root.path}', reason: " + e.message)
+        }
+        return null
+    }
+
+    /**
+     * A content root nested in another one is walked with the outer root.
+     */
+    private fun outermostRoots(contentRoots: List<VirtualFile>): List<VirtualFile> {
+        val distinctRoots = contentRoots.distinct()
+        return distinctRoots.filter { root -> distinctRoots.none { other -> other != root && VfsUtilCore.isAncestor(other, root, true) } }
+    }
+}
@@ -23,19 +23,66 @@ import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.project.Project;
 import java.time.Duration;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import javax.annotation.Nullable;
 import org.sonarlint.intellij.common.ui.SonarLintConsole;
 
 public class FutureUtils {
 
-  private static final long WAITING_FREQUENCY = 100;
   public static final String TASK_EXPIRED = "task expired";
   public static final String TASK_FAILED = "task failed";
 
+  /**
+   * Same as {@link CompletableFuture#thenComposeAsync(Function)}, except that cancelling the returned future also cancels the future
+   * returned by {@code action}, e.g. to send the cancellation of an RPC request to the backend.
+   */
+  public static <S, T> CompletableFuture<T> composeCancellable(CompletableFuture<S> source, Function<? super S, CompletableFuture<T>> action) {
+    var result = new CompletableFuture<T>();
+    var inner = new AtomicReference<CompletableFuture<T>>();
+    source.whenCompleteAsync((value, error) -> {
+      if (error != null) {
+        result.completeExceptionally(error);
+        return;
+      }
+      if (result.isDone()) {
+        // cancelled before the inner future was even created
+        return;
+      }
+      CompletableFuture<T> innerFuture;
+      try {
+        innerFuture = action.apply(value);
+      } catch (Exception e) {
+        result.completeExceptionally(e);
+        return;
+      }
+      inner.set(innerFuture);
+      if (result.isCancelled()) {
+        innerFuture.cancel(true);
+        return;
+      }
+      innerFuture.whenComplete((innerValue, innerError) -> {
+        if (innerError != null) {
+          result.completeExceptionally(innerError);
+        } else {
+          result.complete(innerValue);
+        }
+      });
+    });
+    result.whenComplete((value, error) -> {
+      var innerFuture = inner.get();
+      if (result.isCancelled() && innerFuture != null) {
+        innerFuture.cancel(true);
+      }
+    });
+    return result;
+  }
+
   @Nullable
   public static <T> T waitForTask(Future<T> task, String taskName, Duration timeoutDuration) {
     try {
@@ -68,7 +115,7 @@ public class FutureUtils {
     return null;
   }
 
-  public static void waitForTask(Project project, ProgressIndicator indicator, Future<?> task, String taskName, Duration timeoutDuration) {
+  public static void waitForTask(Project project, ProgressIndicator indicator, CompletableFuture<?> task, String taskName, Duration timeoutDuration) {
     try {
       waitForFutureWithTimeout(indicator, task, timeoutDuration);
     } catch (TimeoutException ex) {
@@ -83,39 +130,25 @@ public class FutureUtils {
 
   private static <T> T waitForFutureWithTimeout(Future<T> future, Duration durationTimeout)
     throws InterruptedException, ExecutionException, TimeoutException {
-    long counter = 0;
-    while (counter < durationTimeout.toMillis()) {
-      counter += WAITING_FREQUENCY;
-      try {
-        return future.get(WAITING_FREQUENCY, TimeUnit.MILLISECONDS);
-      } catch (TimeoutException ignored) {
-        continue;
-      } catch (InterruptedException | CancellationException e) {
-        throw new InterruptedException("Interrupted");
-      }
+    try {
+      // returns as soon as the future completes, no need to wake up periodically
+      return future.get(durationTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (CancellationException e) {
+      throw new InterruptedException("Interrupted");
     }
-    throw new TimeoutException();
   }
 
-  private static void waitForFutureWithTimeout(ProgressIndicator indicator, Future<?> future, Duration durationTimeout)
+  private static void waitForFutureWithTimeout(ProgressIndicator indicator, CompletableFuture<?> future, Duration durationTimeout)
     throws InterruptedException, ExecutionException, TimeoutException {
-    long counter = 0;
-    while (counter < durationTimeout.toMillis()) {
-      counter += WAITING_FREQUENCY;
-      if (indicator.isCanceled()) {
-        future.cancel(true);
-        return;
-      }
-      try {
-        future.get(WAITING_FREQUENCY, TimeUnit.MILLISECONDS);
-        return;
-      } catch (TimeoutException ignored) {
-        continue;
-      } catch (InterruptedException | CancellationException e) {
-        throw new InterruptedException("Interrupted");
-      }
+    if (!ProgressUtils.awaitCompletion(indicator, future, durationTimeout)) {
+      future.cancel(true);
+      return;
+    }
+    try {
+      future.get();
+    } catch (CancellationException e) {
+      throw new InterruptedException("Interrupted");
     }
-    throw new TimeoutException();
   }
 
   private FutureUtils() {
@@ -43,10 +43,17 @@ public class GlobalLogOutputImpl implements GlobalLogOutput {
       .forEach(sonarLintConsole -> sonarLintConsole.error(msg, t));
   }
 
+  /**
+   * Global logs only go to the consoles that accept them, to avoid retaining and printing every line once per open project.
+   * When none does (e.g. no log tab was opened yet), all consoles retain them so that they are not lost.
+   */
   @NotNull
   private static Stream<SonarLintConsole> getConsolesOfOpenedProjects() {
-    return Stream.of(ProjectManager.getInstance().getOpenProjects())
-      .map(project -> SonarLintUtils.getService(project, SonarLintConsole.class));
+    var consoles = Stream.of(ProjectManager.getInstance().getOpenProjects())
+      .map(project -> SonarLintUtils.getService(project, SonarLintConsole.class))
+      .toList();
+    var acceptingConsoles = consoles.stream().filter(SonarLintConsole::acceptsGlobalLogs).toList();
+    return acceptingConsoles.isEmpty() ? consoles.stream() : acceptingConsoles.stream();
   }
 
 }
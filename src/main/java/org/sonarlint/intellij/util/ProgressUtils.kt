@@ -21,35 +21,134 @@ package org.sonarlint.intellij.util
 
 import com.intellij.openapi.progress.ProcessCanceledException
 import com.intellij.openapi.progress.ProgressIndicator
+import com.intellij.openapi.progress.util.AbstractProgressIndicatorExBase
+import com.intellij.openapi.wm.ex.ProgressIndicatorEx
+import java.time.Duration
+import java.util.Collections
+import java.util.WeakHashMap
 import java.util.concurrent.CancellationException
 import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.ExecutionException
 import java.util.concurrent.TimeUnit
 import java.util.concurrent.TimeoutException
+import kotlin.math.min
 
 object ProgressUtils {
 
+    /**
+     * Used when the indicator can't notify its cancellation, see [awaitCompletion].
+     */
+    internal val CANCELLATION_CHECK_INTERVAL: Duration = Duration.ofSeconds(1)
+
+    /**
+     * State delegates can't be removed from an indicator, so a single one is added per indicator and shared by all the waits
+     */
+    private val cancellationNotifiers: MutableMap<ProgressIndicatorEx, CancellationNotifier> = Collections.synchronizedMap(WeakHashMap())
+
     @JvmStatic
     fun <T> waitForFuture(indicator: ProgressIndicator, future: CompletableFuture<T>): T {
-        while (true) {
-            try {
-                indicator.checkCanceled()
-            } catch (e: ProcessCanceledException) {
+        try {
+            if (!awaitCompletion(indicator, future)) {
                 future.cancel(true)
-                throw e
+                throw ProcessCanceledException()
+            }
+            return future.get()
+        } catch (_: InterruptedException) {
+            throw ProcessCanceledException()
+        } catch (_: CancellationException) {
+            throw ProcessCanceledException()
+        } catch (e: ExecutionException) {
+            throw e.cause ?: e
+        }
+    }
+
+    /**
+     * Parks the calling thread until the future completes or the indicator is cancelled, whichever comes first.
+     * There is no polling: the thread is woken up by a completion callback of the future, or by a state delegate notified when
+     * the indicator is cancelled. Indicators not supporting state delegates are checked every [CANCELLATION_CHECK_INTERVAL].
+     *
+     * @return true if the future completed (normally or not), false if the indicator was cancelled first
+     * @throws TimeoutException if the future is not completed after the given timeout
+     */
+    @JvmStatic
+    @JvmOverloads
+    @Throws(InterruptedException::class, TimeoutException::class)
+    fun awaitCompletion(indicator: ProgressIndicator, future: CompletableFuture<*>, timeout: Duration? = null): Boolean {
+        val cancelled = CompletableFuture<Void>()
+        val registration = onCancellation(indicator) { cancelled.complete(null) }
+        try {
+            return awaitCompletion(indicator, future, CompletableFuture.anyOf(future, cancelled), registration != null, timeout)
+        } finally {
+            registration?.close()
+        }
+    }
+
+    /**
+     * Runs [listener] when the indicator is cancelled, until the returned registration is closed. The listener is not run if the
+     * indicator was already cancelled.
+     *
+     * @return null if the indicator can't notify its cancellation, it then has to be checked every [CANCELLATION_CHECK_INTERVAL]
+     */
+    @JvmStatic
+    fun onCancellation(indicator: ProgressIndicator, listener: Runnable): AutoCloseable? {
+        val notifier = cancellationNotifier(indicator) ?: return null
+        notifier.listeners.add(listener)
+        return AutoCloseable { notifier.listeners.remove(listener) }
+    }
+
+    private fun awaitCompletion(
+        indicator: ProgressIndicator,
+        future: CompletableFuture<*>,
+        completedOrCancelled: CompletableFuture<*>,
+        notifiesCancellation: Boolean,
+        timeout: Duration?,
+    ): Boolean {
+        val deadline = timeout?.let { System.nanoTime() + it.toNanos() }
+        while (!future.isDone) {
+            if (indicator.isCanceled) {
+                return false
+            }
+            var waitNanos = if (notifiesCancellation) Long.MAX_VALUE else CANCELLATION_CHECK_INTERVAL.toNanos()
+            if (deadline != null) {
+                val remainingNanos = deadline - System.nanoTime()
+                if (remainingNanos <= 0) {
+                    throw TimeoutException()
+                }
+                waitNanos = min(waitNanos, remainingNanos)
             }
             try {
-                return future.get(100, TimeUnit.MILLISECONDS)
+                completedOrCancelled.get(waitNanos, TimeUnit.NANOSECONDS)
             } catch (_: TimeoutException) {
-                continue
-            } catch (_: InterruptedException) {
-                throw ProcessCanceledException()
+                // check the cancellation and the deadline again
+            } catch (_: ExecutionException) {
+                // the future failed, it is done
             } catch (_: CancellationException) {
-                throw ProcessCanceledException()
-            } catch (e: ExecutionException) {
-                throw e.cause ?: e
+                // the future was cancelled, it is done
             }
         }
+        return true
+    }
+
+    internal fun cancellationListenersCount(indicator: ProgressIndicator) =
+        (indicator as? ProgressIndicatorEx)?.let { cancellationNotifiers[it]?.listeners?.size } ?: 0
+
+    private fun cancellationNotifier(indicator: ProgressIndicator): CancellationNotifier? {
+        if (indicator !is ProgressIndicatorEx) {
+            return null
+        }
+        return synchronized(cancellationNotifiers) {
+            cancellationNotifiers.getOrPut(indicator) { CancellationNotifier().also { indicator.addStateDelegate(it) } }
+        }
+    }
+
+    private class CancellationNotifier : AbstractProgressIndicatorExBase() {
+        val listeners: MutableSet<Runnable> = ConcurrentHashMap.newKeySet()
+
+        override fun cancel() {
+            super.cancel()
+            listeners.forEach { it.run() }
+        }
     }
 
 }
@@ -21,12 +21,12 @@ package org.sonarlint.intellij.util;
 
 
 import com.intellij.openapi.module.Module;
+import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.project.ProjectLocator;
 import com.intellij.openapi.project.ProjectUtil;
 import com.intellij.openapi.roots.ModuleRootManager;
 import com.intellij.openapi.roots.ProjectFileIndex;
-import com.intellij.openapi.roots.ProjectRootManager;
 import com.intellij.openapi.vfs.VfsUtilCore;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.openapi.vfs.VirtualFileVisitor;
@@ -34,6 +34,7 @@ import com.intellij.util.PathUtil;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import javax.annotation.CheckForNull;
 import org.jetbrains.annotations.Nullable;
@@ -150,39 +151,22 @@ public class SonarLintAppUtils {
   }
 
   public static List<VirtualFile> visitAndAddAllFilesForModule(Module module) {
-    var filesToAdd = new ArrayList<VirtualFile>();
-    var moduleFileIndex = ModuleRootManager.getInstance(module).getFileIndex();
-    moduleFileIndex.iterateContent(vFile -> {
-      if (module.isDisposed()) {
-        return false;
-      }
-
-      if (!vFile.isDirectory() && FileUtils.Companion.isFileValidForSonarLint(vFile, module.getProject())) {
-        filesToAdd.add(vFile);
-        return true;
-      }
-
-      return true;
-    });
-    return filesToAdd;
+    var filesToAdd = Collections.synchronizedList(new ArrayList<VirtualFile>());
+    ContentFilesEnumerator.enumerate(module, null, filesToAdd::addAll);
+    return new ArrayList<>(filesToAdd);
   }
 
   public static List<VirtualFile> visitAndAddAllFilesForProject(Project project) {
-    var filesToAdd = new ArrayList<VirtualFile>();
-    var projectFileIndex = ProjectRootManager.getInstance(project).getFileIndex();
-    projectFileIndex.iterateContent(vFile -> {
-      if (project.isDisposed()) {
-        return false;
-      }
-
-      if (!vFile.isDirectory() && FileUtils.Companion.isFileValidForSonarLint(vFile, project)) {
-        filesToAdd.add(vFile);
-        return true;
-      }
+    return visitAndAddAllFilesForProject(project, null);
+  }
 
-      return true;
-    });
-    return filesToAdd;
+  /**
+   * @param indicator cancelling it stops the enumeration with a {@link com.intellij.openapi.progress.ProcessCanceledException}
+   */
+  public static List<VirtualFile> visitAndAddAllFilesForProject(Project project, @Nullable ProgressIndicator indicator) {
+    var filesToAdd = Collections.synchronizedList(new ArrayList<VirtualFile>());
+    ContentFilesEnumerator.enumerate(project, indicator, filesToAdd::addAll);
+    return new ArrayList<>(filesToAdd);
   }
 
   public static List<VirtualFile> visitAndAddAllChildren(VirtualFile file, Project project) {
@@ -0,0 +1,49 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij
+
+import java.time.Duration
+
+/**
+ * Support for the benchmarks of the test sources. They are tagged with [TAG] and excluded from the default test run, run them with
+ * `./gradlew test -Pbenchmarks --tests '*Benchmarks'`.
+ */
+object Benchmarks {
+    const val TAG = "benchmark"
+
+    /**
+     * Runs [block] [warmups] times to let the JIT compile it, then [iterations] times, and prints the median duration.
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun measure(name: String, warmups: Int = 5, iterations: Int = 20, block: Runnable): Duration {
+        repeat(warmups) { block.run() }
+        val durations = (1..iterations).map {
+            val start = System.nanoTime()
+            block.run()
+            System.nanoTime() - start
+        }.sorted()
+        val median = Duration.ofNanos(durations[durations.size / 2])
+        println("[benchmark] $name: ${formatMillis(median)} ms (median of $iterations runs, min ${formatMillis(Duration.ofNanos(durations.first()))} ms)")
+        return median
+    }
+
+    private fun formatMillis(duration: Duration) = "%.3f".format(duration.toNanos() / 1_000_000.0)
+}
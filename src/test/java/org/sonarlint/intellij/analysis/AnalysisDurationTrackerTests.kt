@@ -0,0 +1,95 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.analysis
+
+import com.intellij.openapi.vfs.VirtualFile
+import java.time.Duration
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.sonarlint.intellij.AbstractSonarLintLightTests
+
+class AnalysisDurationTrackerTests : AbstractSonarLintLightTests() {
+
+    private val underTest = AnalysisDurationTracker()
+    private lateinit var javaFile: VirtualFile
+    private lateinit var otherJavaFile: VirtualFile
+    private lateinit var textFile: VirtualFile
+
+    @BeforeEach
+    fun prepare() {
+        javaFile = myFixture.addFileToProject("A.java", "class A {}").virtualFile
+        otherJavaFile = myFixture.addFileToProject("B.java", "class B {}").virtualFile
+        textFile = myFixture.addFileToProject("C.txt", "text").virtualFile
+    }
+
+    @Test
+    fun should_not_estimate_anything_without_samples() {
+        assertThat(underTest.estimate(listOf(javaFile))).isZero()
+        assertThat(underTest.estimate(emptyList())).isZero()
+    }
+
+    @Test
+    fun should_estimate_the_moving_average_of_a_file() {
+        underTest.record(listOf(javaFile), Duration.ofMillis(1000))
+        assertThat(underTest.estimate(listOf(javaFile))).isEqualTo(Duration.ofMillis(1000))
+
+        underTest.record(listOf(javaFile), Duration.ofMillis(2000))
+
+        assertThat(underTest.estimate(listOf(javaFile))).isEqualTo(Duration.ofMillis(1300))
+    }
+
+    @Test
+    fun should_fall_back_to_the_average_of_the_file_type() {
+        underTest.record(listOf(javaFile), Duration.ofMillis(1000))
+
+        assertThat(underTest.estimate(listOf(otherJavaFile))).isEqualTo(Duration.ofMillis(1000))
+        assertThat(underTest.estimate(listOf(textFile))).isZero()
+    }
+
+    @Test
+    fun should_not_record_multi_file_analyses() {
+        underTest.record(listOf(javaFile), Duration.ofMillis(1000))
+
+        underTest.record(listOf(javaFile, otherJavaFile), Duration.ofMillis(100))
+
+        assertThat(underTest.estimate(listOf(javaFile))).isEqualTo(Duration.ofMillis(1000))
+        assertThat(underTest.estimate(listOf(otherJavaFile))).isEqualTo(Duration.ofMillis(1000))
+    }
+
+    @Test
+    fun should_estimate_the_slowest_of_the_files() {
+        underTest.record(listOf(javaFile), Duration.ofMillis(1000))
+        underTest.record(listOf(textFile), Duration.ofMillis(100))
+
+        assertThat(underTest.estimate(listOf(textFile, javaFile))).isEqualTo(Duration.ofMillis(1000))
+    }
+
+    @Test
+    fun should_forget_the_average_of_a_file() {
+        underTest.record(listOf(javaFile), Duration.ofMillis(1000))
+        underTest.record(listOf(otherJavaFile), Duration.ofMillis(100))
+
+        underTest.forget(javaFile)
+
+        assertThat(underTest.estimate(listOf(javaFile))).isEqualTo(Duration.ofMillis(730))
+    }
+
+}
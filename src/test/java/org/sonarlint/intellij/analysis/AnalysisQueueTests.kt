@@ -0,0 +1,201 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.analysis
+
+import com.intellij.openapi.progress.ProcessCanceledException
+import com.intellij.openapi.progress.ProgressIndicator
+import com.intellij.openapi.progress.util.ProgressIndicatorBase
+import com.intellij.openapi.vfs.VirtualFile
+import java.util.Collections
+import java.util.UUID
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import org.awaitility.Awaitility.await
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.never
+import org.mockito.Mockito.verify
+import org.sonarlint.intellij.AbstractSonarLintLightTests
+import org.sonarlint.intellij.trigger.TriggerType
+import org.sonarlint.intellij.util.FutureUtils
+import org.sonarlint.intellij.util.ProgressUtils
+
+class AnalysisQueueTests : AbstractSonarLintLightTests() {
+
+    private val callback = mock(AnalysisCallback::class.java)
+    private val progress = mock(ProgressIndicator::class.java)
+    private lateinit var file: VirtualFile
+    private lateinit var queue: AnalysisQueue
+
+    @BeforeEach
+    fun prepare() {
+        file = myFixture.addFileToProject("Foo.java", "class Foo {}").virtualFile
+        queue = AnalysisQueue(1, 3)
+    }
+
+    @Test
+    fun should_preempt_and_requeue_a_lower_priority_analysis() {
+        val backgroundState = analysisState(TriggerType.ALL)
+        val backgroundRuns = AtomicInteger()
+        val rpcRequests = Collections.synchronizedList(mutableListOf<CompletableFuture<Void>>())
+        val backgroundStarted = CountDownLatch(1)
+        val background = CompletableFuture.supplyAsync {
+            queue.runWhenReady(project, backgroundState, { AnalysisPriority.BACKGROUND }, true, progress) {
+                val rpcRequest = CompletableFuture<Void>()
+                rpcRequests.add(rpcRequest)
+                // same composition as the backend requests, the RPC future is only created once the backend is available
+                val request = FutureUtils.composeCancellable(CompletableFuture.completedFuture(Unit)) { rpcRequest }
+                backgroundState.attachBackendRequest(request)
+                if (backgroundRuns.incrementAndGet() == 1) {
+                    backgroundStarted.countDown()
+                    // the first run only returns once preempted
+                    runCatching { request.join() }
+                }
+                backgroundRuns.get()
+            }
+        }
+        assertThat(backgroundStarted.await(5, TimeUnit.SECONDS)).isTrue()
+        val firstBackgroundId = backgroundState.id
+
+        val focused = queue.runWhenReady(project, analysisState(TriggerType.EDITOR_CHANGE), { AnalysisPriority.FOCUSED_EDITOR }, true, progress) {
+            "focused"
+        }
+
+        assertThat(focused).isEqualTo("focused")
+        assertThat(background.get(5, TimeUnit.SECONDS)).isEqualTo(2)
+        assertThat(backgroundState.id).isNotEqualTo(firstBackgroundId)
+        assertThat(backgroundState.isPreempted()).isFalse()
+        assertThat(rpcRequests[0]).isCancelled()
+        verify(progress, never()).cancel()
+    }
+
+    @Test
+    fun should_not_preempt_an_analysis_the_user_waits_for() {
+        val release = CountDownLatch(1)
+        val started = CountDownLatch(1)
+        val checkIn = CompletableFuture.supplyAsync {
+            queue.runWhenReady(project, analysisState(TriggerType.CHECK_IN), { AnalysisPriority.BACKGROUND }, false, progress) {
+                started.countDown()
+                release.await(5, TimeUnit.SECONDS)
+                "check-in"
+            }
+        }
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue()
+        val focused = CompletableFuture.supplyAsync {
+            queue.runWhenReady(project, analysisState(TriggerType.EDITOR_CHANGE), { AnalysisPriority.FOCUSED_EDITOR }, true, progress) {
+                "focused"
+            }
+        }
+        await().atMost(5, TimeUnit.SECONDS).until { queue.queueDepth(AnalysisPriority.FOCUSED_EDITOR) == 1 }
+
+        assertThat(focused).isNotDone()
+        release.countDown()
+
+        assertThat(checkIn.get(5, TimeUnit.SECONDS)).isEqualTo("check-in")
+        assertThat(focused.get(5, TimeUnit.SECONDS)).isEqualTo("focused")
+    }
+
+    @Test
+    fun should_start_the_most_urgent_analysis_first() {
+        val release = CountDownLatch(1)
+        val started = CountDownLatch(1)
+        val startOrder = Collections.synchronizedList(mutableListOf<AnalysisPriority>())
+        val running = CompletableFuture.runAsync {
+            queue.runWhenReady(project, analysisState(TriggerType.CHECK_IN), { AnalysisPriority.FOCUSED_EDITOR }, false, progress) {
+                started.countDown()
+                release.await(5, TimeUnit.SECONDS)
+            }
+        }
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue()
+        val queued = listOf(AnalysisPriority.BACKGROUND, AnalysisPriority.OPEN_TAB, AnalysisPriority.VISIBLE_EDITOR).map { priority ->
+            val future = CompletableFuture.runAsync {
+                queue.runWhenReady(project, analysisState(TriggerType.CHECK_IN), { priority }, false, progress) { startOrder.add(priority) }
+            }
+            await().atMost(5, TimeUnit.SECONDS).until { queue.queueDepth(priority) == 1 }
+            future
+        }
+
+        release.countDown()
+        running.get(5, TimeUnit.SECONDS)
+        queued.forEach { it.get(5, TimeUnit.SECONDS) }
+
+        assertThat(startOrder).containsExactly(AnalysisPriority.VISIBLE_EDITOR, AnalysisPriority.OPEN_TAB, AnalysisPriority.BACKGROUND)
+    }
+
+    @Test
+    fun should_compute_the_priority_again_when_requeued() {
+        val backgroundState = analysisState(TriggerType.EDITOR_OPEN)
+        val priorities = mutableListOf(AnalysisPriority.OPEN_TAB, AnalysisPriority.FOCUSED_EDITOR)
+        val computedPriorities = Collections.synchronizedList(mutableListOf<AnalysisPriority>())
+        val backgroundStarted = CountDownLatch(1)
+        val background = CompletableFuture.runAsync {
+            queue.runWhenReady(project, backgroundState, { priorities.removeAt(0).also { computedPriorities.add(it) } }, true, progress) {
+                val request = CompletableFuture<Void>()
+                backgroundState.attachBackendRequest(request)
+                if (computedPriorities.size == 1) {
+                    backgroundStarted.countDown()
+                    runCatching { request.join() }
+                }
+            }
+        }
+        assertThat(backgroundStarted.await(5, TimeUnit.SECONDS)).isTrue()
+
+        queue.runWhenReady(project, analysisState(TriggerType.EDITOR_CHANGE), { AnalysisPriority.VISIBLE_EDITOR }, true, progress) {}
+        background.get(5, TimeUnit.SECONDS)
+
+        assertThat(computedPriorities).containsExactly(AnalysisPriority.OPEN_TAB, AnalysisPriority.FOCUSED_EDITOR)
+    }
+
+    @Test
+    fun should_wake_up_a_queued_analysis_when_it_is_cancelled() {
+        val release = CountDownLatch(1)
+        val started = CountDownLatch(1)
+        val running = CompletableFuture.runAsync {
+            queue.runWhenReady(project, analysisState(TriggerType.CHECK_IN), { AnalysisPriority.FOCUSED_EDITOR }, false, progress) {
+                started.countDown()
+                release.await(10, TimeUnit.SECONDS)
+            }
+        }
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue()
+        val indicator = ProgressIndicatorBase()
+        val queued = CompletableFuture.supplyAsync {
+            queue.runWhenReady(project, analysisState(TriggerType.EDITOR_CHANGE), { AnalysisPriority.BACKGROUND }, true, indicator) { "queued" }
+        }
+        await().atMost(5, TimeUnit.SECONDS).until { queue.queueDepth(AnalysisPriority.BACKGROUND) == 1 }
+
+        indicator.cancel()
+
+        // the queued analysis doesn't wait for the running one to release its slot
+        assertThatThrownBy { queued.get(5, TimeUnit.SECONDS) }.hasCauseInstanceOf(ProcessCanceledException::class.java)
+        assertThat(queue.queueDepth(AnalysisPriority.BACKGROUND)).isZero()
+        assertThat(ProgressUtils.cancellationListenersCount(indicator)).isZero()
+        release.countDown()
+        running.get(5, TimeUnit.SECONDS)
+    }
+
+    private fun analysisState(triggerType: TriggerType) =
+        AnalysisState(UUID.randomUUID(), callback, mutableListOf(file), module, triggerType, progress)
+
+}
@@ -0,0 +1,64 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.analysis
+
+import com.intellij.task.ProjectTaskListener
+import com.intellij.task.ProjectTaskManager
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockito.Mockito.mock
+import org.sonarlint.intellij.AbstractSonarLintLightTests
+import org.sonarlint.intellij.common.util.SonarLintUtils.getService
+import org.sonarlint.intellij.messages.ProjectConfigurationListener
+
+class AnalysisSettingsTrackerTests : AbstractSonarLintLightTests() {
+
+    private lateinit var settingsTracker: AnalysisSettingsTracker
+
+    @BeforeEach
+    fun prepare() {
+        settingsTracker = getService(project, AnalysisSettingsTracker::class.java)
+    }
+
+    @Test
+    fun should_keep_the_fingerprint_while_nothing_changes() {
+        assertThat(settingsTracker.currentFingerprint()).isEqualTo(settingsTracker.currentFingerprint())
+    }
+
+    @Test
+    fun should_outdate_previous_findings_when_the_project_settings_change() {
+        val fingerprintBeforeChange = settingsTracker.currentFingerprint()
+
+        project.messageBus.syncPublisher(ProjectConfigurationListener.TOPIC).changed(projectSettings)
+
+        assertThat(settingsTracker.currentFingerprint()).isNotEqualTo(fingerprintBeforeChange)
+    }
+
+    @Test
+    fun should_outdate_previous_findings_when_a_build_task_finishes() {
+        val fingerprintBeforeBuild = settingsTracker.currentFingerprint()
+
+        project.messageBus.syncPublisher(ProjectTaskListener.TOPIC).finished(mock(ProjectTaskManager.Result::class.java))
+
+        assertThat(settingsTracker.currentFingerprint()).isNotEqualTo(fingerprintBeforeBuild)
+    }
+
+}
@@ -25,9 +25,12 @@ import java.util.UUID
 import org.assertj.core.api.Assertions.assertThat
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
+import org.mockito.ArgumentCaptor
 import org.mockito.Mockito
 import org.sonarlint.intellij.AbstractSonarLintLightTests
+import org.sonarlint.intellij.capture
 import org.sonarlint.intellij.trigger.TriggerType
+import org.sonarlint.intellij.util.VirtualFileUtils
 
 class AnalysisStateTests : AbstractSonarLintLightTests() {
 
@@ -103,4 +106,32 @@ class AnalysisStateTests : AbstractSonarLintLightTests() {
         assertThat(analysisState2.isRedundant(analysisState)).isFalse()
     }
 
+    @Test
+    fun should_only_consider_on_the_fly_analyses_as_analyzing_a_file() {
+        val onTheFly = AnalysisState(randomUuid1, callback, mutableListOf(file1), module, TriggerType.EDITOR_CHANGE, progress)
+        val report = AnalysisState(randomUuid2, callback, mutableListOf(file1, file2), module, TriggerType.ALL, progress)
+
+        assertThat(onTheFly.isAnalyzingOnTheFly(file1)).isTrue()
+        assertThat(onTheFly.isAnalyzingOnTheFly(file2)).isFalse()
+        assertThat(report.isAnalyzingOnTheFly(file1)).isFalse()
+    }
+
+    @Test
+    fun should_publish_intermediate_results_as_per_file_deltas() {
+        val file = myFixture.configureByText("file.ext", "Text").virtualFile
+        val otherFile = myFixture.addFileToProject("other.ext", "Text").virtualFile
+        val analysisState = AnalysisState(randomUuid1, callback, mutableListOf(file, otherFile), module, TriggerType.EDITOR_OPEN, progress)
+        val captor = ArgumentCaptor.forClass(AnalysisIntermediateResult::class.java)
+
+        analysisState.addRawIssues(randomUuid1, mapOf(VirtualFileUtils.toURI(file)!! to emptyList()), true)
+        analysisState.addRawIssues(randomUuid1, mapOf(VirtualFileUtils.toURI(otherFile)!! to emptyList()), true)
+        analysisState.addRawIssues(randomUuid1, mapOf(VirtualFileUtils.toURI(file)!! to emptyList()), true)
+
+        Mockito.verify(callback, Mockito.times(3)).onIntermediateResult(capture(captor))
+        val (first, second, third) = captor.allValues
+        assertThat(first.findings.filesInvolved).containsOnly(file)
+        assertThat(second.findings.filesInvolved).containsOnly(otherFile)
+        assertThat(third.findings.filesInvolved).containsOnly(file)
+    }
+
 }
@@ -0,0 +1,115 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.analysis;
+
+import com.intellij.openapi.progress.util.ProgressIndicatorBase;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.sonarsource.sonarlint.core.commons.api.progress.CanceledException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+class ConcurrentModuleAnalysesTests {
+
+  private final Set<String> startedModules = ConcurrentHashMap.newKeySet();
+  private final ProgressIndicatorBase indicator = new ProgressIndicatorBase();
+  private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void should_merge_the_results_of_all_modules_in_module_order() {
+    var lastModuleAnalyzed = new CountDownLatch(1);
+
+    var results = ConcurrentModuleAnalyses.analyze(List.of("first", "second", "last"), module -> {
+      if ("first".equals(module)) {
+        // completes after the other modules
+        await(lastModuleAnalyzed);
+      } else if ("last".equals(module)) {
+        lastModuleAnalyzed.countDown();
+      }
+      return module.length();
+    }, indicator, executor);
+
+    assertThat(results).containsExactly(
+      entry("first", 5),
+      entry("second", 6),
+      entry("last", 4));
+  }
+
+  @Test
+  void should_cancel_pending_modules_when_the_indicator_is_cancelled() throws InterruptedException {
+    var runningModulesStarted = new CountDownLatch(2);
+    var interruptedModules = new CountDownLatch(2);
+    new Thread(() -> {
+      await(runningModulesStarted);
+      indicator.cancel();
+    }).start();
+
+    assertThatThrownBy(() -> ConcurrentModuleAnalyses.analyze(List.of("running1", "running2", "pending"), module -> {
+      startedModules.add(module);
+      runningModulesStarted.countDown();
+      try {
+        new CountDownLatch(1).await();
+      } catch (InterruptedException e) {
+        interruptedModules.countDown();
+        Thread.currentThread().interrupt();
+      }
+      return null;
+    }, indicator, executor)).isInstanceOf(CanceledException.class);
+
+    assertThat(interruptedModules.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(startedModules).containsOnly("running1", "running2");
+  }
+
+  @Test
+  void should_report_the_first_failure_without_waiting_for_other_modules() {
+    var failure = new IllegalStateException("analysis failed");
+
+    assertThatThrownBy(() -> ConcurrentModuleAnalyses.analyze(List.of("blocked", "failing"), module -> {
+      if ("failing".equals(module)) {
+        throw failure;
+      }
+      await(new CountDownLatch(1));
+      return null;
+    }, indicator, executor)).isSameAs(failure);
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+}
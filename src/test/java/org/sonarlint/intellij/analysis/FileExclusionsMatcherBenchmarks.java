@@ -0,0 +1,56 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.analysis;
+
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.sonarlint.intellij.Benchmarks;
+import org.sonarlint.intellij.config.project.ExclusionItem;
+import org.sonarsource.sonarlint.core.client.utils.ClientFileExclusions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.sonarlint.intellij.analysis.FileExclusionsMatcherTests.randomGlobs;
+import static org.sonarlint.intellij.analysis.FileExclusionsMatcherTests.randomPaths;
+import static org.sonarlint.intellij.config.project.ExclusionItem.Type.GLOB;
+
+/**
+ * Tests 100k paths against 200 glob exclusions by evaluating every glob, as {@link ClientFileExclusions} does, then with
+ * {@link FileExclusionsMatcher}.
+ */
+@Tag(Benchmarks.TAG)
+class FileExclusionsMatcherBenchmarks {
+
+  @Test
+  void match_many_paths_against_many_globs() {
+    var random = new Random(42);
+    var globs = randomGlobs(random, 200);
+    var paths = randomPaths(random, 100_000);
+    var reference = new ClientFileExclusions(Set.of(), Set.of(), globs);
+    var matcher = FileExclusionsMatcher.compile(globs.stream().map(glob -> new ExclusionItem(GLOB, glob)).toList());
+
+    assertThat(paths.stream().map(matcher::test).toList()).isEqualTo(paths.stream().map(reference::test).toList());
+
+    Benchmarks.measure("each glob, " + paths.size() + " paths", 1, 5, () -> paths.forEach(reference::test));
+    Benchmarks.measure("compiled matcher, " + paths.size() + " paths", () -> paths.forEach(matcher::test));
+  }
+
+}
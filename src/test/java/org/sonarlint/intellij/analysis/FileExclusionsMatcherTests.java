@@ -0,0 +1,128 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.analysis;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.sonarlint.intellij.config.project.ExclusionItem;
+import org.sonarsource.sonarlint.core.client.utils.ClientFileExclusions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.sonarlint.intellij.config.project.ExclusionItem.Type.DIRECTORY;
+import static org.sonarlint.intellij.config.project.ExclusionItem.Type.FILE;
+import static org.sonarlint.intellij.config.project.ExclusionItem.Type.GLOB;
+
+class FileExclusionsMatcherTests {
+
+  @Test
+  void should_match_files_exactly() {
+    var matcher = FileExclusionsMatcher.compile(List.of(new ExclusionItem(FILE, "src/Foo.java")));
+
+    assertThat(matcher.test("src/Foo.java")).isTrue();
+    assertThat(matcher.test("src/Foo.javax")).isFalse();
+    assertThat(matcher.test("other/src/Foo.java")).isFalse();
+  }
+
+  @Test
+  void should_match_files_under_excluded_directories() {
+    var matcher = FileExclusionsMatcher.compile(List.of(new ExclusionItem(DIRECTORY, "src/generated")));
+
+    assertThat(matcher.test("src/generated/Foo.java")).isTrue();
+    assertThat(matcher.test("src/generated/deep/Foo.java")).isTrue();
+    assertThat(matcher.test("src/generatedFoo.java")).isFalse();
+    assertThat(matcher.test("src/Foo.java")).isFalse();
+  }
+
+  @Test
+  void should_match_globs() {
+    var matcher = FileExclusionsMatcher.compile(List.of(
+      new ExclusionItem(GLOB, "**/*.min.js"),
+      new ExclusionItem(GLOB, "**/{dist,build}/**"),
+      new ExclusionItem(GLOB, "*.t[xs]t")));
+
+    assertThat(matcher.test("web/lib/jquery.min.js")).isTrue();
+    assertThat(matcher.test("web/lib/jquery.js")).isFalse();
+    assertThat(matcher.test("app/dist/main.js")).isTrue();
+    assertThat(matcher.test("app/distribution/main.js")).isFalse();
+    assertThat(matcher.test("notes.txt")).isTrue();
+    assertThat(matcher.test("dir/notes.txt")).isFalse();
+  }
+
+  @Test
+  void should_extract_the_longest_literal_of_globs() {
+    assertThat(FileExclusionsMatcher.longestLiteral("**/*.min.js")).isEqualTo(".min.js");
+    assertThat(FileExclusionsMatcher.longestLiteral("**/node_modules/**")).isEqualTo("node_modules");
+    assertThat(FileExclusionsMatcher.longestLiteral("src/Main{Test,IT}.java")).isEqualTo(".java");
+    assertThat(FileExclusionsMatcher.longestLiteral("[abcdefgh]x")).isEqualTo("x");
+    assertThat(FileExclusionsMatcher.longestLiteral("\\*escaped")).isEqualTo("escaped");
+    assertThat(FileExclusionsMatcher.longestLiteral("**")).isEmpty();
+  }
+
+  @Test
+  void should_give_the_same_results_as_testing_each_glob() {
+    var random = new Random(42);
+    var globs = randomGlobs(random, 200);
+    var paths = randomPaths(random, 100_000);
+    var reference = new ClientFileExclusions(Set.of(), Set.of(), globs);
+    var matcher = FileExclusionsMatcher.compile(globs.stream().map(glob -> new ExclusionItem(GLOB, glob)).toList());
+
+    var expected = paths.stream().map(reference::test).toList();
+    var actual = paths.stream().map(matcher::test).toList();
+
+    assertThat(actual).isEqualTo(expected);
+    assertThat(expected).contains(true, false);
+  }
+
+  static Set<String> randomGlobs(Random random, int count) {
+    var globs = new LinkedHashSet<String>();
+    while (globs.size() < count) {
+      globs.add(switch (random.nextInt(5)) {
+        case 0 -> "**/" + word(random) + "/**";
+        case 1 -> "**/*." + word(random);
+        case 2 -> word(random) + "/**/*" + word(random) + ".*";
+        case 3 -> "**/" + word(random) + "?" + word(random) + ".{js,ts}";
+        default -> "**/" + word(random) + "*";
+      });
+    }
+    return globs;
+  }
+
+  static List<String> randomPaths(Random random, int count) {
+    var paths = new ArrayList<String>();
+    for (var i = 0; i < count; i++) {
+      var segments = new ArrayList<String>();
+      for (var depth = random.nextInt(6); depth >= 0; depth--) {
+        segments.add(word(random));
+      }
+      paths.add(String.join("/", segments) + "." + List.of("java", "js", "ts", "xml", "min.js").get(random.nextInt(5)));
+    }
+    return paths;
+  }
+
+  private static String word(Random random) {
+    var words = List.of("src", "main", "test", "generated", "node_modules", "dist", "build", "lib", "vendor", "target", "foo", "bar",
+      "util", "model", "api", "impl", "web", "app", "core", "docs");
+    return words.get(random.nextInt(words.size()));
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.analysis;
+
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.roots.ContentEntry;
+import com.intellij.openapi.roots.ModifiableRootModel;
+import com.intellij.testFramework.LightProjectDescriptor;
+import com.intellij.testFramework.PsiTestUtil;
+import com.intellij.testFramework.fixtures.DefaultLightProjectDescriptor;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonarlint.intellij.AbstractSonarLintLightTests;
+import org.sonarlint.intellij.Benchmarks;
+import org.sonarlint.intellij.java.JavaAnalysisConfigurator;
+import org.sonarlint.intellij.java.JavaClasspathCache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.sonarlint.intellij.common.util.SonarLintUtils.getService;
+
+/**
+ * Configures the analysis of a module depending on 500 libraries, computing its classpath every time as it was done before
+ * {@link JavaClasspathCache}, then reusing the cached classpath.
+ */
+@Tag(Benchmarks.TAG)
+class JavaAnalysisConfiguratorBenchmarks extends AbstractSonarLintLightTests {
+
+  private static final int LIBRARY_COUNT = 500;
+
+  @TempDir
+  Path tempDirPath;
+
+  private final JavaAnalysisConfigurator underTest = new JavaAnalysisConfigurator();
+
+  @Override
+  protected LightProjectDescriptor getProjectDescriptor() {
+    return new DefaultLightProjectDescriptor() {
+      @Override
+      public void configureModule(@NotNull Module module, @NotNull ModifiableRootModel model, @NotNull ContentEntry contentEntry) {
+        super.configureModule(module, model, contentEntry);
+        for (var i = 0; i < LIBRARY_COUNT; i++) {
+          var libraryPath = createFile(tempDirPath.resolve("libs").resolve("lib" + i + ".jar"));
+          PsiTestUtil.addLibrary(model, "lib" + i, libraryPath.getParent().toString(), libraryPath.getFileName().toString());
+        }
+      }
+    };
+  }
+
+  private static Path createFile(Path path) {
+    try {
+      Files.createDirectories(path.getParent());
+      return Files.createFile(path);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Test
+  void configure_a_module_with_many_libraries() {
+    var cache = getService(getProject(), JavaClasspathCache.class);
+    cache.invalidate();
+    var coldProperties = underTest.configure(getModule(), Collections.emptyList()).extraProperties;
+    assertThat(underTest.configure(getModule(), Collections.emptyList()).extraProperties).isEqualTo(coldProperties);
+
+    Benchmarks.measure("cold classpath, " + LIBRARY_COUNT + " libraries", () -> {
+      cache.invalidate();
+      underTest.configure(getModule(), Collections.emptyList());
+    });
+    Benchmarks.measure("warm classpath, " + LIBRARY_COUNT + " libraries", () -> underTest.configure(getModule(), Collections.emptyList()));
+  }
+
+}
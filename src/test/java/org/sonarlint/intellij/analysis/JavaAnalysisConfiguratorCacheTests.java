@@ -0,0 +1,134 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.analysis;
+
+import com.intellij.compiler.server.BuildManagerListener;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.roots.ContentEntry;
+import com.intellij.openapi.roots.ModifiableRootModel;
+import com.intellij.openapi.roots.ModuleRootModificationUtil;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.task.ProjectTaskListener;
+import com.intellij.task.ProjectTaskManager;
+import com.intellij.testFramework.LightProjectDescriptor;
+import com.intellij.testFramework.PsiTestUtil;
+import com.intellij.testFramework.fixtures.DefaultLightProjectDescriptor;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonarlint.intellij.AbstractSonarLintLightTests;
+import org.sonarlint.intellij.java.JavaAnalysisConfigurator;
+import org.sonarlint.intellij.java.JavaClasspathCache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.sonarlint.intellij.common.util.SonarLintUtils.getService;
+
+class JavaAnalysisConfiguratorCacheTests extends AbstractSonarLintLightTests {
+
+  private static final int LIBRARY_COUNT = 500;
+
+  @TempDir
+  Path tempDirPath;
+
+  private final JavaAnalysisConfigurator underTest = new JavaAnalysisConfigurator();
+
+  @Override
+  protected LightProjectDescriptor getProjectDescriptor() {
+    return new DefaultLightProjectDescriptor() {
+      @Override
+      public void configureModule(@NotNull Module module, @NotNull ModifiableRootModel model, @NotNull ContentEntry contentEntry) {
+        super.configureModule(module, model, contentEntry);
+        for (var i = 0; i < LIBRARY_COUNT; i++) {
+          var libraryPath = createFile(tempDirPath.resolve("libs").resolve("lib" + i + ".jar"));
+          PsiTestUtil.addLibrary(model, "lib" + i, libraryPath.getParent().toString(), libraryPath.getFileName().toString());
+        }
+      }
+    };
+  }
+
+  private static Path createFile(Path path) {
+    try {
+      Files.createDirectories(path.getParent());
+      return Files.createFile(path);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Test
+  void should_reuse_classpath_computed_for_previous_analysis() {
+    getService(getProject(), JavaClasspathCache.class).invalidate();
+
+    var coldProperties = underTest.configure(getModule(), Collections.emptyList()).extraProperties;
+    var warmProperties = underTest.configure(getModule(), Collections.emptyList()).extraProperties;
+
+    assertThat(warmProperties).isEqualTo(coldProperties);
+    assertThat(warmProperties.get("sonar.java.libraries").split(",")).hasSizeGreaterThanOrEqualTo(LIBRARY_COUNT);
+  }
+
+  @Test
+  void should_recompute_classpath_when_module_roots_change() {
+    underTest.configure(getModule(), Collections.emptyList());
+    var newLibraryPath = createFile(tempDirPath.resolve("newLib.jar"));
+    var newLibraryRoot = LocalFileSystem.getInstance().refreshAndFindFileByNioFile(newLibraryPath);
+
+    ModuleRootModificationUtil.addModuleLibrary(getModule(), "newLib", List.of(newLibraryRoot.getUrl()), List.of());
+
+    assertThat(underTest.configure(getModule(), Collections.emptyList()).extraProperties.get("sonar.java.libraries"))
+      .contains(newLibraryPath.toString());
+  }
+
+  @Test
+  void should_recompute_classpath_when_a_build_task_finishes() {
+    var cache = getService(getProject(), JavaClasspathCache.class);
+    var computations = new AtomicInteger();
+    cache.invalidate();
+    cache.getClasspathProperties(getModule(), module -> Map.of("computation", String.valueOf(computations.incrementAndGet())));
+
+    getProject().getMessageBus().syncPublisher(ProjectTaskListener.TOPIC).finished(mock(ProjectTaskManager.Result.class));
+
+    assertThat(cache.getClasspathProperties(getModule(), module -> Map.of("computation", String.valueOf(computations.incrementAndGet()))))
+      .containsEntry("computation", "2");
+  }
+
+  @Test
+  void should_recompute_classpath_when_an_automake_build_finishes() {
+    var cache = getService(getProject(), JavaClasspathCache.class);
+    var computations = new AtomicInteger();
+    cache.invalidate();
+    cache.getClasspathProperties(getModule(), module -> Map.of("computation", String.valueOf(computations.incrementAndGet())));
+
+    ApplicationManager.getApplication().getMessageBus().syncPublisher(BuildManagerListener.TOPIC).buildFinished(getProject(), UUID.randomUUID(), true);
+
+    assertThat(cache.getClasspathProperties(getModule(), module -> Map.of("computation", String.valueOf(computations.incrementAndGet()))))
+      .containsEntry("computation", "2");
+  }
+
+}
@@ -20,26 +20,40 @@
 package org.sonarlint.intellij.analysis;
 
 import com.intellij.ide.PowerSaveMode;
+import com.intellij.ide.highlighter.ArchiveFileType;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.application.WriteAction;
+import com.intellij.openapi.fileTypes.FileTypeManager;
+import com.intellij.openapi.fileTypes.PlainTextFileType;
 import com.intellij.openapi.module.Module;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.vcs.FileStatus;
+import com.intellij.openapi.vcs.FileStatusListener;
+import com.intellij.openapi.vcs.FileStatusManager;
 import com.intellij.openapi.vfs.LocalFileSystem;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.testFramework.PsiTestUtil;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.sonarlint.intellij.AbstractSonarLintLightTests;
 import org.sonarlint.intellij.common.analysis.ExcludeResult;
 import org.sonarlint.intellij.config.global.SonarLintGlobalSettings;
 import org.sonarlint.intellij.messages.GlobalConfigurationListener;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 class LocalFileExclusionsTests extends AbstractSonarLintLightTests {
 
@@ -52,6 +66,11 @@ class LocalFileExclusionsTests extends AbstractSonarLintLightTests {
     underTest = new LocalFileExclusions(getProject());
   }
 
+  @AfterEach
+  void dispose() {
+    Disposer.dispose(underTest);
+  }
+
   @Test
   void should_not_exclude_source_file() {
     var file = myFixture.copyFileToProject("foo.php", "foo.php");
@@ -96,6 +115,18 @@ class LocalFileExclusionsTests extends AbstractSonarLintLightTests {
     assertIsExcluded(file, nonExcludedFilesByModule, "file matches exclusions defined in the SonarQube for IntelliJ Project Settings");
   }
 
+  @Test
+  void should_reevaluate_cached_exclusion_when_project_config_changes() {
+    var file = myFixture.copyFileToProject("foo.php", "foo.php");
+    var nonExcludedFilesByModule = underTest.retainNonExcludedFilesByModules(List.of(file), false, excludeReasons::put);
+    assertIsNotExcluded(file, nonExcludedFilesByModule);
+
+    setProjectLevelExclusions(List.of("GLOB:foo.php"));
+
+    nonExcludedFilesByModule = underTest.retainNonExcludedFilesByModules(List.of(file), false, excludeReasons::put);
+    assertIsExcluded(file, nonExcludedFilesByModule, "file matches exclusions defined in the SonarQube for IntelliJ Project Settings");
+  }
+
   @Test
   void should_not_exclude_if_file_excluded_in_project_config_when_forced_analysis() {
     var file = myFixture.copyFileToProject("foo.php", "foo.php");
@@ -160,6 +191,112 @@ class LocalFileExclusionsTests extends AbstractSonarLintLightTests {
     }
   }
 
+  @Test
+  void should_reevaluate_cached_exclusion_when_module_roots_change() {
+    var file = myFixture.copyFileToProject("foo.php", "dir/foo.php");
+    assertIsNotExcluded(file, retainNonExcludedFiles(file));
+
+    PsiTestUtil.addExcludedRoot(getModule(), file.getParent());
+    try {
+      assertIsExcluded(file, retainNonExcludedFiles(file), "file is excluded or ignored in project structure");
+    } finally {
+      PsiTestUtil.removeExcludedRoot(getModule(), file.getParent());
+    }
+  }
+
+  @Test
+  void should_reevaluate_cached_exclusion_when_file_types_change() {
+    var fileTypeManager = FileTypeManager.getInstance();
+    WriteAction.runAndWait(() -> fileTypeManager.associateExtension(PlainTextFileType.INSTANCE, "sltest"));
+    try {
+      var file = myFixture.addFileToProject("foo.sltest", "text").getVirtualFile();
+      assertIsNotExcluded(file, retainNonExcludedFiles(file));
+
+      WriteAction.runAndWait(() -> fileTypeManager.associateExtension(ArchiveFileType.INSTANCE, "sltest"));
+
+      assertIsExcluded(file, retainNonExcludedFiles(file), "file's type or location are not supported");
+    } finally {
+      WriteAction.runAndWait(() -> {
+        fileTypeManager.removeAssociatedExtension(ArchiveFileType.INSTANCE, "sltest");
+        fileTypeManager.removeAssociatedExtension(PlainTextFileType.INSTANCE, "sltest");
+      });
+    }
+  }
+
+  @Test
+  void should_reevaluate_cached_exclusion_when_a_file_is_renamed() throws Exception {
+    setProjectLevelExclusions(List.of("GLOB:bar.php"));
+    var file = myFixture.copyFileToProject("foo.php", "foo.php");
+    assertIsNotExcluded(file, retainNonExcludedFiles(file));
+
+    WriteAction.runAndWait(() -> file.rename(this, "bar.php"));
+
+    assertIsExcluded(file, retainNonExcludedFiles(file), "file matches exclusions defined in the SonarQube for IntelliJ Project Settings");
+  }
+
+  @Test
+  void should_reevaluate_cached_exclusions_of_children_when_a_directory_is_renamed() throws Exception {
+    setProjectLevelExclusions(List.of("GLOB:renamed/**"));
+    var file = myFixture.copyFileToProject("foo.php", "dir/foo.php");
+    assertIsNotExcluded(file, retainNonExcludedFiles(file));
+
+    WriteAction.runAndWait(() -> file.getParent().rename(this, "renamed"));
+
+    assertIsExcluded(file, retainNonExcludedFiles(file), "file matches exclusions defined in the SonarQube for IntelliJ Project Settings");
+  }
+
+  @Test
+  void should_only_reevaluate_cached_exclusion_of_a_file_when_its_vcs_status_changes() {
+    var fileStatusListener = mockFileStatusManager();
+    var file = myFixture.copyFileToProject("foo.php", "foo.php");
+    var otherFile = myFixture.copyFileToProject("foo.php", "other.php");
+    retainNonExcludedFiles(file, otherFile);
+    var fileStatusManager = FileStatusManager.getInstance(getProject());
+    when(fileStatusManager.getStatus(any(VirtualFile.class))).thenReturn(FileStatus.IGNORED);
+
+    fileStatusListener.fileStatusChanged(file);
+
+    var nonExcludedFilesByModule = retainNonExcludedFiles(file, otherFile);
+    assertThat(excludeReasons).containsOnlyKeys(file);
+    assertThat(excludeReasons.get(file).excludeReason()).isEqualTo("file is ignored in VCS");
+    assertThat(nonExcludedFilesByModule.get(getModule())).containsExactly(otherFile);
+  }
+
+  @Test
+  void should_reevaluate_cached_exclusions_when_vcs_statuses_change() {
+    var fileStatusListener = mockFileStatusManager();
+    var file = myFixture.copyFileToProject("foo.php", "foo.php");
+    var otherFile = myFixture.copyFileToProject("foo.php", "other.php");
+    retainNonExcludedFiles(file, otherFile);
+    var fileStatusManager = FileStatusManager.getInstance(getProject());
+    when(fileStatusManager.getStatus(any(VirtualFile.class))).thenReturn(FileStatus.IGNORED);
+
+    fileStatusListener.fileStatusesChanged();
+
+    var nonExcludedFilesByModule = retainNonExcludedFiles(file, otherFile);
+    assertThat(excludeReasons).containsOnlyKeys(file, otherFile);
+    assertThat(nonExcludedFilesByModule).isEmpty();
+  }
+
+  /**
+   * Replaces the file status manager and the service under test, so that VCS status changes can be simulated.
+   */
+  private FileStatusListener mockFileStatusManager() {
+    var fileStatusManager = mock(FileStatusManager.class);
+    when(fileStatusManager.getStatus(any(VirtualFile.class))).thenReturn(FileStatus.NOT_CHANGED);
+    replaceProjectService(FileStatusManager.class, fileStatusManager);
+    Disposer.dispose(underTest);
+    underTest = new LocalFileExclusions(getProject());
+    var listenerCaptor = ArgumentCaptor.forClass(FileStatusListener.class);
+    verify(fileStatusManager).addFileStatusListener(listenerCaptor.capture(), any());
+    return listenerCaptor.getValue();
+  }
+
+  private Map<Module, Collection<VirtualFile>> retainNonExcludedFiles(VirtualFile... files) {
+    excludeReasons.clear();
+    return underTest.retainNonExcludedFilesByModules(List.of(files), false, excludeReasons::put);
+  }
+
   private void assertIsNotExcluded(VirtualFile file, Map<Module, Collection<VirtualFile>> nonExcludedFilesByModule) {
     assertThat(excludeReasons).isEmpty();
     assertThat(nonExcludedFilesByModule.get(getModule())).containsExactly(file);
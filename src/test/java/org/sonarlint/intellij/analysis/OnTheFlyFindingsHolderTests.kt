@@ -0,0 +1,120 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.analysis
+
+import com.intellij.openapi.command.WriteCommandAction
+import com.intellij.openapi.fileEditor.FileDocumentManager
+import com.intellij.openapi.fileEditor.FileEditorManager
+import com.intellij.openapi.vfs.VirtualFile
+import java.time.Instant
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockito.Mockito.mock
+import org.sonarlint.intellij.AbstractSonarLintLightTests
+import org.sonarlint.intellij.common.util.SonarLintUtils.getService
+import org.sonarlint.intellij.finding.LiveFindings
+import org.sonarlint.intellij.finding.issue.LiveIssue
+import org.sonarlint.intellij.trigger.TriggerType
+
+class OnTheFlyFindingsHolderTests : AbstractSonarLintLightTests() {
+
+    private lateinit var findingsHolder: OnTheFlyFindingsHolder
+    private lateinit var settingsTracker: AnalysisSettingsTracker
+    private lateinit var file: VirtualFile
+    private val issue = mock(LiveIssue::class.java)
+
+    @BeforeEach
+    fun prepare() {
+        findingsHolder = OnTheFlyFindingsHolder(project)
+        settingsTracker = getService(project, AnalysisSettingsTracker::class.java)
+        file = myFixture.addFileToProject("Foo.java", "class Foo {}").virtualFile
+        FileEditorManager.getInstance(project).openFile(file, true)
+    }
+
+    @Test
+    fun should_reuse_findings_of_files_unchanged_since_their_analysis() {
+        analyzed(file)
+
+        val upToDateFindings = findingsHolder.collectUpToDateFindings(listOf(file), settingsTracker.currentFingerprint())
+
+        assertThat(upToDateFindings.upToDateFiles).containsOnly(file)
+        assertThat(upToDateFindings.outdatedFiles).isEmpty()
+        assertThat(upToDateFindings.findings.issuesPerFile[file]).containsOnly(issue)
+    }
+
+    @Test
+    fun should_not_reuse_findings_of_files_edited_since_their_analysis() {
+        analyzed(file)
+        val document = FileDocumentManager.getInstance().getDocument(file)!!
+        WriteCommandAction.runWriteCommandAction(project) { document.insertString(0, "// edited\n") }
+
+        val upToDateFindings = findingsHolder.collectUpToDateFindings(listOf(file), settingsTracker.currentFingerprint())
+
+        assertThat(upToDateFindings.upToDateFiles).isEmpty()
+        assertThat(upToDateFindings.outdatedFiles).containsOnly(file)
+    }
+
+    @Test
+    fun should_not_reuse_findings_computed_with_previous_settings() {
+        analyzed(file)
+        settingsTracker.settingsChanged()
+
+        val upToDateFindings = findingsHolder.collectUpToDateFindings(listOf(file), settingsTracker.currentFingerprint())
+
+        assertThat(upToDateFindings.outdatedFiles).containsOnly(file)
+    }
+
+    @Test
+    fun should_not_reuse_partial_findings() {
+        analyzed(file)
+        findingsHolder.updateOnAnalysisIntermediateResult(
+            AnalysisIntermediateResult(LiveFindings(mapOf(file to listOf(issue)), emptyMap()))
+        )
+
+        val upToDateFindings = findingsHolder.collectUpToDateFindings(listOf(file), settingsTracker.currentFingerprint())
+
+        assertThat(upToDateFindings.outdatedFiles).containsOnly(file)
+    }
+
+    @Test
+    fun should_analyze_files_never_analyzed() {
+        val otherFile = myFixture.addFileToProject("Bar.java", "class Bar {}").virtualFile
+
+        val upToDateFindings = findingsHolder.collectUpToDateFindings(listOf(otherFile), settingsTracker.currentFingerprint())
+
+        assertThat(upToDateFindings.outdatedFiles).containsOnly(otherFile)
+    }
+
+    private fun analyzed(file: VirtualFile) {
+        val stamp = FileDocumentManager.getInstance().getDocument(file)!!.modificationStamp
+        findingsHolder.updateOnAnalysisResult(
+            AnalysisResult(
+                null,
+                LiveFindings(mapOf(file to listOf(issue)), emptyMap()),
+                mutableListOf(file),
+                TriggerType.EDITOR_CHANGE,
+                Instant.now(),
+                mapOf(file to AnalyzedFileVersion(stamp, settingsTracker.currentFingerprint()))
+            )
+        )
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.core
+
+import com.intellij.openapi.module.Module
+import com.intellij.openapi.project.Project
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Tag
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.doReturn
+import org.mockito.kotlin.mock
+import org.sonarlint.intellij.Benchmarks
+
+/**
+ * Resolves the scope ID of every module of 5 open projects of 100 modules each, by scanning all the modules as it was done before
+ * [ConfigurationScopeIndex], then through the index.
+ */
+@Tag(Benchmarks.TAG)
+class ConfigurationScopeIndexBenchmarks {
+
+    private val projects = (1..PROJECT_COUNT).map { mock<Project>() }
+    private val modulesByProject = projects.associateWith { project ->
+        (1..MODULES_PER_PROJECT).map { mock<Module> { on { getProject() } doReturn project } }.toTypedArray()
+    }
+    private val moduleIds = HashMap<Module, String>()
+    private val projectIds = HashMap<Project, String>()
+
+    init {
+        projects.forEachIndexed { projectIndex, project ->
+            projectIds[project] = "project$projectIndex"
+            modulesByProject[project]!!.forEachIndexed { moduleIndex, module -> moduleIds[module] = "module${projectIndex}_$moduleIndex" }
+        }
+    }
+
+    @Test
+    fun resolve_all_module_scopes() {
+        val index = ConfigurationScopeIndex({ projects.toTypedArray() }, { modulesByProject[it]!! }, { moduleIds[it]!! }, { projectIds[it]!! })
+        projects.forEach { index.projectOpened(it) }
+        val scopeIds = moduleIds.values.toList()
+
+        assertThat(scopeIds.map { index.findModule(it) }).isEqualTo(scopeIds.map { scanModules(it) })
+
+        val scan = Benchmarks.measure("scan ${scopeIds.size} module scopes") { scopeIds.forEach { scanModules(it) } }
+        val indexed = Benchmarks.measure("index ${scopeIds.size} module scopes") { scopeIds.forEach { index.findModule(it) } }
+        println("[benchmark] per lookup: scan ${scan.toNanos() / scopeIds.size} ns, index ${indexed.toNanos() / scopeIds.size} ns")
+    }
+
+    private fun scanModules(configScopeId: String): Module? {
+        return projects.firstNotNullOfOrNull { project ->
+            modulesByProject[project]!!.firstOrNull { moduleIds[it] == configScopeId }
+        }
+    }
+
+    companion object {
+        private const val PROJECT_COUNT = 5
+        private const val MODULES_PER_PROJECT = 100
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.core
+
+import com.intellij.openapi.module.Module
+import com.intellij.openapi.project.Project
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.doReturn
+import org.mockito.kotlin.mock
+
+class ConfigurationScopeIndexTests {
+
+    private val projects = (1..PROJECT_COUNT).map { mock<Project>() }
+    private val openProjects = projects.toMutableList()
+    private val modulesByProject = projects.associateWith { project ->
+        (1..MODULES_PER_PROJECT).map { mock<Module> { on { getProject() } doReturn project } }.toTypedArray()
+    }.toMutableMap()
+    private var scannedProjects = 0
+    private val moduleIds = HashMap<Module, String>()
+    private val projectIds = HashMap<Project, String>()
+    private lateinit var underTest: ConfigurationScopeIndex
+
+    @BeforeEach
+    fun prepare() {
+        projects.forEachIndexed { projectIndex, project ->
+            projectIds[project] = "project$projectIndex"
+            modulesByProject[project]!!.forEachIndexed { moduleIndex, module -> moduleIds[module] = "module${projectIndex}_$moduleIndex" }
+        }
+        underTest = ConfigurationScopeIndex({ openProjects.toTypedArray() }, {
+            scannedProjects++
+            modulesByProject[it]!!
+        }, { moduleIds[it]!! }, { projectIds[it]!! })
+        projects.forEach { underTest.projectOpened(it) }
+    }
+
+    @Test
+    fun should_resolve_modules_and_projects() {
+        val module = modulesByProject[projects[2]]!![42]
+
+        assertThat(underTest.findModule("module2_42")).isSameAs(module)
+        assertThat(underTest.findProject("project2")).isSameAs(projects[2])
+        assertThat(underTest.findModule("project2")).isNull()
+        assertThat(underTest.findModule("unknown")).isNull()
+    }
+
+    @Test
+    fun should_forget_closed_projects() {
+        openProjects.remove(projects[1])
+        underTest.projectClosed(projects[1])
+
+        assertThat(underTest.findModule("module1_0")).isNull()
+        assertThat(underTest.findProject("project1")).isNull()
+        assertThat(underTest.findModule("module0_0")).isSameAs(modulesByProject[projects[0]]!![0])
+    }
+
+    @Test
+    fun should_find_a_module_again_after_its_scope_id_changed() {
+        val module = modulesByProject[projects[3]]!![7]
+        moduleIds[module] = "renamed"
+
+        assertThat(underTest.findModule("module3_7")).isNull()
+        assertThat(underTest.findModule("renamed")).isSameAs(module)
+    }
+
+    @Test
+    fun should_resolve_indexed_scopes_without_scanning() {
+        scannedProjects = 0
+
+        moduleIds.values.forEach { underTest.findModule(it) }
+        projectIds.values.forEach { underTest.findProject(it) }
+
+        assertThat(scannedProjects).isZero()
+    }
+
+    @Test
+    fun should_only_scan_once_for_an_unknown_scope() {
+        scannedProjects = 0
+
+        repeat(3) {
+            assertThat(underTest.findModule("unknown")).isNull()
+            assertThat(underTest.findProject("unknown")).isNull()
+        }
+
+        assertThat(scannedProjects).isEqualTo(PROJECT_COUNT)
+    }
+
+    @Test
+    fun should_scan_again_for_an_unknown_scope_once_a_module_is_indexed() {
+        assertThat(underTest.findModule("module0_100")).isNull()
+        // not notified to the index yet
+        val notIndexedModule = mock<Module> { on { getProject() } doReturn projects[0] }
+        moduleIds[notIndexedModule] = "module0_100"
+        modulesByProject[projects[0]] = modulesByProject[projects[0]]!! + notIndexedModule
+        val otherModule = mock<Module> { on { getProject() } doReturn projects[1] }
+        moduleIds[otherModule] = "module1_100"
+
+        underTest.moduleAdded(otherModule)
+
+        assertThat(underTest.findModule("module0_100")).isSameAs(notIndexedModule)
+    }
+
+    companion object {
+        private const val PROJECT_COUNT = 5
+        private const val MODULES_PER_PROJECT = 100
+    }
+}
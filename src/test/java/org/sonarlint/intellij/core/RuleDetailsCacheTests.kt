@@ -0,0 +1,88 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.core
+
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.util.Disposer
+import com.intellij.testFramework.replaceService
+import java.util.UUID
+import java.util.concurrent.CompletableFuture
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+import org.sonarlint.intellij.AbstractSonarLintLightTests
+import org.sonarlint.intellij.messages.PROJECT_BINDING_TOPIC
+import org.sonarsource.sonarlint.core.rpc.protocol.backend.issue.EffectiveIssueDetailsDto
+import org.sonarsource.sonarlint.core.rpc.protocol.backend.issue.GetEffectiveIssueDetailsResponse
+
+class RuleDetailsCacheTests : AbstractSonarLintLightTests() {
+
+    private val backendService: BackendService = mock()
+    private val details: EffectiveIssueDetailsDto = mock()
+    private lateinit var underTest: RuleDetailsCache
+
+    @BeforeEach
+    fun prepare() {
+        ApplicationManager.getApplication().replaceService(BackendService::class.java, backendService, testRootDisposable)
+        whenever(backendService.getEffectiveIssueDetails(any(), any())).thenReturn(CompletableFuture.completedFuture(GetEffectiveIssueDetailsResponse(details)))
+        underTest = RuleDetailsCache(project)
+        Disposer.register(testRootDisposable, underTest)
+    }
+
+    @Test
+    fun should_query_the_backend_once_for_the_same_issue() {
+        val issueId = UUID.randomUUID()
+
+        val first = underTest.getEffectiveIssueDetails(module, issueId).get()
+        val second = underTest.getEffectiveIssueDetails(module, issueId).get()
+
+        assertThat(first).isSameAs(details)
+        assertThat(second).isSameAs(details)
+        verify(backendService, times(1)).getEffectiveIssueDetails(module, issueId)
+    }
+
+    @Test
+    fun should_query_the_backend_again_after_binding_change() {
+        val issueId = UUID.randomUUID()
+        underTest.getEffectiveIssueDetails(module, issueId).get()
+
+        project.messageBus.syncPublisher(PROJECT_BINDING_TOPIC).bindingChanged()
+        underTest.getEffectiveIssueDetails(module, issueId).get()
+
+        verify(backendService, times(2)).getEffectiveIssueDetails(module, issueId)
+    }
+
+    @Test
+    fun should_not_keep_failed_requests() {
+        val issueId = UUID.randomUUID()
+        whenever(backendService.getEffectiveIssueDetails(module, issueId))
+            .thenReturn(CompletableFuture.failedFuture(IllegalStateException("backend error")))
+            .thenReturn(CompletableFuture.completedFuture(GetEffectiveIssueDetailsResponse(details)))
+
+        assertThat(underTest.getEffectiveIssueDetails(module, issueId)).isCompletedExceptionally
+        assertThat(underTest.getEffectiveIssueDetails(module, issueId).get()).isSameAs(details)
+    }
+
+}
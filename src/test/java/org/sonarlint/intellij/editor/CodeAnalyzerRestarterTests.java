@@ -88,4 +88,13 @@ class CodeAnalyzerRestarterTests extends AbstractSonarLintLightTests {
     verify(codeAnalyzer, timeout(1000)).restart(file1);
     verifyNoMoreInteractions(codeAnalyzer);
   }
+
+  @Test
+  void should_not_restart_anything_when_no_files_changed() {
+    createAndOpenTestPsiFile("Foo.java", Language.findLanguageByID("JAVA"), "class Foo {}");
+
+    analyzerRestarter.refreshFiles(List.of());
+
+    verifyNoInteractions(codeAnalyzer);
+  }
 }
@@ -19,10 +19,14 @@
  */
 package org.sonarlint.intellij.editor;
 
+import com.intellij.codeInspection.ProblemHighlightType;
 import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.lang.annotation.HighlightSeverity;
 import com.intellij.openapi.util.TextRange;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiFile;
+import java.util.IdentityHashMap;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.sonarlint.intellij.AbstractSonarLintLightTests;
@@ -103,4 +107,23 @@ class SonarExternalAnnotatorTests extends AbstractSonarLintLightTests {
     assertThat(SonarExternalAnnotator.getTextAttrsKey(getProject(), ImpactSeverity.BLOCKER, IssueSeverity.INFO, true)).isEqualTo(SonarLintTextAttributes.BLOCKER);
     assertThat(SonarExternalAnnotator.getTextAttrsKey(getProject(), ImpactSeverity.INFO, IssueSeverity.INFO, true)).isEqualTo(SonarLintTextAttributes.INFO);
   }
+
+  @Test
+  void should_reuse_the_payload_of_a_finding_while_its_state_is_unchanged() {
+    var finding = new Object();
+    var payload = new AnnotationPayload("state", HighlightSeverity.WARNING, "message", ProblemHighlightType.WARNING, null, List.of());
+    var previousPayloads = new IdentityHashMap<Object, AnnotationPayload>();
+    previousPayloads.put(finding, payload);
+
+    assertThat(AnnotationPayload.reuseOrCompute(previousPayloads, finding, "state", () -> {
+      throw new AssertionError("should not be computed");
+    })).isSameAs(payload);
+    assertThat(AnnotationPayload.reuseOrCompute(previousPayloads, finding, "other state", () -> payload("other state"))).isNotSameAs(payload);
+    assertThat(AnnotationPayload.reuseOrCompute(previousPayloads, new Object(), "state", () -> payload("state"))).isNotSameAs(payload);
+    assertThat(AnnotationPayload.reuseOrCompute(null, finding, "state", () -> payload("state"))).isNotSameAs(payload);
+  }
+
+  private static AnnotationPayload payload(Object state) {
+    return new AnnotationPayload(state, HighlightSeverity.WARNING, "message", ProblemHighlightType.WARNING, null, List.of());
+  }
 }
@@ -0,0 +1,87 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.finding.issue.vulnerabilities
+
+import com.intellij.openapi.vfs.VirtualFile
+import java.util.UUID
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.doReturn
+import org.mockito.kotlin.mock
+
+class TaintVulnerabilitiesCacheTests {
+
+    private val file1: VirtualFile = mock()
+    private val file2: VirtualFile = mock()
+    private val underTest = TaintVulnerabilitiesCache(mock())
+
+    @Test
+    fun should_index_taint_vulnerabilities_by_file() {
+        val first = aTaintVulnerability("key1", file1)
+        val second = aTaintVulnerability("key2", file2)
+        val third = aTaintVulnerability("key3", file1)
+
+        underTest.taintVulnerabilities = listOf(first, second, third)
+
+        assertThat(underTest.getTaintVulnerabilitiesForFile(file1)).containsExactly(first, third)
+        assertThat(underTest.getTaintVulnerabilitiesForFile(file2)).containsExactly(second)
+        assertThat(underTest.taintVulnerabilities).containsExactly(first, second, third)
+    }
+
+    @Test
+    fun should_apply_incremental_changes() {
+        val closed = aTaintVulnerability("key1", file1)
+        val untouched = aTaintVulnerability("key2", file2)
+        val toUpdate = aTaintVulnerability("key3", file1)
+        underTest.taintVulnerabilities = listOf(closed, untouched, toUpdate)
+        val untouchedFileVulnerabilities = underTest.getTaintVulnerabilitiesForFile(file2)
+        val added = aTaintVulnerability("key4", file2)
+        val updated = aTaintVulnerability("key3", file1)
+
+        underTest.update(setOf(closed.getId()), listOf(added), listOf(updated))
+
+        assertThat(underTest.taintVulnerabilities).containsExactly(untouched, added, updated)
+        assertThat(underTest.getTaintVulnerabilitiesForFile(file1)).containsExactly(updated)
+        assertThat(underTest.getTaintVulnerabilitiesForFile(file2)).containsExactly(untouched, added)
+        assertThat(untouchedFileVulnerabilities).containsExactly(untouched)
+    }
+
+    @Test
+    fun should_remove_a_taint_vulnerability_by_server_key() {
+        val vulnerability = aTaintVulnerability("key1", file1)
+        underTest.taintVulnerabilities = listOf(vulnerability)
+
+        assertThat(underTest.remove(aTaintVulnerability("key1", file1))).isTrue()
+        assertThat(underTest.remove(vulnerability)).isFalse()
+
+        assertThat(underTest.taintVulnerabilities).isEmpty()
+        assertThat(underTest.getTaintVulnerabilitiesForFile(file1)).isEmpty()
+    }
+
+    private fun aTaintVulnerability(serverKey: String, file: VirtualFile): LocalTaintVulnerability {
+        val id = UUID.randomUUID()
+        return mock {
+            on { key() } doReturn serverKey
+            on { getServerKey() } doReturn serverKey
+            on { getId() } doReturn id
+            on { file() } doReturn file
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.fs
+
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.application.WriteAction
+import com.intellij.openapi.module.Module
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.openapi.vfs.newvfs.events.VFileContentChangeEvent
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent
+import com.intellij.testFramework.replaceService
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Tag
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.argumentCaptor
+import org.mockito.kotlin.clearInvocations
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.verify
+import org.sonarlint.intellij.AbstractSonarLintLightTests
+import org.sonarlint.intellij.Benchmarks
+import org.sonarlint.intellij.common.util.FileUtils
+import org.sonarlint.intellij.core.BackendService
+import org.sonarlint.intellij.util.ImmediateExecutorService
+import org.sonarlint.intellij.util.SonarLintAppUtils.findModuleForFile
+import org.sonarlint.intellij.util.SonarLintAppUtils.visitAndAddAllChildren
+import org.sonarsource.sonarlint.plugin.api.module.file.ModuleFileEvent
+
+/**
+ * Forwards a burst of 50k events on 2000 files, like a checkout touching many files, by resolving and validating the file of each
+ * event as it was done before the events were deduplicated and batched, then with [DefaultVirtualFileSystemEventsHandler].
+ */
+@Tag(Benchmarks.TAG)
+class DefaultVirtualFileSystemEventsHandlerBenchmarks : AbstractSonarLintLightTests() {
+
+    private val backendService: BackendService = mock()
+    private val underTest = DefaultVirtualFileSystemEventsHandler(ImmediateExecutorService())
+
+    @BeforeEach
+    fun prepare() {
+        ApplicationManager.getApplication().replaceService(BackendService::class.java, backendService, testRootDisposable)
+    }
+
+    @Test
+    fun forward_a_burst_of_events() {
+        val files = (1..20).flatMap { createFiles(myFixture.tempDirFixture.findOrCreateDir("dir$it"), 100) }
+        val events = (1..25).flatMap { files.map { file -> VFileContentChangeEvent(null, file, 0L, 0L, false) } }
+
+        val perEvent = perEventFileEventsByModule(events)
+        underTest.forwardEventsAsync(events) { ModuleFileEvent.Type.MODIFIED }
+        val captor = argumentCaptor<Map<Module, List<VirtualFileEvent>>>()
+        verify(backendService).updateFileSystem(captor.capture())
+        assertThat(captor.firstValue.values.flatten().toSet()).isEqualTo(perEvent.values.flatten().toSet())
+
+        Benchmarks.measure("per event, ${events.size} events", 1, 3) { perEventFileEventsByModule(events) }
+        Benchmarks.measure("batched, ${events.size} events") {
+            underTest.forwardEventsAsync(events) { ModuleFileEvent.Type.MODIFIED }
+            clearInvocations(backendService)
+        }
+    }
+
+    private fun perEventFileEventsByModule(events: List<VFileEvent>): Map<Module, List<VirtualFileEvent>> {
+        val openProjects = listOf<Project>(project)
+        val map = mutableMapOf<Module, List<VirtualFileEvent>>()
+        for (event in events) {
+            val file = event.file ?: continue
+            val fileModule = openProjects.firstNotNullOfOrNull { findModuleForFile(file, it) } ?: continue
+            if (!FileUtils.isFileValidForSonarLintWithExtensiveChecks(file, fileModule.project)) continue
+            val moduleEvents = map[fileModule] ?: emptyList()
+            map[fileModule] = moduleEvents + visitAndAddAllChildren(file, fileModule.project).map { VirtualFileEvent(ModuleFileEvent.Type.MODIFIED, it) }
+        }
+        return map
+    }
+
+    private fun createFiles(directory: VirtualFile, count: Int): List<VirtualFile> {
+        return WriteAction.computeAndWait<List<VirtualFile>, Exception> {
+            (1..count).map { directory.createChildData(this, "file$it.py") }
+        }
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.fs
+
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.application.WriteAction
+import com.intellij.openapi.module.Module
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.openapi.vfs.newvfs.events.VFileContentChangeEvent
+import com.intellij.openapi.vfs.newvfs.events.VFileCreateEvent
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent
+import com.intellij.testFramework.replaceService
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.argumentCaptor
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.verify
+import org.sonarlint.intellij.AbstractSonarLintLightTests
+import org.sonarlint.intellij.core.BackendService
+import org.sonarlint.intellij.util.ImmediateExecutorService
+import org.sonarsource.sonarlint.plugin.api.module.file.ModuleFileEvent
+
+class DefaultVirtualFileSystemEventsHandlerTests : AbstractSonarLintLightTests() {
+
+    private val backendService: BackendService = mock()
+    private val underTest = DefaultVirtualFileSystemEventsHandler(ImmediateExecutorService())
+
+    @BeforeEach
+    fun prepare() {
+        ApplicationManager.getApplication().replaceService(BackendService::class.java, backendService, testRootDisposable)
+    }
+
+    @Test
+    fun should_skip_events_covered_by_an_event_on_a_parent_directory() {
+        val directory = myFixture.tempDirFixture.findOrCreateDir("parent")
+        val child = createFiles(directory, 1).single()
+
+        underTest.forwardEventsAsync(listOf(createEvent(directory), createEvent(child))) { ModuleFileEvent.Type.CREATED }
+
+        val captor = argumentCaptor<Map<Module, List<VirtualFileEvent>>>()
+        verify(backendService).updateFileSystem(captor.capture())
+        assertThat(captor.firstValue.values.flatten()).containsExactly(VirtualFileEvent(ModuleFileEvent.Type.CREATED, child))
+    }
+
+    /**
+     * Replays a burst of 50k events, like a checkout touching many files.
+     */
+    @Test
+    fun should_forward_a_burst_of_events_once_per_file() {
+        val files = (1..20).flatMap { createFiles(myFixture.tempDirFixture.findOrCreateDir("dir$it"), 100) }
+        val events = (1..25).flatMap { files.map { file -> VFileContentChangeEvent(null, file, 0L, 0L, false) } }
+
+        underTest.forwardEventsAsync(events) { ModuleFileEvent.Type.MODIFIED }
+
+        val captor = argumentCaptor<Map<Module, List<VirtualFileEvent>>>()
+        verify(backendService).updateFileSystem(captor.capture())
+        assertThat(captor.firstValue.values.flatten().map { it.virtualFile }).containsExactlyInAnyOrderElementsOf(files)
+    }
+
+    private fun createFiles(directory: VirtualFile, count: Int): List<VirtualFile> {
+        return WriteAction.computeAndWait<List<VirtualFile>, Exception> {
+            (1..count).map { directory.createChildData(this, "file$it.py") }
+        }
+    }
+
+    private fun createEvent(file: VirtualFile): VFileEvent {
+        return VFileCreateEvent(null, file.parent, file.name, file.isDirectory, null, null, false, null)
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.fs
+
+import com.intellij.openapi.application.ReadAction
+import com.intellij.openapi.command.WriteCommandAction
+import java.net.URI
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.sonarlint.intellij.AbstractSonarLintLightTests
+import org.sonarlint.intellij.util.getDocument
+
+class FileContentFingerprintsTests : AbstractSonarLintLightTests() {
+
+    private val underTest = FileContentFingerprints()
+    private val uri = URI("file:///project/file.ext")
+
+    @Test
+    fun should_consider_file_up_to_date_once_sent() {
+        val file = myFixture.configureByText("file.ext", "Text").virtualFile
+        val fingerprint = ReadAction.compute<FileContentFingerprints.ContentFingerprint, Exception> { underTest.fingerprint(file) }
+
+        assertThat(underTest.isUpToDate(uri, "module", fingerprint)).isFalse()
+        underTest.sent(uri, "module", fingerprint)
+
+        assertThat(underTest.isUpToDate(uri, "module", fingerprint)).isTrue()
+        assertThat(underTest.isUpToDate(uri, "otherModule", fingerprint)).isFalse()
+    }
+
+    @Test
+    fun should_only_send_content_of_unsaved_documents() {
+        val file = myFixture.configureByText("file.ext", "Text").virtualFile
+        val savedFingerprint = ReadAction.compute<FileContentFingerprints.ContentFingerprint, Exception> { underTest.fingerprint(file) }
+
+        WriteCommandAction.runWriteCommandAction(project) { file.getDocument()!!.setText("Modified") }
+        val unsavedFingerprint = ReadAction.compute<FileContentFingerprints.ContentFingerprint, Exception> { underTest.fingerprint(file) }
+
+        assertThat(savedFingerprint.contentToSend(file) { "content" }).isNull()
+        assertThat(unsavedFingerprint.unsaved).isTrue()
+        assertThat(unsavedFingerprint).isNotEqualTo(savedFingerprint)
+        assertThat(unsavedFingerprint.contentToSend(file) { "content" }).isEqualTo("content")
+    }
+
+    @Test
+    fun should_forget_deleted_files() {
+        val fingerprint = FileContentFingerprints.ContentFingerprint(1L, false)
+        underTest.sent(uri, "module", fingerprint)
+
+        underTest.forget(uri)
+
+        assertThat(underTest.isUpToDate(uri, "module", fingerprint)).isFalse()
+    }
+
+    @Test
+    fun should_only_forget_the_files_of_the_removed_scope() {
+        val fingerprint = FileContentFingerprints.ContentFingerprint(1L, false)
+        underTest.sent(uri, "module", fingerprint)
+        underTest.sent(uri, "otherModule", fingerprint)
+
+        underTest.forgetScope("module")
+
+        assertThat(underTest.isUpToDate(uri, "module", fingerprint)).isFalse()
+        assertThat(underTest.isUpToDate(uri, "otherModule", fingerprint)).isTrue()
+    }
+
+}
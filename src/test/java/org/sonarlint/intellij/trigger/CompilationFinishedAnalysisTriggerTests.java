@@ -19,7 +19,9 @@
  */
 package org.sonarlint.intellij.trigger;
 
+import com.intellij.lang.Language;
 import com.intellij.openapi.compiler.CompileContext;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.sonarlint.intellij.AbstractSonarLintLightTests;
@@ -40,14 +42,18 @@ class CompilationFinishedAnalysisTriggerTests extends AbstractSonarLintLightTest
   @BeforeEach
   void prepare() {
     replaceProjectService(AnalysisSubmitter.class, submitter);
+    getGlobalSettings().setAutoTrigger(true);
     when(context.getProject()).thenReturn(getProject());
     trigger = new CompilationFinishedAnalysisTrigger();
   }
 
   @Test
   void should_trigger_on_compilation() {
+    var file = createAndOpenTestVirtualFile("MyClass.java", Language.findLanguageByID("JAVA"), "");
+
     trigger.compilationFinished(false, 0, 0, context);
-    verify(submitter, timeout(1000)).autoAnalyzeOpenFiles(TriggerType.COMPILATION);
+
+    verify(submitter, timeout(1000)).autoAnalyzeFiles(List.of(file), TriggerType.COMPILATION);
   }
 
   @Test
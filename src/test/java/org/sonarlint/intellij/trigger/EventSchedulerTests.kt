@@ -20,6 +20,7 @@
 package org.sonarlint.intellij.trigger
 
 import com.intellij.lang.Language
+import java.time.Duration
 import java.util.concurrent.TimeUnit
 import org.assertj.core.api.Assertions
 import org.awaitility.Awaitility
@@ -52,7 +53,7 @@ class EventSchedulerTests : AbstractSonarLintLightTests() {
 
     @Test
     fun should_trigger_single_file_analysis() {
-        val eventScheduler = EventScheduler(project, "testScheduler", TriggerType.EDITOR_CHANGE, 200, false)
+        val eventScheduler = EventScheduler(project, TriggerType.EDITOR_CHANGE, DebouncePolicy(Duration.ofMillis(200), true))
         val file = createAndOpenTestVirtualFile("MyClass1.java", Language.findLanguageByID("JAVA"), "")
         eventScheduler.notify(file)
 
@@ -61,7 +62,7 @@ class EventSchedulerTests : AbstractSonarLintLightTests() {
 
     @Test
     fun should_trigger_multiple_file_analysis() {
-        val eventScheduler = EventScheduler(project, "testScheduler", TriggerType.EDITOR_CHANGE, 200, false)
+        val eventScheduler = EventScheduler(project, TriggerType.EDITOR_CHANGE, DebouncePolicy(Duration.ofMillis(200), true))
         val file1 = createAndOpenTestVirtualFile("MyClass1.java", Language.findLanguageByID("JAVA"), "")
         val file2 = createAndOpenTestVirtualFile("MyClass1.java", Language.findLanguageByID("JAVA"), "")
         eventScheduler.notify(file1)
@@ -72,7 +73,7 @@ class EventSchedulerTests : AbstractSonarLintLightTests() {
 
     @Test
     fun should_trigger_different_analysis_at_interval() {
-        val eventScheduler = EventScheduler(project, "testScheduler", TriggerType.EDITOR_CHANGE, 200, true)
+        val eventScheduler = EventScheduler(project, TriggerType.EDITOR_CHANGE, DebouncePolicy(Duration.ofMillis(200), false))
         val file1 = createAndOpenTestVirtualFile("MyClass1.java", Language.findLanguageByID("JAVA"), "")
         val file2 = createAndOpenTestVirtualFile("MyClass1.java", Language.findLanguageByID("JAVA"), "")
         eventScheduler.notify(file1)
@@ -86,7 +87,7 @@ class EventSchedulerTests : AbstractSonarLintLightTests() {
 
     @Test
     fun should_trigger_single_analysis_without_interval() {
-        val eventScheduler = EventScheduler(project, "testScheduler", TriggerType.EDITOR_CHANGE, 200, false)
+        val eventScheduler = EventScheduler(project, TriggerType.EDITOR_CHANGE, DebouncePolicy(Duration.ofMillis(200), true))
         val file1 = createAndOpenTestVirtualFile("MyClass1.java", Language.findLanguageByID("JAVA"), "")
         val file2 = createAndOpenTestVirtualFile("MyClass1.java", Language.findLanguageByID("JAVA"), "")
         eventScheduler.notify(file1)
@@ -100,4 +101,50 @@ class EventSchedulerTests : AbstractSonarLintLightTests() {
         }
     }
 
+    @Test
+    fun should_coalesce_files_notified_by_different_triggers() {
+        val changeScheduler = EventScheduler(project, TriggerType.EDITOR_CHANGE, DebouncePolicy(Duration.ofMillis(200), true))
+        val openScheduler = EventScheduler(project, TriggerType.EDITOR_OPEN, DebouncePolicy(Duration.ofMillis(200), false))
+        val file = createAndOpenTestVirtualFile("MyClass1.java", Language.findLanguageByID("JAVA"), "")
+        openScheduler.notify(file)
+        changeScheduler.notify(file)
+
+        Awaitility.await().atMost(2, TimeUnit.SECONDS).untilAsserted {
+            verify(submitter, times(1)).autoAnalyzeFiles(ArrayList(setOf(file)), TriggerType.EDITOR_CHANGE)
+        }
+        verify(submitter, times(1)).autoAnalyzeFiles(any(), any())
+    }
+
+    @Test
+    fun should_not_postpone_compilation_analysis_while_typing() {
+        val changeScheduler = EventScheduler(project, TriggerType.EDITOR_CHANGE, DebouncePolicy(Duration.ofMillis(300), true))
+        val compilationScheduler = EventScheduler(project, TriggerType.COMPILATION, DebouncePolicy(Duration.ofMillis(200), false))
+        val compiledFile = createAndOpenTestVirtualFile("MyClass1.java", Language.findLanguageByID("JAVA"), "")
+        val editedFile = createAndOpenTestVirtualFile("MyClass2.java", Language.findLanguageByID("JAVA"), "")
+
+        compilationScheduler.notify(compiledFile)
+        repeat(15) {
+            changeScheduler.notify(editedFile)
+            Thread.sleep(100)
+        }
+
+        // typing is still going on, the compilation analysis already ran at its own deadline
+        verify(submitter).autoAnalyzeFiles(ArrayList(setOf(compiledFile)), TriggerType.COMPILATION)
+    }
+
+    @Test
+    fun should_only_cancel_the_files_of_the_stopped_trigger() {
+        val changeScheduler = EventScheduler(project, TriggerType.EDITOR_CHANGE, DebouncePolicy(Duration.ofMillis(200), true))
+        val openScheduler = EventScheduler(project, TriggerType.EDITOR_OPEN, DebouncePolicy(Duration.ofMillis(200), false))
+        val editedFile = createAndOpenTestVirtualFile("MyClass1.java", Language.findLanguageByID("JAVA"), "")
+        val openedFile = createAndOpenTestVirtualFile("MyClass2.java", Language.findLanguageByID("JAVA"), "")
+        changeScheduler.notify(editedFile)
+        openScheduler.notify(openedFile)
+
+        changeScheduler.stopScheduler()
+
+        verify(submitter, timeout(2000)).autoAnalyzeFiles(ArrayList(setOf(openedFile)), TriggerType.EDITOR_OPEN)
+        verify(submitter, times(1)).autoAnalyzeFiles(any(), any())
+    }
+
 }
@@ -31,6 +31,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import org.apache.commons.lang3.tuple.Pair;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -82,6 +83,7 @@ class SonarLintCheckinHandlerTests extends AbstractSonarLintLightTests {
       .thenReturn(List.of(new AnalysisResult(null, new LiveFindings(Map.of(file, Set.of(issue)), Collections.emptyMap()), Set.of(file), TriggerType.CHECK_IN, Instant.now())));
     when(runningAnalysesTracker.getById(uuid)).thenReturn(analysisState);
     when(runningAnalysesTracker.getById(uuid)).thenReturn(null);
+    when(runningAnalysesTracker.whenFinished(uuid)).thenReturn(CompletableFuture.completedFuture(null));
     when(analysisSubmitter.analyzeFilesPreCommit(Collections.singleton(file)))
       .thenReturn(Pair.of(checkInCallable, List.of(uuid)));
 
@@ -93,6 +95,23 @@ class SonarLintCheckinHandlerTests extends AbstractSonarLintLightTests {
     verifyNoInteractions(toolWindow);
   }
 
+  @Test
+  void testOnlyReusedFindings() {
+    var issue = mock(LiveIssue.class);
+    when(issue.isResolved()).thenReturn(true);
+    when(checkInCallable.analysisSucceeded()).thenReturn(true);
+    when(checkInCallable.getResults())
+      .thenReturn(List.of(new AnalysisResult(null, new LiveFindings(Map.of(file, Set.of(issue)), Collections.emptyMap()), Set.of(file), TriggerType.CHECK_IN, Instant.now())));
+    when(analysisSubmitter.analyzeFilesPreCommit(Collections.singleton(file)))
+      .thenReturn(Pair.of(checkInCallable, List.of()));
+
+    handler = new SonarLintCheckinHandler(getProject(), checkinProjectPanel);
+    var result = handler.beforeCheckin(null, null);
+
+    assertThat(result).isEqualTo(CheckinHandler.ReturnResult.COMMIT);
+    verifyNoInteractions(runningAnalysesTracker);
+  }
+
   @Test
   void testIssues() {
     var uuid = UUID.randomUUID();
@@ -104,6 +123,7 @@ class SonarLintCheckinHandlerTests extends AbstractSonarLintLightTests {
       .thenReturn(List.of(new AnalysisResult(null, new LiveFindings(Map.of(file, Set.of(issue)), Collections.emptyMap()), Set.of(file), TriggerType.CHECK_IN, Instant.now())));
     when(runningAnalysesTracker.getById(uuid)).thenReturn(analysisState);
     when(runningAnalysesTracker.getById(uuid)).thenReturn(null);
+    when(runningAnalysesTracker.whenFinished(uuid)).thenReturn(CompletableFuture.completedFuture(null));
     when(analysisSubmitter.analyzeFilesPreCommit(Collections.singleton(file)))
       .thenReturn(Pair.of(checkInCallable, List.of(uuid)));
 
@@ -136,6 +156,7 @@ class SonarLintCheckinHandlerTests extends AbstractSonarLintLightTests {
       .thenReturn(List.of(new AnalysisResult(null, new LiveFindings(Map.of(file, Set.of(issue)), Collections.emptyMap()), Set.of(file), TriggerType.CHECK_IN, Instant.now())));
     when(runningAnalysesTracker.getById(uuid)).thenReturn(analysisState);
     when(runningAnalysesTracker.getById(uuid)).thenReturn(null);
+    when(runningAnalysesTracker.whenFinished(uuid)).thenReturn(CompletableFuture.completedFuture(null));
     when(analysisSubmitter.analyzeFilesPreCommit(Collections.singleton(file)))
       .thenReturn(Pair.of(checkInCallable, List.of(uuid)));
 
@@ -24,16 +24,19 @@ import com.intellij.execution.ui.ConsoleViewContentType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.sonarlint.intellij.AbstractSonarLintLightTests;
-import org.sonarlint.intellij.common.ui.SonarLintConsole;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 class SonarLintConsoleImplementationTests extends AbstractSonarLintLightTests {
   private ConsoleView consoleView = mock(ConsoleView.class);
-  private SonarLintConsole console;
+  private SonarLintConsoleImpl console;
 
   @BeforeEach
   void prepare() {
@@ -53,6 +56,7 @@ class SonarLintConsoleImplementationTests extends AbstractSonarLintLightTests {
 
     assertThat(console.debugEnabled()).isTrue();
     console.debug("debug msg");
+    console.flush();
     verify(consoleView).print("debug msg\n", ConsoleViewContentType.NORMAL_OUTPUT);
   }
 
@@ -62,6 +66,7 @@ class SonarLintConsoleImplementationTests extends AbstractSonarLintLightTests {
 
     assertThat(console.debugEnabled()).isFalse();
     console.debug("debug msg");
+    console.flush();
     verifyNoInteractions(consoleView);
   }
 
@@ -69,12 +74,54 @@ class SonarLintConsoleImplementationTests extends AbstractSonarLintLightTests {
   void logging_should_print_to_console() {
     getProjectSettings().setVerboseEnabled(true);
     console.info("info msg");
+    console.flush();
     verify(consoleView).print("info msg\n", ConsoleViewContentType.NORMAL_OUTPUT);
 
     console.error("error msg");
+    console.flush();
     verify(consoleView).print("error msg\n", ConsoleViewContentType.ERROR_OUTPUT);
 
     console.error("error with exception", new IllegalStateException("ex"));
-    verify(consoleView).print("error with exception\n", ConsoleViewContentType.ERROR_OUTPUT);
+    console.flush();
+    verify(consoleView).print(startsWith("error with exception\njava.lang.IllegalStateException: ex"), eq(ConsoleViewContentType.ERROR_OUTPUT));
+  }
+
+  @Test
+  void should_print_consecutive_lines_of_the_same_type_at_once() {
+    console.info("first");
+    console.info("second");
+    console.error("third");
+    console.info("fourth");
+    console.flush();
+
+    var inOrder = inOrder(consoleView);
+    inOrder.verify(consoleView).print("first\nsecond\n", ConsoleViewContentType.NORMAL_OUTPUT);
+    inOrder.verify(consoleView).print("third\n", ConsoleViewContentType.ERROR_OUTPUT);
+    inOrder.verify(consoleView).print("fourth\n", ConsoleViewContentType.NORMAL_OUTPUT);
+    verifyNoMoreInteractions(consoleView);
+  }
+
+  @Test
+  void should_suppress_the_oldest_lines_above_the_retention_cap() {
+    for (var i = 0; i < SonarLintConsoleImpl.MAX_PENDING_LINES + 2; i++) {
+      console.info("line " + i);
+    }
+    console.flush();
+
+    var inOrder = inOrder(consoleView);
+    inOrder.verify(consoleView).print("2 lines suppressed\n", ConsoleViewContentType.SYSTEM_OUTPUT);
+    inOrder.verify(consoleView).print(startsWith("line 2\n"), eq(ConsoleViewContentType.NORMAL_OUTPUT));
+  }
+
+  @Test
+  void should_retain_lines_until_the_view_is_set() {
+    var consoleWithoutView = new SonarLintConsoleImpl(getProject());
+    consoleWithoutView.info("early msg");
+
+    assertThat(consoleWithoutView.acceptsGlobalLogs()).isFalse();
+    consoleWithoutView.setConsoleView(consoleView);
+
+    verify(consoleView).print("early msg\n", ConsoleViewContentType.NORMAL_OUTPUT);
+    assertThat(consoleWithoutView.acceptsGlobalLogs()).isTrue();
   }
 }
@@ -0,0 +1,68 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.ui.traffic.light
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.doReturn
+import org.mockito.kotlin.mock
+import org.sonarlint.intellij.finding.Finding
+import org.sonarlint.intellij.finding.FindingStateVersion
+
+class FileFindingCounterTests {
+
+    private val underTest = FileFindingCounter()
+
+    @Test
+    fun should_count_unresolved_findings_by_type_and_new_code() {
+        val issues = listOf(aFinding(resolved = false, onNewCode = true), aFinding(resolved = false, onNewCode = false), aFinding(resolved = true, onNewCode = true))
+        val hotspots = listOf(aFinding(resolved = false, onNewCode = false))
+        val taintVulnerabilities = listOf(aFinding(resolved = false, onNewCode = true))
+
+        val counts = underTest.count(issues, hotspots, taintVulnerabilities)
+
+        assertThat(counts).isEqualTo(FileFindingCounts(2, 1, 1, 0, 1, 1))
+    }
+
+    @Test
+    fun should_reuse_the_counts_while_the_findings_are_the_same() {
+        val issues = listOf(aFinding(resolved = false, onNewCode = true))
+
+        val counts = underTest.count(issues, emptyList(), emptyList())
+
+        assertThat(underTest.count(issues, emptyList(), emptyList())).isSameAs(counts)
+        assertThat(underTest.count(listOf(aFinding(resolved = false, onNewCode = true)), emptyList(), emptyList())).isNotSameAs(counts)
+    }
+
+    @Test
+    fun should_count_again_when_a_finding_state_changes() {
+        val issues = listOf(aFinding(resolved = false, onNewCode = true))
+        val counts = underTest.count(issues, emptyList(), emptyList())
+
+        FindingStateVersion.increment()
+
+        assertThat(underTest.count(issues, emptyList(), emptyList())).isNotSameAs(counts)
+    }
+
+    private fun aFinding(resolved: Boolean, onNewCode: Boolean): Finding = mock {
+        on { isResolved() } doReturn resolved
+        on { isOnNewCode() } doReturn onNewCode
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.ui.tree
+
+import javax.swing.event.TreeModelEvent
+import javax.swing.event.TreeModelListener
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+
+class CompactTreeDiffTests {
+
+    private val root = "root"
+
+    @Test
+    fun should_report_removed_and_inserted_children() {
+        val oldTree = CompactTree(mapOf(root to listOf("a", "b", "c")))
+        val newTree = CompactTree(mapOf(root to listOf("a", "c", "d")))
+
+        val events = fire(CompactTreeDiff.between(this, root, oldTree, newTree))
+
+        assertThat(events).containsExactly(
+            "removed [root] [1] [b]",
+            "inserted [root] [2] [d]"
+        )
+    }
+
+    @Test
+    fun should_report_equal_children_with_a_new_instance_as_changed() {
+        val oldChild = Node("a", 1)
+        val newChild = Node("a", 2)
+        val oldTree = CompactTree(mapOf(root to listOf(oldChild)))
+        val newTree = CompactTree(mapOf(root to listOf(newChild)))
+
+        val events = fire(CompactTreeDiff.between(this, root, oldTree, newTree))
+
+        assertThat(events).containsExactly("changed [root] [0] [a]")
+    }
+
+    @Test
+    fun should_report_differences_of_nested_children() {
+        val oldTree = CompactTree(mapOf(root to listOf("a"), "a" to listOf("a1", "a2")))
+        val newTree = CompactTree(mapOf(root to listOf("a"), "a" to listOf("a2")))
+
+        val events = fire(CompactTreeDiff.between(this, root, oldTree, newTree))
+
+        assertThat(events).containsExactly("removed [root, a] [0] [a1]")
+    }
+
+    @Test
+    fun should_report_structure_change_when_children_are_reordered() {
+        val oldTree = CompactTree(mapOf(root to listOf("a", "b")))
+        val newTree = CompactTree(mapOf(root to listOf("b", "a")))
+
+        val events = fire(CompactTreeDiff.between(this, root, oldTree, newTree))
+
+        assertThat(events).containsExactly("structure [root]")
+    }
+
+    @Test
+    fun should_be_empty_when_trees_are_the_same() {
+        val tree = CompactTree(mapOf(root to listOf("a", "b"), "a" to listOf("a1")))
+
+        assertThat(CompactTreeDiff.between(this, root, tree, CompactTree(mapOf(root to listOf("a", "b"), "a" to listOf("a1")))).isEmpty()).isTrue()
+    }
+
+    private class Node(val name: String, val count: Int) {
+        override fun equals(other: Any?) = other is Node && other.name == name
+        override fun hashCode() = name.hashCode()
+        override fun toString() = name
+    }
+
+    private fun fire(diff: CompactTreeDiff): List<String> {
+        val events = mutableListOf<String>()
+        diff.fire(object : TreeModelListener {
+            override fun treeNodesChanged(e: TreeModelEvent) {
+                events.add("changed ${describe(e)}")
+            }
+
+            override fun treeNodesInserted(e: TreeModelEvent) {
+                events.add("inserted ${describe(e)}")
+            }
+
+            override fun treeNodesRemoved(e: TreeModelEvent) {
+                events.add("removed ${describe(e)}")
+            }
+
+            override fun treeStructureChanged(e: TreeModelEvent) {
+                events.add("structure ${e.treePath.path.contentToString()}")
+            }
+        })
+        return events
+    }
+
+    private fun describe(event: TreeModelEvent) =
+        "${event.treePath.path.contentToString()} ${event.childIndices.contentToString()} ${event.children.contentToString()}"
+
+}
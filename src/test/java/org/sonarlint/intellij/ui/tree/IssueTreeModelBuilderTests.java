@@ -30,12 +30,16 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Nullable;
+import javax.swing.event.TreeModelEvent;
+import javax.swing.event.TreeModelListener;
 import javax.swing.tree.DefaultTreeModel;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.sonarlint.intellij.AbstractSonarLintLightTests;
 import org.sonarlint.intellij.finding.issue.LiveIssue;
 import org.sonarlint.intellij.ui.nodes.AbstractNode;
+import org.sonarlint.intellij.ui.nodes.FileNode;
+import org.sonarlint.intellij.ui.nodes.IssueNode;
 import org.sonarsource.sonarlint.core.rpc.protocol.backend.rules.ImpactDto;
 import org.sonarsource.sonarlint.core.rpc.protocol.client.issue.RaisedIssueDto;
 import org.sonarsource.sonarlint.core.rpc.protocol.common.CleanCodeAttribute;
@@ -96,6 +100,50 @@ class IssueTreeModelBuilderTests extends AbstractSonarLintLightTests {
     assertThat(treeBuilder.getPreviousIssue(first)).isNull();
   }
 
+  @Test
+  void should_only_notify_the_differences_when_a_file_is_reanalyzed() {
+    var data = new HashMap<VirtualFile, Collection<LiveIssue>>();
+    addFile(data, "file1", 2);
+    addFile(data, "file2", 3);
+    treeBuilder.updateModel(data);
+    var root = (AbstractNode) model.getRoot();
+    var file1Node = (FileNode) root.getChildAt(0);
+    var file2Node = (FileNode) root.getChildAt(1);
+    var file1IssueNodes = Collections.list(file1Node.children());
+    var file2Issues = new ArrayList<>(data.get(file2Node.file()));
+    var keptIssueNode = (IssueNode) file2Node.findChildren(finding -> finding == file2Issues.get(1)).orElseThrow();
+    var events = new ArrayList<String>();
+    model.addTreeModelListener(new RecordingTreeModelListener(events));
+
+    file2Issues.remove(0);
+    file2Issues.add(mockIssuePointer(10, "rule9", MAJOR, Instant.now().plusSeconds(60)));
+    data.put(file2Node.file(), file2Issues);
+    treeBuilder.updateModel(data);
+
+    assertThat(events).doesNotContain("structureChanged").contains("removed", "inserted");
+    assertThat(root.getChildAt(0)).isSameAs(file1Node);
+    assertThat(Collections.list(file1Node.children())).containsExactlyElementsOf(file1IssueNodes);
+    assertThat(file2Node.getChildCount()).isEqualTo(3);
+    assertThat(((IssueNode) file2Node.getChildAt(0)).issue()).isSameAs(file2Issues.get(2));
+    assertThat(file2Node.findChildren(finding -> finding == file2Issues.get(0))).contains(keptIssueNode);
+  }
+
+  @Test
+  void should_display_issues_equal_for_the_comparator_only_once() {
+    var data = new HashMap<VirtualFile, Collection<LiveIssue>>();
+    addFile(data, "file1", 2);
+    var file = data.keySet().iterator().next();
+    var issues = new ArrayList<>(data.get(file));
+    issues.add(issues.get(0));
+    data.put(file, issues);
+
+    treeBuilder.updateModel(data);
+
+    var fileNode = (FileNode) ((AbstractNode) model.getRoot()).getChildAt(0);
+    assertThat(fileNode.getChildCount()).isEqualTo(2);
+    assertThat(Collections.list(fileNode.children())).extracting(node -> ((IssueNode) node).issue()).containsOnlyOnce(issues.get(0));
+  }
+
   @Test
   void testIssueComparator() {
     var list = new ArrayList<LiveIssue>();
@@ -132,6 +180,28 @@ class IssueTreeModelBuilderTests extends AbstractSonarLintLightTests {
     assertThat(sorted).containsExactly(list.get(2), list.get(1), list.get(6), list.get(0), list.get(4), list.get(3), list.get(5));
   }
 
+  private record RecordingTreeModelListener(List<String> events) implements TreeModelListener {
+    @Override
+    public void treeNodesChanged(TreeModelEvent e) {
+      events.add("changed");
+    }
+
+    @Override
+    public void treeNodesInserted(TreeModelEvent e) {
+      events.add("inserted");
+    }
+
+    @Override
+    public void treeNodesRemoved(TreeModelEvent e) {
+      events.add("removed");
+    }
+
+    @Override
+    public void treeStructureChanged(TreeModelEvent e) {
+      events.add("structureChanged");
+    }
+  }
+
   private void addFile(Map<VirtualFile, Collection<LiveIssue>> data, String fileName, int numIssues) {
     var file = mock(VirtualFile.class);
     when(file.getName()).thenReturn(fileName);
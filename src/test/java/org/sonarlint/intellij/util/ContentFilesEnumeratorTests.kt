@@ -0,0 +1,52 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.util
+
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.roots.GeneratedSourcesFilter
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.testFramework.ExtensionTestUtil
+import java.util.Collections
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.sonarlint.intellij.AbstractSonarLintLightTests
+
+class ContentFilesEnumeratorTests : AbstractSonarLintLightTests() {
+
+    @Test
+    fun should_only_skip_the_files_failing_validation() {
+        val failing = myFixture.addFileToProject("Failing.java", "class Failing {}").virtualFile
+        val valid = myFixture.addFileToProject("Valid.java", "class Valid {}").virtualFile
+        ExtensionTestUtil.maskExtensions(GeneratedSourcesFilter.EP_NAME, listOf(object : GeneratedSourcesFilter() {
+            override fun isGeneratedSource(file: VirtualFile, project: Project): Boolean {
+                if (file == failing) {
+                    throw IllegalStateException("Cannot check the file")
+                }
+                return false
+            }
+        }), testRootDisposable)
+        val files = Collections.synchronizedList(mutableListOf<VirtualFile>())
+
+        ContentFilesEnumerator.enumerate(project, null) { files.addAll(it) }
+
+        assertThat(files).contains(valid).doesNotContain(failing)
+    }
+
+}
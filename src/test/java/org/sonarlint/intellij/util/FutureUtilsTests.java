@@ -0,0 +1,66 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FutureUtilsTests {
+
+  @Test
+  void should_cancel_the_inner_future_when_the_composed_one_is_cancelled() throws InterruptedException {
+    var inner = new CompletableFuture<String>();
+    var innerCreated = new CountDownLatch(1);
+    var composed = FutureUtils.composeCancellable(CompletableFuture.completedFuture("server"), server -> {
+      innerCreated.countDown();
+      return inner;
+    });
+    assertThat(innerCreated.await(5, TimeUnit.SECONDS)).isTrue();
+
+    composed.cancel(true);
+
+    assertThat(inner).isCancelled();
+  }
+
+  @Test
+  void should_not_create_the_inner_future_when_cancelled_before_the_source_completes() {
+    var source = new CompletableFuture<String>();
+    var inner = new CompletableFuture<String>();
+    var composed = FutureUtils.composeCancellable(source, server -> inner);
+
+    composed.cancel(true);
+    source.complete("server");
+
+    assertThat(composed).isCancelled();
+    assertThat(inner).isNotDone();
+  }
+
+  @Test
+  void should_complete_with_the_inner_future() {
+    var composed = FutureUtils.composeCancellable(CompletableFuture.completedFuture("server"), server -> CompletableFuture.completedFuture(server + " response"));
+
+    assertThat(composed.join()).isEqualTo("server response");
+  }
+
+}
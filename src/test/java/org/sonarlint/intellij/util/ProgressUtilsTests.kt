@@ -0,0 +1,99 @@
+/*
+ * SonarLint for IntelliJ IDEA
+ * Copyright (C) 2015-2024 SonarSource
+ * sonarlint@sonarsource.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonarlint.intellij.util
+
+import com.intellij.openapi.progress.EmptyProgressIndicator
+import com.intellij.openapi.progress.util.ProgressIndicatorBase
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.TimeoutException
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import org.awaitility.Awaitility.await
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Test
+
+class ProgressUtilsTests {
+
+    private val scheduler = Executors.newSingleThreadScheduledExecutor()
+
+    @AfterEach
+    fun tearDown() {
+        scheduler.shutdownNow()
+    }
+
+    @Test
+    fun should_return_as_soon_as_the_future_completes() {
+        val future = CompletableFuture<String>()
+        scheduler.schedule({ future.complete("done") }, 20, TimeUnit.MILLISECONDS)
+
+        assertThat(ProgressUtils.awaitCompletion(ProgressIndicatorBase(), future)).isTrue()
+        assertThat(future).isCompletedWithValue("done")
+    }
+
+    @Test
+    fun should_return_when_the_future_fails() {
+        val future = CompletableFuture<String>()
+        scheduler.schedule({ future.completeExceptionally(IllegalStateException()) }, 20, TimeUnit.MILLISECONDS)
+
+        assertThat(ProgressUtils.awaitCompletion(ProgressIndicatorBase(), future)).isTrue()
+    }
+
+    @Test
+    fun should_be_woken_up_when_the_indicator_is_cancelled() {
+        val indicator = ProgressIndicatorBase()
+        val waiting = CompletableFuture.supplyAsync({ ProgressUtils.awaitCompletion(indicator, CompletableFuture<String>()) }, scheduler)
+        await().until { ProgressUtils.cancellationListenersCount(indicator) == 1 }
+
+        indicator.cancel()
+
+        // the waiting thread never wakes up by itself for indicators notifying their cancellation
+        assertThat(waiting.get(10, TimeUnit.SECONDS)).isFalse()
+    }
+
+    @Test
+    fun should_remove_the_cancellation_listener_when_the_wait_is_over() {
+        val indicator = ProgressIndicatorBase()
+
+        repeat(3) {
+            assertThat(ProgressUtils.awaitCompletion(indicator, CompletableFuture.completedFuture("done"))).isTrue()
+        }
+
+        assertThat(ProgressUtils.cancellationListenersCount(indicator)).isZero()
+        indicator.cancel()
+        assertThat(ProgressUtils.awaitCompletion(indicator, CompletableFuture<String>())).isFalse()
+    }
+
+    @Test
+    fun should_check_cancellation_of_indicators_not_notifying_it() {
+        val indicator = EmptyProgressIndicator()
+        scheduler.schedule({ indicator.cancel() }, 20, TimeUnit.MILLISECONDS)
+
+        assertThat(ProgressUtils.awaitCompletion(indicator, CompletableFuture<String>())).isFalse()
+    }
+
+    @Test
+    fun should_time_out() {
+        assertThatThrownBy { ProgressUtils.awaitCompletion(ProgressIndicatorBase(), CompletableFuture<String>(), Duration.ofMillis(50)) }
+            .isInstanceOf(TimeoutException::class.java)
+    }
+}
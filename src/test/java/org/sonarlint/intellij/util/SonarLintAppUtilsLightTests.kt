@@ -19,7 +19,10 @@
  */
 package org.sonarlint.intellij.util
 
+import com.intellij.openapi.progress.EmptyProgressIndicator
+import com.intellij.openapi.progress.ProcessCanceledException
 import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
 import org.junit.jupiter.api.Test
 import org.sonarlint.intellij.AbstractSonarLintLightTests
 
@@ -40,4 +43,22 @@ class SonarLintAppUtilsLightTests : AbstractSonarLintLightTests() {
         assertThat(SonarLintAppUtils.getPathRelativeToModuleBaseDir(module, directory.parent.parent))
             .isEqualTo(null)
     }
+
+    @Test
+    fun should_list_all_content_files_of_the_project_and_of_the_module() {
+        val files = (1..3).map { myFixture.addFileToProject("dir$it/file.txt", "content").virtualFile }
+
+        assertThat(SonarLintAppUtils.visitAndAddAllFilesForProject(project)).containsAll(files)
+        assertThat(SonarLintAppUtils.visitAndAddAllFilesForModule(module)).containsAll(files)
+    }
+
+    @Test
+    fun should_stop_listing_files_when_cancelled() {
+        myFixture.addFileToProject("file.txt", "content")
+        val indicator = EmptyProgressIndicator()
+        indicator.cancel()
+
+        assertThatThrownBy { SonarLintAppUtils.visitAndAddAllFilesForProject(project, indicator) }
+            .isInstanceOf(ProcessCanceledException::class.java)
+    }
 }